@@ -3,6 +3,7 @@ plugins {
 	id("org.springframework.boot") version "3.2.4"
 	id("io.spring.dependency-management") version "1.1.4"
 	id("io.freefair.lombok") version "8.6"
+	id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "vn.nhom11"
@@ -24,6 +25,7 @@ dependencies {
 	implementation("org.springframework.boot:spring-boot-starter-thymeleaf")
 	implementation("org.springframework.boot:spring-boot-starter-validation")
 	implementation("org.springframework.boot:spring-boot-starter-web")
+	implementation("org.springframework.boot:spring-boot-starter-websocket")
 	implementation("org.springframework.boot:spring-boot-starter-mail")
 	implementation("org.thymeleaf.extras:thymeleaf-extras-springsecurity6")
 	implementation("com.turkraft.springfilter:jpa:3.1.7")
@@ -32,8 +34,41 @@ dependencies {
 	runtimeOnly("com.mysql:mysql-connector-j")
 	testImplementation("org.springframework.boot:spring-boot-starter-test")
 	testImplementation("org.springframework.security:spring-security-test")
+	testImplementation("com.icegreen:greenmail-junit5:2.0.1")
+	jmh("com.h2database:h2")
 }
 
 tasks.withType<Test> {
 	useJUnitPlatform()
 }
+
+// load test (@Tag("load")) chỉ chạy khi gọi riêng, với server đang chạy:
+// ./gradlew loadTest -Pload.baseUrl=http://localhost:8080 -Pload.users=a@gmail.com:123456,b@gmail.com:123456
+tasks.test {
+	useJUnitPlatform {
+		excludeTags("load")
+	}
+}
+
+tasks.register<Test>("loadTest") {
+	description = "Chạy các load test với server đang chạy tại load.baseUrl"
+	group = "verification"
+	testClassesDirs = sourceSets.test.get().output.classesDirs
+	classpath = sourceSets.test.get().runtimeClasspath
+	useJUnitPlatform {
+		includeTags("load")
+	}
+	outputs.upToDateWhen { false }
+	testLogging.showStandardStreams = true
+	project.properties.filterKeys { it.startsWith("load.") }.forEach { (name, value) ->
+		systemProperty(name, value.toString())
+	}
+}
+
+// benchmark: ./gradlew jmh [-PjmhIncludes=TênBenchmark] (mã nguồn ở src/jmh/java)
+jmh {
+	warmupIterations.set(2)
+	iterations.set(5)
+	fork.set(1)
+	project.findProperty("jmhIncludes")?.let { includes.set(listOf(it.toString())) }
+}
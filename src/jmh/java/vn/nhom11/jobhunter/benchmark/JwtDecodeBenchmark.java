@@ -0,0 +1,127 @@
+package vn.nhom11.jobhunter.benchmark;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import vn.nhom11.jobhunter.config.CachingJwtDecoder;
+import vn.nhom11.jobhunter.util.SecurityUtil;
+
+/**
+ * Chi phí kiểm tra access token trên mỗi request:
+ * - nimbusDecode: cách cũ, kiểm tra chữ ký HS512 + parse claims + validate mỗi lần
+ * - cachingDecode: CachingJwtDecoder, token đã kiểm tra chỉ còn SHA-256 token + tra cache
+ * - cachingDecodeMiss: token chưa có trong cache (lần đầu của mỗi token): kiểm tra như nimbusDecode
+ *   cộng thêm SHA-256 token và đưa vào cache
+ * Token có cùng claims như SecurityUtil.createAccessToken; tokens = số token khác nhau đang được dùng.
+ *
+ * Chạy: ./gradlew jmh -PjmhIncludes=JwtDecodeBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtDecodeBenchmark {
+
+    @Param({ "1", "10000" })
+    private int tokens;
+
+    private String[] values;
+    private NimbusJwtDecoder nimbus;
+    private CachingJwtDecoder caching;
+    private NimbusJwtEncoder encoder;
+
+    // cache chỉ giữ 1 token, gọi xen kẽ 2 token: lần nào cũng miss
+    private CachingJwtDecoder missCaching;
+    private String[] missValues;
+    private int missIndex;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        byte[] secret = new byte[64];
+        new SecureRandom().nextBytes(secret);
+        SecretKey key = new SecretKeySpec(secret, SecurityUtil.JWT_ALGORITHM.getName());
+
+        this.encoder = new NimbusJwtEncoder(new ImmutableSecret<>(key));
+        this.nimbus = NimbusJwtDecoder.withSecretKey(key).macAlgorithm(SecurityUtil.JWT_ALGORITHM).build();
+        this.caching = new CachingJwtDecoder(this.nimbus, this.tokens * 2, new SimpleMeterRegistry());
+
+        this.values = new String[this.tokens];
+        for (int i = 0; i < this.tokens; i++) {
+            this.values[i] = this.encode(i);
+            // làm nóng cache: đo đường đi khi token đã được kiểm tra trước đó
+            this.caching.decode(this.values[i]);
+        }
+
+        this.missCaching = new CachingJwtDecoder(this.nimbus, 1, new SimpleMeterRegistry());
+        this.missValues = new String[] { this.encode(this.tokens), this.encode(this.tokens + 1) };
+    }
+
+    @Benchmark
+    public Jwt nimbusDecode() {
+        return this.nimbus.decode(this.next());
+    }
+
+    @Benchmark
+    public Jwt cachingDecode() {
+        return this.caching.decode(this.next());
+    }
+
+    @Benchmark
+    public Jwt cachingDecodeMiss() {
+        this.missIndex ^= 1;
+        return this.missCaching.decode(this.missValues[this.missIndex]);
+    }
+
+    // ========================== UTIL ==========================
+
+    private String next() {
+        return this.values[ThreadLocalRandom.current().nextInt(this.values.length)];
+    }
+
+    private String encode(int i) {
+        Instant now = Instant.now();
+        byte[] permissions = new byte[32];
+        ThreadLocalRandom.current().nextBytes(permissions);
+
+        // @formatter:off
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+            .issuedAt(now)
+            .expiresAt(now.plus(1, ChronoUnit.DAYS))
+            .subject("user" + i + "@gmail.com")
+            .claim("user", Map.of("id", i, "email", "user" + i + "@gmail.com", "name", "User " + i))
+            .claim(SecurityUtil.PERMISSION_CLAIM, Base64.getUrlEncoder().withoutPadding().encodeToString(permissions))
+            .claim(SecurityUtil.PERMISSION_VERSION_CLAIM, 1L)
+            .claim(SecurityUtil.AUTH_VERSION_CLAIM, 0L)
+            .build();
+        // @formatter:on
+
+        JwsHeader header = JwsHeader.with(SecurityUtil.JWT_ALGORITHM).build();
+        return this.encoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+    }
+}
@@ -0,0 +1,141 @@
+package vn.nhom11.jobhunter.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import vn.nhom11.jobhunter.domain.Permission;
+import vn.nhom11.jobhunter.domain.Role;
+import vn.nhom11.jobhunter.service.PermissionMatrixService;
+
+/**
+ * Chi phí kiểm tra "role có toàn quyền" trên các API danh sách (RoleService.permissionVsRole):
+ * - countComparison: cách cũ, tìm role + nạp collection permissions của role + COUNT(*) bảng permissions
+ *   (chạy bằng JDBC trên H2 trong bộ nhớ: chưa tính round-trip mạng tới MySQL và chi phí Hibernate,
+ *   nên là cận dưới của chi phí thực tế)
+ * - precomputedFlag: cách mới, tra tập role toàn quyền đã tính sẵn trong PermissionMatrixService
+ *
+ * Chạy: ./gradlew jmh -PjmhIncludes=PermissionCheckBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PermissionCheckBenchmark {
+
+    private static final long ADMIN_ROLE_ID = 1;
+
+    @Param({ "50", "500" })
+    private int permissionCount;
+
+    private Connection connection;
+    private PermissionMatrixService matrix;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        this.connection = DriverManager.getConnection("jdbc:h2:mem:permission-bench-" + this.permissionCount);
+        try (Statement st = this.connection.createStatement()) {
+            st.execute("CREATE TABLE roles (id BIGINT PRIMARY KEY, name VARCHAR(255), active BOOLEAN)");
+            st.execute("CREATE TABLE permissions (id BIGINT PRIMARY KEY, name VARCHAR(255),"
+                    + " api_path VARCHAR(255), method VARCHAR(16), module VARCHAR(64))");
+            st.execute("CREATE TABLE permission_role (role_id BIGINT, permission_id BIGINT,"
+                    + " PRIMARY KEY (role_id, permission_id))");
+            st.execute("INSERT INTO roles VALUES (" + ADMIN_ROLE_ID + ", 'SUPER_ADMIN', TRUE)");
+        }
+
+        List<Permission> permissions = new ArrayList<>();
+        try (PreparedStatement permission = this.connection
+                .prepareStatement("INSERT INTO permissions VALUES (?, ?, ?, ?, ?)");
+                PreparedStatement link = this.connection.prepareStatement("INSERT INTO permission_role VALUES (?, ?)")) {
+            for (int i = 1; i <= this.permissionCount; i++) {
+                Permission p = new Permission();
+                p.setId(i);
+                p.setName("permission " + i);
+                p.setApiPath("/api/v1/module" + (i % 20) + "/resource" + i + "/{id}");
+                p.setMethod(i % 2 == 0 ? "GET" : "POST");
+                p.setModule("MODULE" + (i % 20));
+                permissions.add(p);
+
+                permission.setLong(1, p.getId());
+                permission.setString(2, p.getName());
+                permission.setString(3, p.getApiPath());
+                permission.setString(4, p.getMethod());
+                permission.setString(5, p.getModule());
+                permission.executeUpdate();
+
+                link.setLong(1, ADMIN_ROLE_ID);
+                link.setLong(2, p.getId());
+                link.executeUpdate();
+            }
+        }
+
+        // ma trận dựng bằng các hàm cập nhật tăng dần, không cần repository
+        this.matrix = new PermissionMatrixService(null, null);
+        permissions.forEach(this.matrix::onPermissionSaved);
+        Role admin = new Role();
+        admin.setId(ADMIN_ROLE_ID);
+        admin.setPermissions(permissions);
+        this.matrix.onRoleSaved(admin);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        this.connection.close();
+    }
+
+    @Benchmark
+    public boolean countComparison() throws SQLException {
+        // roleRepository.findById
+        try (PreparedStatement ps = this.connection.prepareStatement("SELECT id, name, active FROM roles WHERE id = ?")) {
+            ps.setLong(1, ADMIN_ROLE_ID);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    return false;
+                }
+            }
+        }
+
+        // role.getPermissions().size(): nạp cả collection
+        long owned = 0;
+        try (PreparedStatement ps = this.connection.prepareStatement(
+                "SELECT p.id, p.name, p.api_path, p.method, p.module FROM permissions p"
+                        + " JOIN permission_role pr ON pr.permission_id = p.id WHERE pr.role_id = ?")) {
+            ps.setLong(1, ADMIN_ROLE_ID);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    owned++;
+                }
+            }
+        }
+
+        // permissionRepository.count()
+        long total;
+        try (Statement st = this.connection.createStatement();
+                ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM permissions")) {
+            rs.next();
+            total = rs.getLong(1);
+        }
+        return owned == total;
+    }
+
+    @Benchmark
+    public boolean precomputedFlag() {
+        return this.matrix.isFullPermission(ADMIN_ROLE_ID);
+    }
+}
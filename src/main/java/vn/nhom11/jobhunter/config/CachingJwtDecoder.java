@@ -0,0 +1,128 @@
+package vn.nhom11.jobhunter.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import vn.nhom11.jobhunter.util.TtlCache;
+
+/**
+ * JwtDecoder dùng chung cho toàn bộ ứng dụng (resource server, WebSocket, refresh token):
+ * - decoder Nimbus (khóa HS512 đã giải mã sẵn) tạo 1 lần khi khởi động
+ * - token đã kiểm tra chữ ký được nhớ theo SHA-256 của token tới đúng thời điểm exp,
+ *   request sau cùng token không phải kiểm tra chữ ký / parse claims lại
+ * - token bị thu hồi (logout) bị từ chối cho tới khi hết hạn; danh sách thu hồi được lưu và đồng bộ
+ *   giữa các node bởi RevokedTokenService
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+
+    // hash token -> token đã kiểm tra, giữ tới đúng thời điểm exp
+    private final TtlCache<String, Jwt> cache;
+
+    // hash token -> thời điểm hết hạn (millis), giữ tới khi token tự hết hạn
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public CachingJwtDecoder(JwtDecoder delegate, int maxSize, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.cache = new TtlCache<>(maxSize);
+        this.hits = Counter.builder("jwt.decoder.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("jwt.decoder.cache").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("jwt.decoder.cache.size", this.cache, TtlCache::size).register(meterRegistry);
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String key = hash(token);
+        Jwt cached = this.cache.get(key);
+        if (cached != null) {
+            this.hits.increment();
+            return cached;
+        }
+        this.misses.increment();
+
+        Jwt jwt = this.verify(key, token);
+        Instant exp = jwt.getExpiresAt();
+        if (exp != null) {
+            this.cache.put(key, jwt, exp.toEpochMilli());
+            // bị thu hồi trong lúc đang kiểm tra
+            if (this.revoked.containsKey(key)) {
+                this.cache.remove(key);
+            }
+        }
+        return jwt;
+    }
+
+    /**
+     * Kiểm tra token nhưng không đưa vào cache (token dùng 1 lần như refresh token)
+     */
+    public Jwt decodeWithoutCache(String token) throws JwtException {
+        return this.verify(hash(token), token);
+    }
+
+    /**
+     * Thu hồi token (logout): các request sau dùng token này bị từ chối
+     */
+    public void revoke(Jwt jwt) {
+        Instant exp = jwt.getExpiresAt();
+        this.revoke(hash(jwt.getTokenValue()), exp != null ? exp.toEpochMilli() : 0);
+        this.purgeRevoked();
+    }
+
+    /**
+     * Thu hồi theo hash của token (đồng bộ từ bảng revoked_tokens), expiresAt = exp của token (millis)
+     */
+    public void revoke(String tokenHash, long expiresAt) {
+        long now = System.currentTimeMillis();
+        this.cache.remove(tokenHash);
+        if (expiresAt > now) {
+            this.revoked.put(tokenHash, expiresAt);
+        }
+    }
+
+    /**
+     * Bỏ các token thu hồi đã tự hết hạn
+     */
+    public void purgeRevoked() {
+        long now = System.currentTimeMillis();
+        this.revoked.values().removeIf(t -> t <= now);
+    }
+
+    /**
+     * SHA-256 (Base64) của token: khóa của cache và của bảng revoked_tokens
+     */
+    public static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // ========================== UTIL ==========================
+
+    private Jwt verify(String key, String token) {
+        Long revokedUntil = this.revoked.get(key);
+        if (revokedUntil != null && revokedUntil > System.currentTimeMillis()) {
+            throw new BadJwtException("Token đã bị thu hồi");
+        }
+        return this.delegate.decode(token);
+    }
+}
@@ -1,6 +1,7 @@
 package vn.nhom11.jobhunter.config;
 
 import java.util.Arrays;
+import java.util.List;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -11,19 +12,21 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 @Configuration
 public class CorsConfig {
 
+    // cho phép các URL nào có thể kết nối tới backend (dùng chung cho WebSocket)
+    public static final List<String> ALLOWED_ORIGINS = List.of(
+            "http://localhost:3000", "http://localhost:4173", "http://localhost:5173");
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
 
-        // cho phép các URL nào có thể kết nối tới backend
-        configuration.setAllowedOrigins(
-                Arrays.asList("http://localhost:3000", "http://localhost:4173", "http://localhost:5173"));
+        configuration.setAllowedOrigins(ALLOWED_ORIGINS);
 
         // các method nào đc kết nối
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
 
         // các phần header được phép gửi lên
-        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "Accept", "x-no-retry"));
+        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "Accept", "x-no-retry", "X-Chunk-SHA256"));
 
         // gửi kèm cookies hay không
         configuration.setAllowCredentials(true);
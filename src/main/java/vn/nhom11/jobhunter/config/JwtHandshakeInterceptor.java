@@ -0,0 +1,80 @@
+package vn.nhom11.jobhunter.config;
+
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import vn.nhom11.jobhunter.domain.UserPrincipal;
+import vn.nhom11.jobhunter.service.PrincipalService;
+
+/**
+ * Xác thực handshake WebSocket bằng access token hiện có.
+ * Trình duyệt không gửi được header Authorization khi mở WebSocket nên chấp nhận thêm ?access_token=
+ */
+public class JwtHandshakeInterceptor implements HandshakeInterceptor {
+
+    public static final String ATTR_USER_ID = "userId";
+    public static final String ATTR_EMAIL = "email";
+
+    private final JwtDecoder jwtDecoder;
+    private final PrincipalService principalService;
+
+    public JwtHandshakeInterceptor(JwtDecoder jwtDecoder, PrincipalService principalService) {
+        this.jwtDecoder = jwtDecoder;
+        this.principalService = principalService;
+    }
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+            WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        String token = resolveToken(request);
+        if (token == null) {
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+
+        try {
+            Jwt jwt = this.jwtDecoder.decode(token);
+            // token đã thu hồi bị decoder từ chối; thông tin user luôn lấy theo trạng thái hiện tại (cache / DB)
+            UserPrincipal principal = this.principalService.getPrincipal(jwt.getSubject());
+            if (principal == null) {
+                response.setStatusCode(HttpStatus.UNAUTHORIZED);
+                return false;
+            }
+            attributes.put(ATTR_USER_ID, principal.getId());
+            attributes.put(ATTR_EMAIL, principal.getEmail());
+            return true;
+        } catch (JwtException e) {
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+            WebSocketHandler wsHandler, Exception exception) {
+    }
+
+    private static String resolveToken(ServerHttpRequest request) {
+        String header = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith("Bearer ")) {
+            return header.substring(7);
+        }
+        if (request instanceof ServletServerHttpRequest servletRequest) {
+            String token = servletRequest.getServletRequest().getParameter("access_token");
+            if (token != null && !token.isBlank()) {
+                return token;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,128 @@
+package vn.nhom11.jobhunter.config;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import vn.nhom11.jobhunter.util.error.TooManyRequestsException;
+
+/**
+ * BCrypt chạy trên pool riêng (số luồng + hàng đợi giới hạn) thay vì trên luồng Tomcat:
+ * - tối đa threads phép băm chạy cùng lúc, queueCapacity phép chờ; đầy thì từ chối ngay (429)
+ *   nên 1 đợt đăng nhập dồn dập không chiếm hết luồng xử lý của các API khác
+ * - cost cố định bằng cấu hình (chạy nhiều node thì mọi node phải cùng 1 giá trị),
+ *   hoặc = 0 thì đo khi khởi động để 1 lần băm mất khoảng targetMs (chỉ nên dùng khi chạy 1 node)
+ * - hash có cost thấp hơn cost hiện tại được băm lại khi user đăng nhập (upgradeEncoding);
+ *   cost cao hơn thì giữ nguyên, các node lệch cost không băm đi băm lại cùng 1 mật khẩu
+ */
+public class OffloadedPasswordEncoder implements PasswordEncoder {
+
+    private static final int MIN_STRENGTH = 10;
+    private static final int MAX_STRENGTH = 16;
+
+    private final BCryptPasswordEncoder delegate;
+    private final int strength;
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+
+    public OffloadedPasswordEncoder(int threads, int queueCapacity, int fixedStrength, long targetMs,
+            MeterRegistry meterRegistry) {
+        this.strength = fixedStrength > 0 ? fixedStrength : calibrate(targetMs);
+        this.delegate = new BCryptPasswordEncoder(this.strength);
+
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "password-hash-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        this.rejected = Counter.builder("password.hash.rejected").register(meterRegistry);
+        Gauge.builder("password.hash.queue.depth", this.executor, e -> e.getQueue().size()).register(meterRegistry);
+        System.out.println(">>> BCRYPT STRENGTH = " + this.strength + (fixedStrength > 0 ? "" : " (đo khi khởi động)")
+                + ", THREADS = " + threads + ", QUEUE = " + queueCapacity);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return this.run(() -> this.delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return this.run(() -> this.delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return strengthOf(encodedPassword) < this.strength;
+    }
+
+    public int getStrength() {
+        return this.strength;
+    }
+
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+
+    // ========================== UTIL ==========================
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = this.executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            this.rejected.increment();
+            throw new TooManyRequestsException("Hệ thống đang bận, vui lòng thử lại sau giây lát.");
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Bị ngắt khi đang băm mật khẩu", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // cost nhỏ nhất >= MIN_STRENGTH sao cho 1 lần băm gần targetMs nhất (mỗi cost +1 thì thời gian x2)
+    private static int calibrate(long targetMs) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(MIN_STRENGTH);
+        probe.encode("calibration"); // làm nóng JIT
+        long start = System.nanoTime();
+        probe.encode("calibration");
+        double elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000.0);
+
+        int extra = (int) Math.round(Math.log(targetMs / elapsedMs) / Math.log(2));
+        return Math.max(MIN_STRENGTH, Math.min(MAX_STRENGTH, MIN_STRENGTH + extra));
+    }
+
+    // "$2a$10$..." -> 10, định dạng lạ -> -1 (sẽ được băm lại)
+    private static int strengthOf(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
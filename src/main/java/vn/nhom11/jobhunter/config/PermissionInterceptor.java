@@ -1,28 +1,34 @@
 package vn.nhom11.jobhunter.config;
 
-import java.util.List;
-
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.HandlerMapping;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import vn.nhom11.jobhunter.domain.Permission;
-import vn.nhom11.jobhunter.domain.Role;
-import vn.nhom11.jobhunter.domain.User;
-import vn.nhom11.jobhunter.service.UserService;
+import vn.nhom11.jobhunter.domain.UserPrincipal;
+import vn.nhom11.jobhunter.service.PermissionMatrixService;
+import vn.nhom11.jobhunter.service.PrincipalService;
+import vn.nhom11.jobhunter.util.RouteTrie;
 import vn.nhom11.jobhunter.util.SecurityUtil;
 import vn.nhom11.jobhunter.util.error.PermissionException;
 
 public class PermissionInterceptor implements HandlerInterceptor {
 
     @Autowired
-    UserService userService;
+    PrincipalService principalService;
+
+    @Autowired
+    PermissionMatrixService permissionMatrixService;
+
+    private final RouteTrie<Boolean> whiteList;
+
+    public PermissionInterceptor(RouteTrie<Boolean> whiteList) {
+        this.whiteList = whiteList;
+    }
 
     @Override
-    @Transactional
     public boolean preHandle(
             HttpServletRequest request,
             HttpServletResponse response, Object handler)
@@ -36,28 +42,50 @@ public class PermissionInterceptor implements HandlerInterceptor {
         System.out.println(">>> httpMethod= " + httpMethod);
         System.out.println(">>> requestURI= " + requestURI);
 
-        // check permission
-        String email = SecurityUtil.getCurrentUserLogin().isPresent() == true
-                ? SecurityUtil.getCurrentUserLogin().get()
-                : "";
-        if (email != null && !email.isEmpty()) {
-            User user = this.userService.handleGetUserByUsername(email);
-            if (user != null) {
-                Role role = user.getRole();
-                if (role != null) {
-                    List<Permission> permissions = role.getPermissions();
-                    boolean isAllow = permissions.stream().anyMatch(item -> item.getApiPath().equals(path)
-                            && item.getMethod().equals(httpMethod));
-
-                    if (isAllow == false) {
-                        throw new PermissionException("Bạn không có quyền truy cập endpoint này...");
-                    }
-                } else {
-                    throw new PermissionException(" không có quyền truy cập endpoint này.");
+        // bỏ qua các endpoint trong whitelist
+        String lookupPath = requestURI.substring(request.getContextPath().length());
+        if (this.whiteList.match(lookupPath, httpMethod) != null) {
+            return true;
+        }
+
+        // check permission từ token nếu ma trận phân quyền chưa đổi version
+        Jwt jwt = SecurityUtil.getCurrentJwt().orElse(null);
+        if (jwt != null && this.isTokenPermissionCurrent(jwt)) {
+            String permissions = jwt.getClaimAsString(SecurityUtil.PERMISSION_CLAIM);
+            if (this.permissionMatrixService.isAllowed(permissions, path, httpMethod) == false) {
+                throw new PermissionException("Bạn không có quyền truy cập endpoint này...");
+            }
+            return true;
+        }
+
+        // token cũ hoặc không có quyền nhúng: kiểm tra qua principal
+        UserPrincipal principal = this.principalService.getCurrentPrincipal();
+        if (principal != null) {
+            if (principal.hasRole()) {
+                boolean isAllow = this.permissionMatrixService.isAllowed(principal.getRoleId(), path, httpMethod);
+
+                if (isAllow == false) {
+                    throw new PermissionException("Bạn không có quyền truy cập endpoint này...");
                 }
+            } else {
+                throw new PermissionException(" không có quyền truy cập endpoint này.");
             }
         }
 
         return true;
     }
+
+    private boolean isTokenPermissionCurrent(Jwt jwt) {
+        // token không nhúng quyền (user chưa có role) hoặc ma trận phân quyền đã đổi: đi đường principal
+        Object version = jwt.getClaims().get(SecurityUtil.PERMISSION_VERSION_CLAIM);
+        if (!jwt.hasClaim(SecurityUtil.PERMISSION_CLAIM)
+                || !(version instanceof Number number)
+                || number.longValue() != this.permissionMatrixService.version()) {
+            return false;
+        }
+        // so với authVersion mới nhất node này biết (trong bộ nhớ, không truy vấn DB)
+        Object authVersion = jwt.getClaims().get(SecurityUtil.AUTH_VERSION_CLAIM);
+        return this.principalService.isTokenCurrent(jwt.getSubject(),
+                authVersion instanceof Number userVersion ? userVersion.longValue() : null);
+    }
 }
@@ -11,8 +11,6 @@ import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
@@ -26,6 +24,8 @@ import org.springframework.security.web.SecurityFilterChain;
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
 import com.nimbusds.jose.util.Base64;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 import vn.nhom11.jobhunter.util.SecurityUtil;
 
 @Configuration
@@ -35,9 +35,25 @@ public class SecurityConfiguration {
     @Value("${nhom11.jwt.base64-secret}")
     private String jwtKey;
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    @Value("${nhom11.jwt.decoder-cache.max-size:10000}")
+    private int decoderCacheMaxSize;
+
+    @Value("${nhom11.password.hash-threads:2}")
+    private int passwordThreads;
+
+    @Value("${nhom11.password.hash-queue-capacity:32}")
+    private int passwordQueueCapacity;
+
+    @Value("${nhom11.password.bcrypt-strength:10}")
+    private int passwordStrength;
+
+    @Value("${nhom11.password.target-hash-ms:250}")
+    private long passwordTargetMs;
+
+    @Bean(destroyMethod = "shutdown")
+    public OffloadedPasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        return new OffloadedPasswordEncoder(this.passwordThreads, this.passwordQueueCapacity,
+                this.passwordStrength, this.passwordTargetMs, meterRegistry);
     }
 
     @Bean
@@ -48,12 +64,13 @@ public class SecurityConfiguration {
         String[] whiteList = {
                 "/",
                 "/api/v1/auth/login", "/api/v1/auth/refresh", "/api/v1/auth/register",
+                "/api/v1/auth/resend-verification",
                 "/storage/**",
-                "/api/v1/email/**",
                 "/v3/api-docs/**",
                 "/swagger-ui/**",
                 "/swagger-ui.html",
-                "api/notifications/last24h"
+                "api/notifications/last24h",
+                "/ws/**" // handshake WebSocket tự xác thực token (JwtHandshakeInterceptor)
         };
 
         http
@@ -93,10 +110,10 @@ public class SecurityConfiguration {
     }
 
     @Bean
-    public JwtDecoder jwtDecoder() {
+    public CachingJwtDecoder jwtDecoder(MeterRegistry meterRegistry) {
         NimbusJwtDecoder jwtDecoder = NimbusJwtDecoder.withSecretKey(
                 getSecretKey()).macAlgorithm(SecurityUtil.JWT_ALGORITHM).build();
-        return token -> {
+        JwtDecoder logging = token -> {
             try {
                 return jwtDecoder.decode(token);
             } catch (Exception e) {
@@ -104,6 +121,7 @@ public class SecurityConfiguration {
                 throw e;
             }
         };
+        return new CachingJwtDecoder(logging, this.decoderCacheMaxSize, meterRegistry);
     }
 
     @Bean
@@ -4,6 +4,9 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.PathResourceResolver;
+
+import vn.nhom11.jobhunter.service.FileBlobService;
 
 @Configuration
 public class StaticResourcesWebConfiguration
@@ -12,9 +15,19 @@ public class StaticResourcesWebConfiguration
     @Value("${nhom11.upload-file.base-uri}")
     private String baseURI;
 
+    private final FileBlobService fileBlobService;
+
+    public StaticResourcesWebConfiguration(FileBlobService fileBlobService) {
+        this.fileBlobService = fileBlobService;
+    }
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        // không cache kết quả resolve: tên logic có thể được thêm / xóa bất kỳ lúc nào
         registry.addResourceHandler("/storage/**")
-                .addResourceLocations(baseURI);
+                .addResourceLocations(baseURI)
+                .resourceChain(false)
+                .addResolver(new StoredFileResourceResolver(this.fileBlobService))
+                .addResolver(new PathResourceResolver());
     }
 }
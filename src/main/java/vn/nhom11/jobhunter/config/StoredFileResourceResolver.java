@@ -0,0 +1,44 @@
+package vn.nhom11.jobhunter.config;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.web.servlet.resource.ResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import jakarta.servlet.http.HttpServletRequest;
+import vn.nhom11.jobhunter.service.FileBlobService;
+
+/**
+ * /storage/{folder}/{name}: tra tên logic trong kho blob, không có thì để resolver sau tìm file cũ lưu phẳng
+ */
+public class StoredFileResourceResolver implements ResourceResolver {
+
+    private final FileBlobService fileBlobService;
+
+    public StoredFileResourceResolver(FileBlobService fileBlobService) {
+        this.fileBlobService = fileBlobService;
+    }
+
+    @Override
+    public Resource resolveResource(HttpServletRequest request, String requestPath,
+            List<? extends Resource> locations, ResourceResolverChain chain) {
+        int slash = requestPath.indexOf('/');
+        if (slash > 0 && slash < requestPath.length() - 1) {
+            Path blob = this.fileBlobService.resolve(requestPath.substring(0, slash), requestPath.substring(slash + 1));
+            if (blob != null && Files.isRegularFile(blob)) {
+                return new FileSystemResource(blob);
+            }
+        }
+        return chain.resolveResource(request, requestPath, locations);
+    }
+
+    @Override
+    public String resolveUrlPath(String resourcePath, List<? extends Resource> locations,
+            ResourceResolverChain chain) {
+        return chain.resolveUrlPath(resourcePath, locations);
+    }
+}
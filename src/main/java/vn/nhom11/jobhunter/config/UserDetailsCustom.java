@@ -4,13 +4,14 @@ import java.util.Collections;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 import vn.nhom11.jobhunter.service.UserService;
 
 @Component("userDetailsService")
-public class UserDetailsCustom implements UserDetailsService {
+public class UserDetailsCustom implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserService userService;
 
@@ -32,4 +33,11 @@ public class UserDetailsCustom implements UserDetailsService {
 
     }
 
+    // đăng nhập thành công với hash cost cũ: lưu hash mới (cost hiện tại)
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        this.userService.updatePasswordHash(user.getUsername(), newPassword);
+        return User.withUserDetails(user).password(newPassword).build();
+    }
+
 }
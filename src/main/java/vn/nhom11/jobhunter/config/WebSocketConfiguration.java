@@ -0,0 +1,34 @@
+package vn.nhom11.jobhunter.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+import vn.nhom11.jobhunter.controller.ChatWebSocketHandler;
+import vn.nhom11.jobhunter.service.PrincipalService;
+
+@Configuration
+@EnableWebSocket
+public class WebSocketConfiguration implements WebSocketConfigurer {
+
+    private final ChatWebSocketHandler chatWebSocketHandler;
+    private final JwtDecoder jwtDecoder;
+    private final PrincipalService principalService;
+
+    public WebSocketConfiguration(ChatWebSocketHandler chatWebSocketHandler, JwtDecoder jwtDecoder,
+            PrincipalService principalService) {
+        this.chatWebSocketHandler = chatWebSocketHandler;
+        this.jwtDecoder = jwtDecoder;
+        this.principalService = principalService;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        // ws://host/ws/chat?access_token=...
+        registry.addHandler(this.chatWebSocketHandler, "/ws/chat")
+                .addInterceptors(new JwtHandshakeInterceptor(this.jwtDecoder, this.principalService))
+                .setAllowedOrigins(CorsConfig.ALLOWED_ORIGINS.toArray(String[]::new));
+    }
+}
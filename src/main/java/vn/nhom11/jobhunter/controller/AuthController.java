@@ -1,5 +1,8 @@
 package vn.nhom11.jobhunter.controller;
 
+import java.time.Instant;
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -12,7 +15,9 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.CookieValue;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -20,13 +25,17 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import vn.nhom11.jobhunter.domain.RefreshToken;
 import vn.nhom11.jobhunter.domain.User;
 import vn.nhom11.jobhunter.domain.request.ReqLoginDTO;
 import vn.nhom11.jobhunter.domain.response.ResCreateUserDTO;
 import vn.nhom11.jobhunter.domain.response.ResLoginDTO;
+import vn.nhom11.jobhunter.domain.response.ResSessionDTO;
 import vn.nhom11.jobhunter.domain.response.ResUpdateUserDTO;
 import vn.nhom11.jobhunter.domain.response.ChangePasswordRequest.ChangePasswordRequest;
+import vn.nhom11.jobhunter.service.RefreshTokenService;
 import vn.nhom11.jobhunter.service.UserService;
 import vn.nhom11.jobhunter.util.SecurityUtil;
 import vn.nhom11.jobhunter.util.annotation.ApiMessage;
@@ -40,6 +49,7 @@ public class AuthController {
     private final SecurityUtil securityUtil;
     private final UserService userService;
     private final PasswordEncoder passwordEncoder;
+    private final RefreshTokenService refreshTokenService;
 
     @Value("${nhom11.jwt.refresh-token-validity-in-seconds}")
     private long refreshTokenExpiration;
@@ -48,16 +58,19 @@ public class AuthController {
             AuthenticationManagerBuilder authenticationManagerBuilder,
             SecurityUtil securityUtil,
             UserService userService,
-            PasswordEncoder passwordEncoder) {
+            PasswordEncoder passwordEncoder,
+            RefreshTokenService refreshTokenService) {
         this.authenticationManagerBuilder = authenticationManagerBuilder;
         this.securityUtil = securityUtil;
         this.userService = userService;
         this.passwordEncoder = passwordEncoder;
+        this.refreshTokenService = refreshTokenService;
     }
 
     // =================== LOGIN ===================
     @PostMapping("/auth/login")
-    public ResponseEntity<ResLoginDTO> login(@Valid @RequestBody ReqLoginDTO loginDto) throws IdInvalidException {
+    public ResponseEntity<ResLoginDTO> login(@Valid @RequestBody ReqLoginDTO loginDto, HttpServletRequest request)
+            throws IdInvalidException {
         User userDB = userService.handleGetUserByUsername(loginDto.getUsername());
         if (userDB == null) {
             throw new IdInvalidException("Email hoặc mật khẩu không đúng.");
@@ -82,11 +95,13 @@ public class AuthController {
                 userDB.getRole());
         res.setUser(userLogin);
 
-        String access_token = this.securityUtil.createAccessToken(authentication.getName(), res);
+        String access_token = this.securityUtil.createAccessToken(authentication.getName(), res,
+                userDB.getAuthVersion());
         res.setAccessToken(access_token);
 
         String refresh_token = this.securityUtil.createRefreshToken(loginDto.getUsername(), res);
-        this.userService.updateUserToken(refresh_token, loginDto.getUsername());
+        this.refreshTokenService.store(userDB.getId(), userDB.getEmail(), refresh_token,
+                Instant.now().plusSeconds(refreshTokenExpiration), request);
 
         ResponseCookie resCookies = ResponseCookie.from("refresh_token", refresh_token)
                 .httpOnly(true)
@@ -124,6 +139,19 @@ public class AuthController {
         return ResponseEntity.status(HttpStatus.CREATED).body(this.userService.convertToResCreateUserDTO(newUser));
     }
 
+    // =================== RESEND VERIFICATION ===================
+    @PostMapping("/auth/resend-verification")
+    @ApiMessage("Resend verification email")
+    public ResponseEntity<String> resendVerification(@RequestParam("email") String email) {
+        // cùng 1 câu trả lời dù email có tồn tại hay không, tránh dò email đã đăng ký
+        User user = this.userService.handleGetUserByUsername(email);
+        if (user != null && !user.isEnabled()) {
+            String token = userService.generateVerificationToken(user);
+            userService.sendVerificationEmail(user, token);
+        }
+        return ResponseEntity.ok("Nếu email đã đăng ký và chưa xác nhận, email xác nhận mới đã được gửi.");
+    }
+
     // =================== VERIFY EMAIL ===================
     @GetMapping("/auth/verify")
     @ApiMessage("Verify user email by token")
@@ -164,6 +192,9 @@ public class AuthController {
         currentUser.setPassword(newHashedPassword);
         currentUser = this.userService.handleUpdateUser(currentUser);
 
+        // mật khẩu đổi: đăng xuất mọi phiên, kể cả refresh token đang giữ
+        this.refreshTokenService.revokeAll(currentUser.getId());
+
         ResUpdateUserDTO res = this.userService.convertToResUpdateUserDTO(currentUser);
         return ResponseEntity.ok(res);
     }
@@ -204,30 +235,31 @@ public class AuthController {
         Jwt decodedToken = this.securityUtil.checkValidRefreshToken(refresh_token);
         String email = decodedToken.getSubject();
 
-        // Lấy user từ token
-        User currentUser = this.userService.getUserByRefreshTokenAndEmail(refresh_token, email);
-        if (currentUser == null) {
+        // Tra phiên theo hash của token (khóa chính)
+        RefreshToken session = this.refreshTokenService.findValid(refresh_token);
+        if (session == null || !session.getEmail().equals(email)) {
             throw new IdInvalidException("Refresh Token không hợp lệ");
         }
 
         // Tạo access token mới
         ResLoginDTO res = new ResLoginDTO();
         User currentUserDB = this.userService.handleGetUserByUsername(email);
-        if (currentUserDB != null) {
-            ResLoginDTO.UserLogin userLogin = new ResLoginDTO.UserLogin(
-                    currentUserDB.getId(),
-                    currentUserDB.getEmail(),
-                    currentUserDB.getName(),
-                    currentUserDB.getRole());
-            res.setUser(userLogin);
+        if (currentUserDB == null) {
+            throw new IdInvalidException("Refresh Token không hợp lệ");
         }
+        ResLoginDTO.UserLogin userLogin = new ResLoginDTO.UserLogin(
+                currentUserDB.getId(),
+                currentUserDB.getEmail(),
+                currentUserDB.getName(),
+                currentUserDB.getRole());
+        res.setUser(userLogin);
 
-        String access_token = this.securityUtil.createAccessToken(email, res);
+        String access_token = this.securityUtil.createAccessToken(email, res, currentUserDB.getAuthVersion());
         res.setAccessToken(access_token);
 
         // Tạo refresh token mới
         String new_refresh_token = this.securityUtil.createRefreshToken(email, res);
-        this.userService.updateUserToken(new_refresh_token, email);
+        this.refreshTokenService.rotate(session, new_refresh_token, Instant.now().plusSeconds(refreshTokenExpiration));
 
         // Set cookie
         ResponseCookie resCookies = ResponseCookie
@@ -246,15 +278,19 @@ public class AuthController {
     // =================== LOGOUT ===================
     @PostMapping("/auth/logout")
     @ApiMessage("Logout User")
-    public ResponseEntity<Void> logout() throws IdInvalidException {
+    public ResponseEntity<Void> logout(
+            @CookieValue(name = "refresh_token", required = false) String refresh_token) throws IdInvalidException {
         String email = SecurityUtil.getCurrentUserLogin().orElse("");
 
         if (email.isEmpty()) {
             throw new IdInvalidException("Access Token không hợp lệ");
         }
 
-        // Xóa refresh token của user
-        this.userService.updateUserToken(null, email);
+        // Xóa refresh token của phiên hiện tại (các thiết bị khác vẫn đăng nhập)
+        this.refreshTokenService.revoke(refresh_token);
+
+        // access token hiện tại không dùng được nữa
+        this.securityUtil.revokeCurrentToken();
 
         // Xóa cookie refresh token
         ResponseCookie deleteSpringCookie = ResponseCookie
@@ -270,6 +306,34 @@ public class AuthController {
                 .body(null);
     }
 
+    // =================== SESSIONS ===================
+    @GetMapping("/auth/sessions")
+    @ApiMessage("Fetch login sessions")
+    public ResponseEntity<List<ResSessionDTO>> getSessions(
+            @CookieValue(name = "refresh_token", required = false) String refresh_token) throws IdInvalidException {
+        User currentUser = this.currentUser();
+        return ResponseEntity.ok(this.refreshTokenService.fetchSessions(currentUser.getId(), refresh_token));
+    }
+
+    @DeleteMapping("/auth/sessions/{id}")
+    @ApiMessage("Logout a session")
+    public ResponseEntity<Void> deleteSession(@PathVariable("id") String id) throws IdInvalidException {
+        User currentUser = this.currentUser();
+        if (!this.refreshTokenService.revokeSession(currentUser.getId(), id)) {
+            throw new IdInvalidException("Phiên đăng nhập với id = " + id + " không tồn tại");
+        }
+        return ResponseEntity.ok().body(null);
+    }
+
+    private User currentUser() throws IdInvalidException {
+        String email = SecurityUtil.getCurrentUserLogin().orElse("");
+        User currentUser = email.isEmpty() ? null : this.userService.handleGetUserByUsername(email);
+        if (currentUser == null) {
+            throw new IdInvalidException("Access Token không hợp lệ");
+        }
+        return currentUser;
+    }
+
     // =================== LOGOUT, REFRESH, ACCOUNT ===================
     // Giữ nguyên như trước
 }
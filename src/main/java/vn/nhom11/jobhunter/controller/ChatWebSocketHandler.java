@@ -0,0 +1,176 @@
+package vn.nhom11.jobhunter.controller;
+
+import java.time.Instant;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import vn.nhom11.jobhunter.config.JwtHandshakeInterceptor;
+import vn.nhom11.jobhunter.domain.Message;
+import vn.nhom11.jobhunter.domain.User;
+import vn.nhom11.jobhunter.domain.response.Message.ResMessageDTO;
+import vn.nhom11.jobhunter.service.ChatMessageWriter;
+import vn.nhom11.jobhunter.service.ChatSessionRegistry;
+import vn.nhom11.jobhunter.service.MessageService;
+import vn.nhom11.jobhunter.service.UserService;
+
+/**
+ * Chat realtime qua WebSocket (/ws/chat), mỗi frame là 1 JSON:
+ * - client gửi {"type":"send","clientId":"..","receiverId":2,"content":".."}
+ * -> người gửi nhận {"type":"ack","status":"queued","delivered":n} rồi {"type":"ack","status":"saved","messageId":..}
+ * -> người nhận (mọi phiên đang mở) nhận {"type":"message","clientId":"..","message":{...}}
+ * (ghi DB chạy nền nên ack "saved" có thể đến trước ack "queued", client ghép theo clientId)
+ * - người nhận gửi {"type":"delivered","clientId":"..","senderId":1} -> chuyển tiếp cho người gửi
+ */
+@Component
+public class ChatWebSocketHandler extends TextWebSocketHandler {
+
+    private static final String ATTR_SESSION = "chatSession";
+    private static final String ATTR_USER = "chatUser";
+    private static final int MAX_CONTENT_LENGTH = 5000;
+
+    private final ChatSessionRegistry chatSessionRegistry;
+    private final ChatMessageWriter chatMessageWriter;
+    private final MessageService messageService;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+
+    public ChatWebSocketHandler(ChatSessionRegistry chatSessionRegistry, ChatMessageWriter chatMessageWriter,
+            MessageService messageService, UserService userService, ObjectMapper objectMapper) {
+        this.chatSessionRegistry = chatSessionRegistry;
+        this.chatMessageWriter = chatMessageWriter;
+        this.messageService = messageService;
+        this.userService = userService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        long userId = (Long) session.getAttributes().get(JwtHandshakeInterceptor.ATTR_USER_ID);
+        User user = this.userService.fetchUserById(userId);
+        if (user == null) {
+            session.close(CloseStatus.POLICY_VIOLATION);
+            return;
+        }
+        session.getAttributes().put(ATTR_USER, user);
+        session.getAttributes().put(ATTR_SESSION, this.chatSessionRegistry.register(userId, session));
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        WebSocketSession decorated = (WebSocketSession) session.getAttributes().get(ATTR_SESSION);
+        if (decorated != null) {
+            long userId = (Long) session.getAttributes().get(JwtHandshakeInterceptor.ATTR_USER_ID);
+            this.chatSessionRegistry.unregister(userId, decorated);
+        }
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage frame) {
+        WebSocketSession out = (WebSocketSession) session.getAttributes().get(ATTR_SESSION);
+        User sender = (User) session.getAttributes().get(ATTR_USER);
+        if (out == null || sender == null) {
+            return;
+        }
+
+        JsonNode request;
+        try {
+            request = this.objectMapper.readTree(frame.getPayload());
+        } catch (JsonProcessingException e) {
+            this.reply(out, this.error(null, "JSON không hợp lệ"));
+            return;
+        }
+
+        String type = request.path("type").asText("");
+        String clientId = request.hasNonNull("clientId") ? request.get("clientId").asText() : null;
+        switch (type) {
+            case "send" -> this.handleSend(out, sender, clientId, request);
+            case "delivered" -> this.handleDelivered(sender, clientId, request);
+            default -> this.reply(out, this.error(clientId, "type không hợp lệ: " + type));
+        }
+    }
+
+    // ===== Gửi tin nhắn =====
+    private void handleSend(WebSocketSession out, User sender, String clientId, JsonNode request) {
+        long receiverId = request.path("receiverId").asLong(0);
+        String content = request.path("content").asText("");
+        if (content.isBlank()) {
+            this.reply(out, this.error(clientId, "Nội dung tin nhắn không được để trống"));
+            return;
+        }
+        if (content.length() > MAX_CONTENT_LENGTH) {
+            this.reply(out, this.error(clientId, "Tin nhắn tối đa " + MAX_CONTENT_LENGTH + " ký tự"));
+            return;
+        }
+        User receiver = receiverId > 0 ? this.userService.fetchUserById(receiverId) : null;
+        if (receiver == null) {
+            this.reply(out, this.error(clientId, "Người nhận với id = " + receiverId + " không tồn tại"));
+            return;
+        }
+
+        Message message = new Message();
+        message.setSender(sender);
+        message.setReceiver(receiver);
+        message.setContent(content);
+        message.setCreatedBy(sender.getEmail());
+        message.setCreatedAt(Instant.now());
+        // tạo DTO trước khi giao cho luồng ghi
+        ResMessageDTO dto = this.messageService.convertToResMessageDTO(message);
+
+        boolean queued = this.chatMessageWriter.enqueue(message,
+                saved -> {
+                    ObjectNode ack = this.chatSessionRegistry.createNode("ack");
+                    ack.put("clientId", clientId);
+                    ack.put("status", "saved");
+                    ack.put("messageId", saved.getId());
+                    this.reply(out, ack);
+                },
+                ex -> this.reply(out, this.error(clientId, "Không lưu được tin nhắn")));
+        if (!queued) {
+            this.reply(out, this.error(clientId, "Hệ thống đang bận, vui lòng gửi lại"));
+            return;
+        }
+
+        // giao ngay cho người nhận, không chờ ghi DB
+        int delivered = this.chatSessionRegistry.pushMessage(receiver.getId(), clientId, dto);
+
+        ObjectNode ack = this.chatSessionRegistry.createNode("ack");
+        ack.put("clientId", clientId);
+        ack.put("status", "queued");
+        ack.put("delivered", delivered);
+        this.reply(out, ack);
+    }
+
+    // ===== Người nhận xác nhận đã nhận =====
+    private void handleDelivered(User receiver, String clientId, JsonNode request) {
+        long senderId = request.path("senderId").asLong(0);
+        if (senderId <= 0 || clientId == null) {
+            return;
+        }
+        ObjectNode receipt = this.chatSessionRegistry.createNode("delivered");
+        receipt.put("clientId", clientId);
+        receipt.put("receiverId", receiver.getId());
+        this.chatSessionRegistry.sendToUser(senderId, this.chatSessionRegistry.toJson(receipt));
+    }
+
+    // ========================== UTIL ==========================
+
+    private ObjectNode error(String clientId, String message) {
+        ObjectNode node = this.chatSessionRegistry.createNode("error");
+        node.put("clientId", clientId);
+        node.put("message", message);
+        return node;
+    }
+
+    private void reply(WebSocketSession out, ObjectNode node) {
+        ChatSessionRegistry.send(out, new TextMessage(this.chatSessionRegistry.toJson(node)));
+    }
+}
@@ -6,8 +6,6 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -21,24 +19,21 @@ import com.turkraft.springfilter.boot.Filter;
 
 import jakarta.validation.Valid;
 import vn.nhom11.jobhunter.domain.Company;
-import vn.nhom11.jobhunter.domain.User;
+import vn.nhom11.jobhunter.domain.UserPrincipal;
 import vn.nhom11.jobhunter.domain.response.ResultPaginationDTO;
 import vn.nhom11.jobhunter.service.CompanyService;
-import vn.nhom11.jobhunter.service.RoleService;
-import vn.nhom11.jobhunter.service.UserService;
+import vn.nhom11.jobhunter.service.PrincipalService;
 import vn.nhom11.jobhunter.util.annotation.ApiMessage;
 
 @RestController
 @RequestMapping("/api/v1")
 public class CompanyController {
     private final CompanyService companyService;
-    private final UserService userService;
-    private final RoleService roleService;
+    private final PrincipalService principalService;
 
-    public CompanyController(CompanyService companyService, UserService userService, RoleService roleService) {
+    public CompanyController(CompanyService companyService, PrincipalService principalService) {
         this.companyService = companyService;
-        this.userService = userService;
-        this.roleService = roleService;
+        this.principalService = principalService;
     }
 
     @PostMapping("/companies")
@@ -53,27 +48,16 @@ public class CompanyController {
     public ResponseEntity<ResultPaginationDTO> getCompany(
             @Filter Specification<Company> spec, Pageable pageable) {
 
-        // Lấy thông tin user hiện tại từ token
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User user = userService.handleGetUserByUsername(username);
-        long idRole = user.getRole().getId();
-        System.out.println("ID cua role " + idRole);
-        System.out.println(user.getId());
-        System.out.println(username);
+        // Lấy thông tin user hiện tại (đã cache theo token)
+        UserPrincipal user = this.principalService.getCurrentPrincipal();
         ResultPaginationDTO result;
-        long countPermissionsByRoleId = roleService.countPermissionsByRoleId(idRole);
-        System.out.println(countPermissionsByRoleId);
-        boolean permissionVsrole = roleService.permissionVsRole(idRole);
-        System.out.println("312312312312312312313");
-        System.out.println(permissionVsrole);
 
-        if (permissionVsrole) {
+        if (user.isFullAdmin()) {
             // Admin xem tất cả
             result = this.companyService.handleGetCompany(spec, pageable);
         } else {
             // User thường chỉ xem company do mình tạo
-            result = this.companyService.fetchCompanyById(user.getCompany().getId(), pageable);
+            result = this.companyService.fetchCompanyById(user.getCompanyId(), pageable);
         }
 
         return ResponseEntity.ok(result);
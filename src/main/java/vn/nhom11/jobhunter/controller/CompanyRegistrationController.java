@@ -17,9 +17,11 @@ import vn.nhom11.jobhunter.domain.Company;
 import vn.nhom11.jobhunter.domain.CompanyRegistration;
 import vn.nhom11.jobhunter.domain.Role;
 import vn.nhom11.jobhunter.domain.User;
+import vn.nhom11.jobhunter.domain.UserPrincipal;
 import vn.nhom11.jobhunter.domain.response.ResultPaginationDTO;
 import vn.nhom11.jobhunter.service.CompanyRegistrationService;
 import vn.nhom11.jobhunter.service.CompanyService;
+import vn.nhom11.jobhunter.service.PrincipalService;
 import vn.nhom11.jobhunter.service.RoleService;
 import vn.nhom11.jobhunter.service.UserService;
 import vn.nhom11.jobhunter.util.annotation.ApiMessage;
@@ -33,13 +35,15 @@ public class CompanyRegistrationController {
     private final UserService userService;
     private final RoleService roleService;
     private final CompanyService companyService;
+    private final PrincipalService principalService;
 
     public CompanyRegistrationController(CompanyRegistrationService registrationService, UserService userService,
-            RoleService roleService, CompanyService companyService) {
+            RoleService roleService, CompanyService companyService, PrincipalService principalService) {
         this.registrationService = registrationService;
         this.userService = userService;
         this.roleService = roleService;
         this.companyService = companyService;
+        this.principalService = principalService;
     }
 
     /**
@@ -70,18 +74,13 @@ public class CompanyRegistrationController {
     public ResponseEntity<ResultPaginationDTO> getRegistrations(
             @Filter Specification<CompanyRegistration> spec, Pageable pageable) {
 
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User user = userService.handleGetUserByUsername(username);
-
-        long roleId = user.getRole().getId();
-        boolean isAdmin = roleService.permissionVsRole(roleId);
+        UserPrincipal user = this.principalService.getCurrentPrincipal();
 
         ResultPaginationDTO result;
-        if (isAdmin) {
+        if (user.isFullAdmin()) {
             result = registrationService.handleGetRegistrations(spec, pageable);
         } else {
-            result = registrationService.fetchRegistrationsByUser(username, pageable);
+            result = registrationService.fetchRegistrationsByUser(user.getEmail(), pageable);
         }
 
         return ResponseEntity.ok(result);
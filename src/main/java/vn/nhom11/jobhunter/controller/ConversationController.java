@@ -0,0 +1,68 @@
+package vn.nhom11.jobhunter.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import vn.nhom11.jobhunter.domain.UserPrincipal;
+import vn.nhom11.jobhunter.domain.response.Message.ResInboxDTO;
+import vn.nhom11.jobhunter.service.ConversationService;
+import vn.nhom11.jobhunter.service.PrincipalService;
+import vn.nhom11.jobhunter.util.annotation.ApiMessage;
+import vn.nhom11.jobhunter.util.error.IdInvalidException;
+
+@RestController
+@RequestMapping("/api/v1/conversations")
+public class ConversationController {
+
+    private final ConversationService conversationService;
+    private final PrincipalService principalService;
+
+    public ConversationController(ConversationService conversationService, PrincipalService principalService) {
+        this.conversationService = conversationService;
+        this.principalService = principalService;
+    }
+
+    /**
+     * ✅ Inbox của user đang đăng nhập
+     * GET /api/v1/conversations?limit=20&before=<nextCursor>
+     */
+    @GetMapping("")
+    @ApiMessage("Lấy danh sách hội thoại")
+    public ResponseEntity<ResInboxDTO> getInbox(
+            @RequestParam(name = "before", required = false) String before,
+            @RequestParam(name = "limit", defaultValue = "20") int limit) throws IdInvalidException {
+        int safeLimit = Math.max(1, Math.min(limit, 100));
+        return ResponseEntity.ok(this.conversationService.fetchInbox(this.currentUser().getId(), before, safeLimit));
+    }
+
+    /**
+     * ✅ Tổng số tin nhắn chưa đọc (badge)
+     */
+    @GetMapping("/unread-count")
+    @ApiMessage("Lấy số tin nhắn chưa đọc")
+    public ResponseEntity<Long> getUnreadCount() throws IdInvalidException {
+        return ResponseEntity.ok(this.conversationService.countUnread(this.currentUser().getId()));
+    }
+
+    /**
+     * ✅ Đánh dấu đã đọc hội thoại với peerId, trả về số tin vừa đọc
+     */
+    @PutMapping("/{peerId}/read")
+    @ApiMessage("Đánh dấu hội thoại đã đọc")
+    public ResponseEntity<Integer> markRead(@PathVariable("peerId") long peerId) throws IdInvalidException {
+        return ResponseEntity.ok(this.conversationService.markRead(this.currentUser().getId(), peerId));
+    }
+
+    private UserPrincipal currentUser() throws IdInvalidException {
+        UserPrincipal user = this.principalService.getCurrentPrincipal();
+        if (user == null) {
+            throw new IdInvalidException("Không tìm thấy người dùng hiện tại");
+        }
+        return user;
+    }
+}
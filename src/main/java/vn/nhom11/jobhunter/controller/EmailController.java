@@ -1,40 +0,0 @@
-package vn.nhom11.jobhunter.controller;
-
-import org.springframework.scheduling.annotation.Scheduled;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
-
-import jakarta.transaction.Transactional;
-import vn.nhom11.jobhunter.service.EmailService;
-import vn.nhom11.jobhunter.service.SubscriberService;
-import vn.nhom11.jobhunter.util.annotation.ApiMessage;
-
-@RestController
-@RequestMapping("/api/v1")
-public class EmailController {
-
-    private final EmailService emailService;
-    private final SubscriberService subscriberService;
-
-    public EmailController(EmailService emailService,
-            SubscriberService subscriberService) {
-        this.emailService = emailService;
-        this.subscriberService = subscriberService;
-    }
-
-    @GetMapping("/email")
-    @ApiMessage("Send simple email")
-    // @Scheduled(cron = "*/30 * * * * *")
-    // @Transactional
-    public String sendSimpleEmail() {
-        // this.emailService.sendSimpleEmail();
-        // this.emailService.sendEmailSync("ads.nhom11@gmail.com", "test send email",
-        // "<h1> <b> hello </b> </h1>", false,
-        // true);
-        // this.emailService.sendEmailFromTemplateSync("ads.nhom11@gmail.com", "test
-        // send email", "job");
-        this.subscriberService.sendSubscribersEmailJobs();
-        return "ok";
-    }
-}
@@ -1,17 +1,10 @@
 package vn.nhom11.jobhunter.controller;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.file.Path;
 import java.time.Instant;
-import java.util.Arrays;
-import java.util.List;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.InputStreamResource;
-import org.springframework.core.io.Resource;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -20,8 +13,11 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import vn.nhom11.jobhunter.domain.response.file.ResUploadFileDTO;
 import vn.nhom11.jobhunter.service.FileService;
+import vn.nhom11.jobhunter.service.ImageVariantService;
 import vn.nhom11.jobhunter.util.annotation.ApiMessage;
 import vn.nhom11.jobhunter.util.error.StorageException;
 
@@ -29,13 +25,12 @@ import vn.nhom11.jobhunter.util.error.StorageException;
 @RequestMapping("/api/v1")
 public class FileController {
 
-    @Value("${nhom11.upload-file.base-uri}")
-    private String baseURI;
-
     private final FileService fileService;
+    private final ImageVariantService imageVariantService;
 
-    public FileController(FileService fileService) {
+    public FileController(FileService fileService, ImageVariantService imageVariantService) {
         this.fileService = fileService;
+        this.imageVariantService = imageVariantService;
     }
 
     @PostMapping("/files")
@@ -49,19 +44,15 @@ public class FileController {
         if (file == null || file.isEmpty()) {
             throw new StorageException("File is empty. Please upload a file.");
         }
-        String fileName = file.getOriginalFilename();
-        List<String> allowedExtensions = Arrays.asList("pdf", "jpg", "jpeg", "png", "doc", "docx");
-        boolean isValid = allowedExtensions.stream().anyMatch(item -> fileName.toLowerCase().endsWith(item));
-
-        if (!isValid) {
-            throw new StorageException("Invalid file extension. only allows " + allowedExtensions.toString());
+        if (!FileService.hasAllowedExtension(file.getOriginalFilename())) {
+            throw new StorageException("Invalid file extension. only allows " + FileService.ALLOWED_EXTENSIONS);
         }
-        // create a directory if not exist
-        this.fileService.createDirectory(baseURI + folder);
-
-        // store file
+        // store file (ghi 1 lần theo nội dung, trùng nội dung thì dùng lại blob cũ)
         String uploadFile = this.fileService.store(file, folder);
 
+        // ảnh (logo): tạo sẵn ảnh thu nhỏ ở nền
+        this.imageVariantService.generateAsync(folder, uploadFile);
+
         ResUploadFileDTO res = new ResUploadFileDTO(uploadFile, Instant.now());
 
         return ResponseEntity.ok().body(res);
@@ -69,27 +60,34 @@ public class FileController {
 
     @GetMapping("/files")
     @ApiMessage("Download a file")
-    public ResponseEntity<Resource> download(
+    public void download(
             @RequestParam(name = "fileName", required = false) String fileName,
-            @RequestParam(name = "folder", required = false) String folder)
-            throws StorageException, URISyntaxException, FileNotFoundException {
+            @RequestParam(name = "folder", required = false) String folder,
+            @RequestParam(name = "variant", required = false) String variant,
+            HttpServletRequest request,
+            HttpServletResponse response)
+            throws StorageException, URISyntaxException, IOException {
         if (fileName == null || folder == null) {
             throw new StorageException("Missing required params : (fileName or folder) in query params.");
         }
 
-        // check file exist (and not a directory)
-        long fileLength = this.fileService.getFileLength(fileName, folder);
-        if (fileLength == 0) {
-            throw new StorageException("File with name = " + fileName + " not found.");
+        // check file exist (and not a directory), không cho thoát ra ngoài thư mục upload
+        Path path = this.fileService.resolveFile(fileName, folder);
+
+        // variant=thumb|medium: ảnh thu nhỏ (JPEG), không tạo được thì trả ảnh gốc
+        if (variant != null) {
+            if (!ImageVariantService.isVariant(variant)) {
+                throw new StorageException("variant chỉ nhận " + ImageVariantService.VARIANTS.keySet());
+            }
+            Path variantPath = this.imageVariantService.resolveVariant(path, fileName, variant);
+            if (variantPath != null) {
+                String baseName = fileName.contains(".") ? fileName.substring(0, fileName.lastIndexOf('.')) : fileName;
+                this.fileService.serveFile(variantPath, baseName + "-" + variant + ".jpg", request, response);
+                return;
+            }
         }
 
-        // download a file
-        InputStreamResource resource = this.fileService.getResource(fileName, folder);
-
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
-                .contentLength(fileLength)
-                .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .body(resource);
+        // download a file (hỗ trợ Range, ETag, Last-Modified)
+        this.fileService.serveFile(path, fileName, request, response);
     }
 }
@@ -11,31 +11,25 @@ import com.turkraft.springfilter.boot.Filter;
 
 import jakarta.validation.Valid;
 import vn.nhom11.jobhunter.domain.Job;
-import vn.nhom11.jobhunter.domain.User;
+import vn.nhom11.jobhunter.domain.UserPrincipal;
 import vn.nhom11.jobhunter.domain.response.ResultPaginationDTO;
 import vn.nhom11.jobhunter.domain.response.job.ResCreateJobDTO;
 import vn.nhom11.jobhunter.domain.response.job.ResUpdateJobDTO;
 import vn.nhom11.jobhunter.service.JobService;
-import vn.nhom11.jobhunter.service.RoleService;
-import vn.nhom11.jobhunter.service.UserService;
+import vn.nhom11.jobhunter.service.PrincipalService;
 import vn.nhom11.jobhunter.util.annotation.ApiMessage;
 import vn.nhom11.jobhunter.util.error.IdInvalidException;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 
 @RestController
 @RequestMapping("/api/v1")
 public class JobController {
 
     private final JobService jobService;
-    private final UserService userService;
+    private final PrincipalService principalService;
 
-    private final RoleService roleService;
-
-    public JobController(JobService jobService, UserService userService, RoleService roleService) {
+    public JobController(JobService jobService, PrincipalService principalService) {
         this.jobService = jobService;
-        this.userService = userService;
-        this.roleService = roleService;
+        this.principalService = principalService;
     }
 
     @PostMapping("/jobs")
@@ -85,31 +79,17 @@ public class JobController {
             @Filter Specification<Job> spec,
             Pageable pageable) {
 
-        // Lấy thông tin user hiện tại từ token
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User user = userService.handleGetUserByUsername(username);
-        long idRole = user.getRole().getId();
-
-        System.out.println("ID của role: " + idRole);
-        System.out.println("ID user: " + user.getId());
-        System.out.println("Username: " + username);
+        // Lấy thông tin user hiện tại (đã cache theo token)
+        UserPrincipal user = this.principalService.getCurrentPrincipal();
 
         ResultPaginationDTO result;
 
-        // Đếm quyền của role hiện tại
-        long countPermissionsByRoleId = roleService.countPermissionsByRoleId(idRole);
-        System.out.println("Số quyền của role: " + countPermissionsByRoleId);
-
-        boolean permissionVsRole = roleService.permissionVsRole(idRole);
-        System.out.println("Role có toàn quyền hay không: " + permissionVsRole);
-
-        if (permissionVsRole) {
+        if (user.isFullAdmin()) {
             // Admin xem tất cả job
             result = this.jobService.fetchAll(spec, pageable);
         } else {
             // User thường chỉ xem job do mình tạo
-            result = this.jobService.fetchJobsByCreatedBy(username, pageable);
+            result = this.jobService.fetchJobsByCreatedBy(user.getEmail(), pageable);
         }
 
         return ResponseEntity.ok(result);
@@ -8,15 +8,13 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import vn.nhom11.jobhunter.domain.Message;
+import vn.nhom11.jobhunter.domain.response.Message.ResConversationDTO;
 import vn.nhom11.jobhunter.domain.response.Message.ResMessageDTO;
 import vn.nhom11.jobhunter.service.MessageService;
 import vn.nhom11.jobhunter.service.UserService;
 import vn.nhom11.jobhunter.util.annotation.ApiMessage;
 import vn.nhom11.jobhunter.util.error.IdInvalidException;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
 @RestController
 @RequestMapping("/api/v1/messages")
 public class MessageController {
@@ -84,18 +82,18 @@ public class MessageController {
     }
 
     /**
-     * ✅ Lấy danh sách tin nhắn giữa 2 user
+     * ✅ Lấy tin nhắn giữa 2 user theo trang (keyset)
+     * GET /api/v1/messages/conversation?user1Id=1&user2Id=2&limit=50&before=<nextCursor>
      */
     @GetMapping("/conversation")
     @ApiMessage("Lấy danh sách tin nhắn giữa 2 người dùng")
-    public ResponseEntity<List<ResMessageDTO>> getConversation(
+    public ResponseEntity<ResConversationDTO> getConversation(
             @RequestParam Long user1Id,
-            @RequestParam Long user2Id) throws IdInvalidException {
+            @RequestParam Long user2Id,
+            @RequestParam(name = "before", required = false) String before,
+            @RequestParam(name = "limit", defaultValue = "50") int limit) throws IdInvalidException {
 
-        List<Message> messages = messageService.fetchConversation(user1Id, user2Id);
-        List<ResMessageDTO> resList = messages.stream()
-                .map(messageService::convertToResMessageDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(resList);
+        int safeLimit = Math.max(1, Math.min(limit, 200));
+        return ResponseEntity.ok(messageService.fetchConversation(user1Id, user2Id, before, safeLimit));
     }
 }
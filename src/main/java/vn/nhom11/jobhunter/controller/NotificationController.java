@@ -1,10 +1,17 @@
 package vn.nhom11.jobhunter.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import vn.nhom11.jobhunter.domain.UserPrincipal;
 import vn.nhom11.jobhunter.domain.NotificationDTO.NotificationDTO;
+import vn.nhom11.jobhunter.domain.response.ResNotificationFeedDTO;
 import vn.nhom11.jobhunter.service.NotificationService;
+import vn.nhom11.jobhunter.service.NotificationStreamHub;
+import vn.nhom11.jobhunter.service.PrincipalService;
+import vn.nhom11.jobhunter.util.error.PermissionException;
 
 import java.util.List;
 
@@ -14,6 +21,8 @@ import java.util.List;
 public class NotificationController {
 
         private final NotificationService notificationService;
+        private final NotificationStreamHub notificationStreamHub;
+        private final PrincipalService principalService;
 
         /**
          * Lấy tất cả notification trong 24h gần nhất
@@ -24,4 +33,41 @@ public class NotificationController {
                 List<NotificationDTO> notifications = notificationService.getAllNotificationsIn24h();
                 return ResponseEntity.ok(notifications);
         }
+
+        /**
+         * Feed thông báo phân trang bằng cursor, mới nhất trước
+         * GET /api/notifications/feed?hours=24&limit=20&cursor=...
+         */
+        @GetMapping("/feed")
+        public ResponseEntity<ResNotificationFeedDTO> getFeed(
+                        @RequestParam(name = "hours", defaultValue = "24") int hours,
+                        @RequestParam(name = "limit", defaultValue = "20") int limit,
+                        @RequestParam(name = "cursor", required = false) String cursor) {
+                int safeHours = Math.max(1, Math.min(hours, 24 * 7));
+                int safeLimit = Math.max(1, Math.min(limit, 100));
+                return ResponseEntity.ok(notificationService.getFeed(safeHours, cursor, safeLimit));
+        }
+
+        /**
+         * Kênh Server-Sent Events đẩy thông báo mới cho admin
+         * GET /api/notifications/stream (header Last-Event-ID khi kết nối lại)
+         */
+        @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+        public SseEmitter stream(
+                        @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId)
+                        throws PermissionException {
+                UserPrincipal user = principalService.getCurrentPrincipal();
+                if (user == null || !user.isFullAdmin()) {
+                        throw new PermissionException("Chỉ admin mới được nhận thông báo realtime");
+                }
+                Long after = null;
+                if (lastEventId != null && !lastEventId.isBlank()) {
+                        try {
+                                after = Long.parseLong(lastEventId.trim());
+                        } catch (NumberFormatException e) {
+                                // id không hợp lệ -> coi như kết nối mới
+                        }
+                }
+                return notificationStreamHub.connect(after);
+        }
 }
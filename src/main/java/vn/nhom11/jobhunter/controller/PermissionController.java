@@ -4,8 +4,6 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -18,11 +16,10 @@ import org.springframework.web.bind.annotation.RestController;
 import com.turkraft.springfilter.boot.Filter;
 import jakarta.validation.Valid;
 import vn.nhom11.jobhunter.domain.Permission;
-import vn.nhom11.jobhunter.domain.User;
+import vn.nhom11.jobhunter.domain.UserPrincipal;
 import vn.nhom11.jobhunter.domain.response.ResultPaginationDTO;
 import vn.nhom11.jobhunter.service.PermissionService;
-import vn.nhom11.jobhunter.service.RoleService;
-import vn.nhom11.jobhunter.service.UserService;
+import vn.nhom11.jobhunter.service.PrincipalService;
 import vn.nhom11.jobhunter.util.annotation.ApiMessage;
 import vn.nhom11.jobhunter.util.error.IdInvalidException;
 
@@ -31,16 +28,13 @@ import vn.nhom11.jobhunter.util.error.IdInvalidException;
 public class PermissionController {
 
     private final PermissionService permissionService;
-    private final UserService userService;
-    private final RoleService roleService;
+    private final PrincipalService principalService;
 
     public PermissionController(
             PermissionService permissionService,
-            UserService userService,
-            RoleService roleService) {
+            PrincipalService principalService) {
         this.permissionService = permissionService;
-        this.userService = userService;
-        this.roleService = roleService;
+        this.principalService = principalService;
     }
 
     // ---------------- CREATE ----------------
@@ -85,22 +79,11 @@ public class PermissionController {
     public ResponseEntity<ResultPaginationDTO> getPermissions(
             @Filter Specification<Permission> spec, Pageable pageable) {
 
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User user = userService.handleGetUserByUsername(username);
-        long idRole = user.getRole().getId();
-
-        System.out.println("ID role: " + idRole);
-        System.out.println("Username: " + username);
-
-        long countPermissionsByRoleId = roleService.countPermissionsByRoleId(idRole);
-        System.out.println("Số lượng permission trong role: " + countPermissionsByRoleId);
-
-        boolean permissionVsRole = roleService.permissionVsRole(idRole);
-        System.out.println("Kiểm tra quyền của role: " + permissionVsRole);
+        UserPrincipal user = this.principalService.getCurrentPrincipal();
+        long idRole = user.getRoleId();
 
         // Nếu là admin thì xem toàn bộ
-        if (permissionVsRole) {
+        if (user.isFullAdmin()) {
             return ResponseEntity.ok(this.permissionService.getPermissions(spec, pageable));
         } else {
             // Người dùng thường chỉ xem permission thuộc role của mình
@@ -6,8 +6,6 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -21,13 +19,12 @@ import com.turkraft.springfilter.boot.Filter;
 
 import jakarta.validation.Valid;
 import vn.nhom11.jobhunter.domain.Resume;
-import vn.nhom11.jobhunter.domain.User;
+import vn.nhom11.jobhunter.domain.UserPrincipal;
 import vn.nhom11.jobhunter.domain.response.ResultPaginationDTO;
 import vn.nhom11.jobhunter.domain.response.resume.ResCreateResumeDTO;
 import vn.nhom11.jobhunter.domain.response.resume.ResUpdateResumeDTO;
+import vn.nhom11.jobhunter.service.PrincipalService;
 import vn.nhom11.jobhunter.service.ResumeService;
-import vn.nhom11.jobhunter.service.RoleService;
-import vn.nhom11.jobhunter.service.UserService;
 import vn.nhom11.jobhunter.util.annotation.ApiMessage;
 import vn.nhom11.jobhunter.util.error.IdInvalidException;
 
@@ -36,13 +33,11 @@ import vn.nhom11.jobhunter.util.error.IdInvalidException;
 public class ResumeController {
 
     private final ResumeService resumeService;
-    private final UserService userService;
-    private final RoleService roleService;
+    private final PrincipalService principalService;
 
-    public ResumeController(ResumeService resumeService, UserService userService, RoleService roleService) {
+    public ResumeController(ResumeService resumeService, PrincipalService principalService) {
         this.resumeService = resumeService;
-        this.userService = userService;
-        this.roleService = roleService;
+        this.principalService = principalService;
     }
 
     @PostMapping("/resumes")
@@ -66,12 +61,8 @@ public class ResumeController {
             throws IdInvalidException {
 
         // ✅ Lấy user hiện tại từ token đăng nhập
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User user = userService.handleGetUserByUsername(username);
-
-        long idRole = user.getRole().getId();
-        boolean isAdmin = roleService.permissionVsRole(idRole);
+        UserPrincipal user = this.principalService.getCurrentPrincipal();
+        boolean isAdmin = user.isFullAdmin();
 
         // ✅ Nếu là admin → báo lỗi, không cho cập nhật
         if (isAdmin) {
@@ -132,12 +123,8 @@ public class ResumeController {
             Pageable pageable) {
 
         // ✅ Lấy user hiện tại từ token
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User user = userService.handleGetUserByUsername(username);
-
-        long idRole = user.getRole().getId();
-        boolean isAdmin = roleService.permissionVsRole(idRole);
+        UserPrincipal user = this.principalService.getCurrentPrincipal();
+        boolean isAdmin = user.isFullAdmin();
 
         ResultPaginationDTO result;
 
@@ -146,11 +133,11 @@ public class ResumeController {
             result = this.resumeService.fetchAllResume(spec, pageable);
         } else {
             // ✅ User chỉ xem resume thuộc công ty của mình
-            if (user.getCompany() == null) {
+            if (user.getCompanyId() == null) {
                 // Không có công ty → danh sách rỗng
                 result = new ResultPaginationDTO();
             } else {
-                long companyId = user.getCompany().getId();
+                long companyId = user.getCompanyId();
                 result = this.resumeService.fetchResumesByCompanyId(companyId, pageable);
             }
         }
@@ -4,16 +4,14 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import com.turkraft.springfilter.boot.Filter;
 import jakarta.validation.Valid;
 import vn.nhom11.jobhunter.domain.Role;
-import vn.nhom11.jobhunter.domain.User;
+import vn.nhom11.jobhunter.domain.UserPrincipal;
 import vn.nhom11.jobhunter.domain.response.ResultPaginationDTO;
+import vn.nhom11.jobhunter.service.PrincipalService;
 import vn.nhom11.jobhunter.service.RoleService;
-import vn.nhom11.jobhunter.service.UserService;
 import vn.nhom11.jobhunter.util.annotation.ApiMessage;
 import vn.nhom11.jobhunter.util.error.IdInvalidException;
 
@@ -22,11 +20,11 @@ import vn.nhom11.jobhunter.util.error.IdInvalidException;
 public class RoleController {
 
     private final RoleService roleService;
-    private final UserService userService;
+    private final PrincipalService principalService;
 
-    public RoleController(RoleService roleService, UserService userService) {
+    public RoleController(RoleService roleService, PrincipalService principalService) {
         this.roleService = roleService;
-        this.userService = userService;
+        this.principalService = principalService;
     }
 
     @PostMapping("/roles")
@@ -64,12 +62,8 @@ public class RoleController {
             Pageable pageable) {
 
         // Lấy user hiện tại từ token
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User user = userService.handleGetUserByUsername(username);
-
-        long roleId = user.getRole().getId();
-        boolean isAdmin = roleService.permissionVsRole(roleId);
+        UserPrincipal user = this.principalService.getCurrentPrincipal();
+        boolean isAdmin = user.isFullAdmin();
 
         ResultPaginationDTO result;
 
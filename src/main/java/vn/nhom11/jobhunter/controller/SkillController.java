@@ -4,7 +4,6 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -16,27 +15,23 @@ import org.springframework.web.bind.annotation.RestController;
 import com.turkraft.springfilter.boot.Filter;
 import jakarta.validation.Valid;
 import vn.nhom11.jobhunter.domain.Skill;
-import vn.nhom11.jobhunter.domain.User;
+import vn.nhom11.jobhunter.domain.UserPrincipal;
 import vn.nhom11.jobhunter.domain.response.ResultPaginationDTO;
-import vn.nhom11.jobhunter.service.RoleService;
+import vn.nhom11.jobhunter.service.PrincipalService;
 import vn.nhom11.jobhunter.service.SkillService;
-import vn.nhom11.jobhunter.service.UserService;
 import vn.nhom11.jobhunter.util.annotation.ApiMessage;
 import vn.nhom11.jobhunter.util.error.IdInvalidException;
-import org.springframework.security.core.Authentication;
 
 @RestController
 @RequestMapping("/api/v1")
 public class SkillController {
 
     private final SkillService skillService;
-    private final UserService userService;
-    private final RoleService roleService;
+    private final PrincipalService principalService;
 
-    public SkillController(SkillService skillService, UserService userService, RoleService roleService) {
+    public SkillController(SkillService skillService, PrincipalService principalService) {
         this.skillService = skillService;
-        this.userService = userService;
-        this.roleService = roleService;
+        this.principalService = principalService;
     }
 
     @PostMapping("/skills")
@@ -85,31 +80,17 @@ public class SkillController {
             @Filter Specification<Skill> spec,
             Pageable pageable) {
 
-        // Lấy thông tin user hiện tại từ token
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User user = userService.handleGetUserByUsername(username);
-        long idRole = user.getRole().getId();
-
-        System.out.println("ID của role: " + idRole);
-        System.out.println("ID user: " + user.getId());
-        System.out.println("Username: " + username);
+        // Lấy thông tin user hiện tại (đã cache theo token)
+        UserPrincipal user = this.principalService.getCurrentPrincipal();
 
         ResultPaginationDTO result;
 
-        // Đếm số quyền của role
-        long countPermissionsByRoleId = roleService.countPermissionsByRoleId(idRole);
-        System.out.println("Số quyền của role: " + countPermissionsByRoleId);
-
-        boolean permissionVsRole = roleService.permissionVsRole(idRole);
-        System.out.println("Role có toàn quyền hay không: " + permissionVsRole);
-
-        if (permissionVsRole) {
+        if (user.isFullAdmin()) {
             // Admin xem tất cả kỹ năng
             result = this.skillService.fetchAllSkills(spec, pageable);
         } else {
             // User thường chỉ xem kỹ năng do họ tạo
-            result = this.skillService.fetchSkillsByCreatedBy(username, pageable);
+            result = this.skillService.fetchSkillsByCreatedBy(user.getEmail(), pageable);
         }
 
         return ResponseEntity.ok(result);
@@ -0,0 +1,81 @@
+package vn.nhom11.jobhunter.controller;
+
+import java.io.IOException;
+import java.time.Instant;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import vn.nhom11.jobhunter.domain.request.ReqInitUploadDTO;
+import vn.nhom11.jobhunter.domain.response.file.ResUploadChunkDTO;
+import vn.nhom11.jobhunter.domain.response.file.ResUploadFileDTO;
+import vn.nhom11.jobhunter.domain.response.file.ResUploadSessionDTO;
+import vn.nhom11.jobhunter.service.ChunkedUploadService;
+import vn.nhom11.jobhunter.util.annotation.ApiMessage;
+import vn.nhom11.jobhunter.util.error.StorageException;
+
+/**
+ * Upload file lớn theo từng phần (không qua multipart):
+ * POST /api/v1/uploads -> PUT /api/v1/uploads/{id}/chunks/{index} (body = bytes của phần)
+ * -> POST /api/v1/uploads/{id}/complete. Mất kết nối thì GET /api/v1/uploads/{id} để biết phần còn thiếu.
+ */
+@RestController
+@RequestMapping("/api/v1/uploads")
+public class UploadController {
+
+    private static final String CHUNK_CHECKSUM_HEADER = "X-Chunk-SHA256";
+
+    private final ChunkedUploadService chunkedUploadService;
+
+    public UploadController(ChunkedUploadService chunkedUploadService) {
+        this.chunkedUploadService = chunkedUploadService;
+    }
+
+    @PostMapping("")
+    @ApiMessage("Khởi tạo upload theo từng phần")
+    public ResponseEntity<ResUploadSessionDTO> initiate(@Valid @RequestBody ReqInitUploadDTO req)
+            throws IOException, StorageException {
+        return ResponseEntity.ok(this.chunkedUploadService.initiate(req));
+    }
+
+    @GetMapping("/{id}")
+    @ApiMessage("Lấy trạng thái upload")
+    public ResponseEntity<ResUploadSessionDTO> getStatus(@PathVariable("id") String id) throws StorageException {
+        return ResponseEntity.ok(this.chunkedUploadService.fetchStatus(id));
+    }
+
+    @PutMapping("/{id}/chunks/{index}")
+    @ApiMessage("Upload 1 phần")
+    public ResponseEntity<ResUploadChunkDTO> uploadChunk(
+            @PathVariable("id") String id,
+            @PathVariable("index") int index,
+            @RequestHeader(name = CHUNK_CHECKSUM_HEADER, required = false) String checksum,
+            HttpServletRequest request) throws IOException, StorageException {
+        return ResponseEntity.ok(this.chunkedUploadService.writeChunk(id, index, request.getInputStream(), checksum));
+    }
+
+    @PostMapping("/{id}/complete")
+    @ApiMessage("Hoàn tất upload")
+    public ResponseEntity<ResUploadFileDTO> complete(@PathVariable("id") String id)
+            throws IOException, StorageException {
+        String fileName = this.chunkedUploadService.complete(id);
+        return ResponseEntity.ok(new ResUploadFileDTO(fileName, Instant.now()));
+    }
+
+    @DeleteMapping("/{id}")
+    @ApiMessage("Hủy upload")
+    public ResponseEntity<Void> abort(@PathVariable("id") String id) throws IOException, StorageException {
+        this.chunkedUploadService.abort(id);
+        return ResponseEntity.ok().body(null);
+    }
+}
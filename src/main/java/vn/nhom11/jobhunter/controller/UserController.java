@@ -4,8 +4,6 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -20,11 +18,12 @@ import com.turkraft.springfilter.boot.Filter;
 
 import jakarta.validation.Valid;
 import vn.nhom11.jobhunter.domain.User;
+import vn.nhom11.jobhunter.domain.UserPrincipal;
 import vn.nhom11.jobhunter.domain.response.ResCreateUserDTO;
 import vn.nhom11.jobhunter.domain.response.ResUpdateUserDTO;
 import vn.nhom11.jobhunter.domain.response.ResUserDTO;
 import vn.nhom11.jobhunter.domain.response.ResultPaginationDTO;
-import vn.nhom11.jobhunter.service.RoleService;
+import vn.nhom11.jobhunter.service.PrincipalService;
 import vn.nhom11.jobhunter.service.UserService;
 import vn.nhom11.jobhunter.util.annotation.ApiMessage;
 import vn.nhom11.jobhunter.util.error.IdInvalidException;
@@ -34,12 +33,12 @@ import vn.nhom11.jobhunter.util.error.IdInvalidException;
 public class UserController {
     private final UserService userService;
 
-    private final RoleService roleService;
+    private final PrincipalService principalService;
     private final PasswordEncoder passwordEncoder;
 
-    public UserController(UserService userService, RoleService roleService, PasswordEncoder passwordEncoder) {
+    public UserController(UserService userService, PrincipalService principalService, PasswordEncoder passwordEncoder) {
         this.userService = userService;
-        this.roleService = roleService;
+        this.principalService = principalService;
         this.passwordEncoder = passwordEncoder;
     }
 
@@ -92,15 +91,9 @@ public class UserController {
             Pageable pageable) {
 
         // Lấy user hiện tại từ token
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User currentUser = userService.handleGetUserByUsername(username);
-        long idRole = currentUser.getRole().getId();
+        UserPrincipal currentUser = this.principalService.getCurrentPrincipal();
 
-        System.out.println("ID role: " + idRole);
-        System.out.println("User hiện tại: " + currentUser.getEmail());
-
-        boolean isAdmin = roleService.permissionVsRole(idRole); // true nếu là admin
+        boolean isAdmin = currentUser.isFullAdmin(); // true nếu là admin
 
         ResultPaginationDTO result;
 
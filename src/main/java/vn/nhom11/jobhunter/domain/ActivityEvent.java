@@ -0,0 +1,37 @@
+package vn.nhom11.jobhunter.domain;
+
+import java.time.Instant;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Sự kiện hoạt động (tạo mới / cập nhật) của các bảng được theo dõi.
+ * Bảng chỉ ghi thêm (append-only), dùng để khôi phục bộ đệm thông báo sau khi khởi động lại.
+ */
+@Entity
+@Table(name = "activity_journal", indexes = {
+        @Index(name = "idx_activity_journal_occurred_at", columnList = "occurredAt"),
+        @Index(name = "idx_activity_journal_sequence", columnList = "sequence")
+})
+@Getter
+@Setter
+public class ActivityEvent {
+
+    public static final String ACTION_CREATE = "CREATE";
+    public static final String ACTION_UPDATE = "UPDATE";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // số thứ tự do ActivityJournalService cấp (theo micro giây, tăng dần theo thứ tự commit), là id sự kiện SSE
+    private long sequence;
+
+    private String type;
+    private long sourceId;
+    private String action;
+    private String actor;
+    private Instant occurredAt;
+}
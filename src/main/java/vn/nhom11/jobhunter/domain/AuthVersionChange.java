@@ -0,0 +1,33 @@
+package vn.nhom11.jobhunter.domain;
+
+import java.time.Instant;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * authVersion mới của user sau khi role/công ty đổi (hoặc user bị xóa), giữ tới khi mọi access token cấp
+ * trước thời điểm đổi đã hết hạn. Các node đọc bảng này định kỳ thay vì hỏi DB ở mỗi request
+ */
+@Entity
+@Table(name = "auth_version_changes", indexes = {
+        @Index(name = "idx_auth_version_changes_created_at", columnList = "createdAt"),
+        @Index(name = "idx_auth_version_changes_expires_at", columnList = "expiresAt")
+})
+@Getter
+@Setter
+public class AuthVersionChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    private String email;
+
+    // access token phải mang auth_ver >= giá trị này thì quyền nhúng mới được tin
+    private long authVersion;
+
+    private Instant createdAt;
+    private Instant expiresAt;
+}
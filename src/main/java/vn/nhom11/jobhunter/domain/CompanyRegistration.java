@@ -6,11 +6,16 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import vn.nhom11.jobhunter.service.ActivityJournalListener;
 import vn.nhom11.jobhunter.util.SecurityUtil;
 import vn.nhom11.jobhunter.util.constant.RegistrationStatus;
 
 @Entity
-@Table(name = "company_registrations")
+@EntityListeners(ActivityJournalListener.class)
+@Table(name = "company_registrations", indexes = {
+        @Index(name = "idx_company_registrations_created_at", columnList = "createdAt"),
+        @Index(name = "idx_company_registrations_updated_at", columnList = "updatedAt")
+})
 @Getter
 @Setter
 public class CompanyRegistration {
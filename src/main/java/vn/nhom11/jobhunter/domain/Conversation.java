@@ -0,0 +1,41 @@
+package vn.nhom11.jobhunter.domain;
+
+import java.time.Instant;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Hộp thư (inbox) đã tổng hợp sẵn: mỗi cuộc hội thoại có 2 dòng, 1 dòng cho mỗi người tham gia
+ * (userId = chủ hộp thư, peerId = người còn lại), chứa tin nhắn cuối và số tin chưa đọc của userId.
+ * Được cập nhật cùng transaction khi lưu tin nhắn và khi đánh dấu đã đọc.
+ */
+@Entity
+@Table(name = "conversations", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_conversations_user_peer", columnNames = { "userId", "peerId" })
+}, indexes = {
+        // danh sách inbox của 1 user: 1 khoảng trên index, mới nhất trước
+        @Index(name = "idx_conversations_inbox", columnList = "userId, lastMessageAt, id")
+})
+@Getter
+@Setter
+public class Conversation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private long userId;
+    private long peerId;
+
+    private Long lastMessageId;
+
+    @Column(length = 200)
+    private String lastMessagePreview;
+
+    private Instant lastMessageAt;
+    private Long lastSenderId;
+
+    private int unreadCount;
+}
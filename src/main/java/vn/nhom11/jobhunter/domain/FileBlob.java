@@ -0,0 +1,27 @@
+package vn.nhom11.jobhunter.domain;
+
+import java.time.Instant;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Nội dung file lưu 1 lần theo SHA-256 (blobs/ab/cd/<hash>), refCount = số StoredFile đang trỏ tới
+ */
+@Entity
+@Table(name = "file_blobs")
+@Getter
+@Setter
+public class FileBlob {
+
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    private long size;
+
+    private int refCount;
+
+    private Instant createdAt;
+}
@@ -0,0 +1,20 @@
+package vn.nhom11.jobhunter.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Tổng số tin nhắn chưa đọc của 1 user (badge), đọc bằng 1 lần tra khóa chính
+ */
+@Entity
+@Table(name = "inbox_counters")
+@Getter
+@Setter
+public class InboxCounter {
+
+    @Id
+    private Long userId;
+
+    private long unreadTotal;
+}
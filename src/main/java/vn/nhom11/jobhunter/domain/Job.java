@@ -8,12 +8,14 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
@@ -25,11 +27,16 @@ import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Getter;
 import lombok.Setter;
+import vn.nhom11.jobhunter.service.ActivityJournalListener;
 import vn.nhom11.jobhunter.util.SecurityUtil;
 import vn.nhom11.jobhunter.util.constant.LevelEnum;
 
 @Entity
-@Table(name = "jobs")
+@EntityListeners(ActivityJournalListener.class)
+@Table(name = "jobs", indexes = {
+        @Index(name = "idx_jobs_created_at", columnList = "createdAt"),
+        @Index(name = "idx_jobs_updated_at", columnList = "updatedAt")
+})
 @Getter
 @Setter
 public class Job {
@@ -10,7 +10,10 @@ import lombok.Setter;
 import vn.nhom11.jobhunter.util.SecurityUtil;
 
 @Entity
-@Table(name = "messages")
+@Table(name = "messages", indexes = {
+        // 1 cuộc hội thoại = 1 khoảng liên tục trên index, đã sắp theo thời gian
+        @Index(name = "idx_messages_conversation", columnList = "userLowId, userHighId, createdAt, id")
+})
 @Getter
 @Setter
 public class Message {
@@ -31,6 +34,13 @@ public class Message {
     @JsonIgnore
     private User receiver;
 
+    // khóa hội thoại: id nhỏ hơn / lớn hơn trong 2 user, không phụ thuộc chiều gửi
+    @JsonIgnore
+    private Long userLowId;
+
+    @JsonIgnore
+    private Long userHighId;
+
     @NotBlank(message = "Nội dung tin nhắn không được để trống")
     @Column(columnDefinition = "TEXT")
     private String content;
@@ -42,10 +52,20 @@ public class Message {
 
     @PrePersist
     public void handleBeforeCreate() {
-        this.createdBy = SecurityUtil.getCurrentUserLogin().isPresent()
-                ? SecurityUtil.getCurrentUserLogin().get()
-                : "";
-        this.createdAt = Instant.now();
+        // tin nhắn gửi qua WebSocket được lưu ở luồng nền: giữ người gửi và thời điểm nhận đã gán sẵn
+        if (this.createdBy == null || this.createdBy.isEmpty()) {
+            this.createdBy = SecurityUtil.getCurrentUserLogin().isPresent()
+                    ? SecurityUtil.getCurrentUserLogin().get()
+                    : "";
+        }
+        if (this.createdAt == null) {
+            this.createdAt = Instant.now();
+        }
+
+        if (this.sender != null && this.receiver != null) {
+            this.userLowId = Math.min(this.sender.getId(), this.receiver.getId());
+            this.userHighId = Math.max(this.sender.getId(), this.receiver.getId());
+        }
     }
 
     @PreUpdate
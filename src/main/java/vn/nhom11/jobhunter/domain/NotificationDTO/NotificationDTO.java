@@ -1,5 +1,6 @@
 package vn.nhom11.jobhunter.domain.NotificationDTO;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
@@ -28,6 +29,13 @@ public class NotificationDTO {
 
     private String message;
 
+    // loại bản ghi nguồn (company, job, ...) và id của nó, dùng làm khóa sắp xếp/cursor
+    @JsonIgnore
+    private String type;
+
+    @JsonIgnore
+    private long sourceId;
+
     public NotificationDTO(String createdBy, Instant createdAt, String updatedBy, Instant updatedAt, String message) {
         this.createdBy = createdBy;
         this.createdAt = createdAt;
@@ -36,6 +44,23 @@ public class NotificationDTO {
         this.message = message;
     }
 
+    // dùng cho projection trong JPQL (SELECT new ...), message được điền sau
+    public NotificationDTO(long sourceId, String createdBy, Instant createdAt, String updatedBy, Instant updatedAt) {
+        this.sourceId = sourceId;
+        this.createdBy = createdBy;
+        this.createdAt = createdAt;
+        this.updatedBy = updatedBy;
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * Thời điểm hoạt động gần nhất (tạo hoặc cập nhật), giống COALESCE(updatedAt, createdAt) trong các query feed
+     */
+    @JsonIgnore
+    public Instant getActivityAt() {
+        return updatedAt != null ? updatedAt : createdAt;
+    }
+
     // Custom serializer
     public static class InstantToStringSerializer extends StdSerializer<Instant> {
 
@@ -4,10 +4,12 @@ import java.time.Instant;
 import java.util.List;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
@@ -16,10 +18,15 @@ import jakarta.validation.constraints.NotBlank;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import vn.nhom11.jobhunter.service.ActivityJournalListener;
 import vn.nhom11.jobhunter.util.SecurityUtil;
 
 @Entity
-@Table(name = "permissions")
+@EntityListeners(ActivityJournalListener.class)
+@Table(name = "permissions", indexes = {
+        @Index(name = "idx_permissions_created_at", columnList = "createdAt"),
+        @Index(name = "idx_permissions_updated_at", columnList = "updatedAt")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,38 @@
+package vn.nhom11.jobhunter.domain;
+
+import java.time.Instant;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Refresh token đang còn hiệu lực, 1 dòng / phiên đăng nhập (mỗi thiết bị 1 phiên).
+ * Chỉ lưu SHA-256 của token: /auth/refresh tra đúng 1 lần theo khóa chính
+ */
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_user", columnList = "userId"),
+        @Index(name = "idx_refresh_tokens_expires_at", columnList = "expiresAt")
+})
+@Getter
+@Setter
+public class RefreshToken {
+
+    @Id
+    @Column(length = 64)
+    private String tokenHash;
+
+    private long userId;
+
+    private String email;
+
+    private String userAgent;
+
+    @Column(length = 45)
+    private String ipAddress;
+
+    private Instant createdAt;
+    private Instant lastUsedAt;
+    private Instant expiresAt;
+}
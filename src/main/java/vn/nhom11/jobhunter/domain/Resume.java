@@ -3,11 +3,13 @@ package vn.nhom11.jobhunter.domain;
 import java.time.Instant;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
@@ -16,11 +18,16 @@ import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Getter;
 import lombok.Setter;
+import vn.nhom11.jobhunter.service.ActivityJournalListener;
 import vn.nhom11.jobhunter.util.SecurityUtil;
 import vn.nhom11.jobhunter.util.constant.ResumeStateEnum;
 
 @Entity
-@Table(name = "resumes")
+@EntityListeners(ActivityJournalListener.class)
+@Table(name = "resumes", indexes = {
+        @Index(name = "idx_resumes_created_at", columnList = "createdAt"),
+        @Index(name = "idx_resumes_updated_at", columnList = "updatedAt")
+})
 @Getter
 @Setter
 public class Resume {
@@ -0,0 +1,28 @@
+package vn.nhom11.jobhunter.domain;
+
+import java.time.Instant;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Access token đã bị thu hồi (logout), giữ tới khi token tự hết hạn.
+ * Chỉ lưu SHA-256 của token (cùng khóa với cache của CachingJwtDecoder)
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_created_at", columnList = "createdAt"),
+        @Index(name = "idx_revoked_tokens_expires_at", columnList = "expiresAt")
+})
+@Getter
+@Setter
+public class RevokedToken {
+
+    @Id
+    @Column(length = 64)
+    private String tokenHash;
+
+    private Instant createdAt;
+    private Instant expiresAt;
+}
@@ -0,0 +1,39 @@
+package vn.nhom11.jobhunter.domain;
+
+import java.time.Instant;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Tên file logic (folder + name, chính là tên trả về khi upload) trỏ tới 1 blob nội dung
+ */
+@Entity
+@Table(name = "stored_files", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_stored_files_folder_name", columnNames = { "folder", "name" })
+}, indexes = {
+        @Index(name = "idx_stored_files_blob_hash", columnList = "blobHash")
+})
+@Getter
+@Setter
+public class StoredFile {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String folder;
+
+    private String name;
+
+    private String originalName;
+
+    @Column(length = 64)
+    private String blobHash;
+
+    private long size;
+
+    private Instant createdAt;
+    private String createdBy;
+}
@@ -1,15 +1,25 @@
 package vn.nhom11.jobhunter.domain;
 
 import java.time.Instant;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
+import org.hibernate.annotations.BatchSize;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
@@ -19,10 +29,15 @@ import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Getter;
 import lombok.Setter;
+import vn.nhom11.jobhunter.service.ActivityJournalListener;
 import vn.nhom11.jobhunter.util.SecurityUtil;
 
 @Entity
-@Table(name = "subscribers")
+@EntityListeners(ActivityJournalListener.class)
+@Table(name = "subscribers", indexes = {
+        @Index(name = "idx_subscribers_created_at", columnList = "createdAt"),
+        @Index(name = "idx_subscribers_updated_at", columnList = "updatedAt")
+})
 @Getter
 @Setter
 public class Subscriber {
@@ -41,6 +56,18 @@ public class Subscriber {
     @JoinTable(name = "subscriber_skill", joinColumns = @JoinColumn(name = "subscriber_id"), inverseJoinColumns = @JoinColumn(name = "skill_id"))
     private List<Skill> skills;
 
+    // mốc gửi digest gần nhất, lần sau chỉ xét job tạo/cập nhật sau mốc này
+    @JsonIgnore
+    private Instant lastDigestAt;
+
+    // id các job đã gửi (chỉ giữ job còn trong cửa sổ digest), tránh gửi lại job chỉ vừa được sửa
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "subscriber_sent_jobs", joinColumns = @JoinColumn(name = "subscriber_id"))
+    @Column(name = "job_id")
+    @BatchSize(size = 200)
+    @JsonIgnore
+    private Set<Long> sentJobIds = new HashSet<>();
+
     private Instant createdAt;
     private Instant updatedAt;
     private String createdBy;
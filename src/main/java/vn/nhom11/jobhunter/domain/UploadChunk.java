@@ -0,0 +1,29 @@
+package vn.nhom11.jobhunter.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+@Entity
+@Table(name = "upload_chunks", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_upload_chunks_upload_index", columnNames = { "uploadId", "chunkIndex" })
+})
+@Getter
+@Setter
+public class UploadChunk {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(length = 36)
+    private String uploadId;
+
+    private int chunkIndex;
+
+    private long size;
+
+    // SHA-256 của phần đã ghi
+    @Column(length = 64)
+    private String checksum;
+}
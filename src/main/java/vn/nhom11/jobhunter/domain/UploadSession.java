@@ -0,0 +1,43 @@
+package vn.nhom11.jobhunter.domain;
+
+import java.time.Instant;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Phiên upload theo từng phần: dữ liệu ghi thẳng vào file tạm <base>/blobs/.tmp/<id>.part
+ * đúng vị trí của từng phần, các phần đã nhận nằm trong bảng upload_chunks
+ */
+@Entity
+@Table(name = "upload_sessions", indexes = {
+        @Index(name = "idx_upload_sessions_expires_at", columnList = "expiresAt")
+})
+@Getter
+@Setter
+public class UploadSession {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    private String folder;
+
+    private String originalName;
+
+    private long totalSize;
+
+    private int chunkSize;
+
+    private int chunkCount;
+
+    // SHA-256 cả file do client gửi lúc khởi tạo (không bắt buộc), kiểm tra khi hoàn tất
+    @Column(length = 64)
+    private String checksum;
+
+    private Instant createdAt;
+    private String createdBy;
+
+    private Instant expiresAt;
+}
@@ -11,6 +11,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -24,7 +25,10 @@ import vn.nhom11.jobhunter.util.SecurityUtil;
 import vn.nhom11.jobhunter.util.constant.GenderEnum;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_created_at", columnList = "createdAt"),
+        @Index(name = "idx_users_email", columnList = "email")
+})
 @Getter
 @Setter
 public class User {
@@ -47,9 +51,6 @@ public class User {
 
     private String address;
 
-    @Column(columnDefinition = "MEDIUMTEXT")
-    private String refreshToken;
-
     private Instant createdAt;
     private Instant updatedAt;
     private String createdBy;
@@ -57,6 +58,12 @@ public class User {
     private boolean enabled = false; // user đã xác nhận email chưa
 
     private String verificationToken; // token xác nhận email
+
+    // tăng 1 mỗi khi role/công ty của user đổi (chỉ qua UserRepository.incrementAuthVersion),
+    // access token mang version cũ không còn được tin quyền nhúng trong token
+    @JsonIgnore
+    @Column(updatable = false)
+    private long authVersion;
     @ManyToOne
     @JoinColumn(name = "company_id")
     private Company company;
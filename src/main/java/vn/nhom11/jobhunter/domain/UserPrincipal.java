@@ -0,0 +1,27 @@
+package vn.nhom11.jobhunter.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Ảnh chụp (snapshot) gọn nhẹ của user đang đăng nhập,
+ * đủ cho việc phân quyền mà không phải load lại entity User.
+ */
+@Getter
+@AllArgsConstructor
+public class UserPrincipal {
+    private final long id;
+    private final String email;
+
+    // 0 nếu user chưa được gán role
+    private final long roleId;
+
+    // null nếu user chưa thuộc công ty nào
+    private final Long companyId;
+
+    private final boolean fullAdmin;
+
+    public boolean hasRole() {
+        return this.roleId > 0;
+    }
+}
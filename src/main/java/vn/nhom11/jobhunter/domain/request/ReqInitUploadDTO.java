@@ -0,0 +1,22 @@
+package vn.nhom11.jobhunter.domain.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ReqInitUploadDTO {
+    @NotBlank(message = "fileName không được để trống")
+    private String fileName;
+
+    @NotBlank(message = "folder không được để trống")
+    private String folder;
+
+    @Positive(message = "size phải lớn hơn 0")
+    private long size;
+
+    // SHA-256 (hex) của cả file, không bắt buộc
+    private String checksum;
+}
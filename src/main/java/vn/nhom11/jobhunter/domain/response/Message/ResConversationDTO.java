@@ -0,0 +1,20 @@
+package vn.nhom11.jobhunter.domain.response.Message;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ResConversationDTO {
+    // tin nhắn trong trang, cũ trước mới sau
+    private List<ResMessageDTO> items;
+
+    // truyền lại vào ?before= để lấy các tin cũ hơn, null nếu đã hết
+    private String nextCursor;
+}
@@ -0,0 +1,34 @@
+package vn.nhom11.jobhunter.domain.response.Message;
+
+import java.time.Instant;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ResInboxDTO {
+    // hội thoại có tin nhắn mới nhất trước
+    private List<Item> items;
+
+    // truyền lại vào ?before= để lấy trang tiếp theo, null nếu đã hết
+    private String nextCursor;
+
+    @Getter
+    @Setter
+    public static class Item {
+        private long peerId;
+        private String peerName;
+        private String peerEmail;
+        private Long lastMessageId;
+        private String lastMessagePreview;
+        private Instant lastMessageAt;
+        private Long lastSenderId;
+        private int unreadCount;
+    }
+}
@@ -0,0 +1,20 @@
+package vn.nhom11.jobhunter.domain.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import vn.nhom11.jobhunter.domain.NotificationDTO.NotificationDTO;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ResNotificationFeedDTO {
+    private List<NotificationDTO> items;
+
+    // truyền lại vào ?cursor= để lấy trang tiếp theo, null nếu đã hết
+    private String nextCursor;
+}
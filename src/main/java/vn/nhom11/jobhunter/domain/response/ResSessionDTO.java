@@ -0,0 +1,20 @@
+package vn.nhom11.jobhunter.domain.response;
+
+import java.time.Instant;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ResSessionDTO {
+    // 16 ký tự đầu của hash token, dùng để đăng xuất 1 phiên
+    private String id;
+    private String userAgent;
+    private String ipAddress;
+    private Instant createdAt;
+    private Instant lastUsedAt;
+    private Instant expiresAt;
+    // phiên đang gửi request này
+    private boolean current;
+}
@@ -1,7 +1,10 @@
 package vn.nhom11.jobhunter.domain.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.Getter;
 import lombok.Setter;
+import vn.nhom11.jobhunter.util.constant.CountModeEnum;
 
 @Getter
 @Setter
@@ -11,10 +14,18 @@ public class ResultPaginationDTO {
 
     @Getter
     @Setter
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class Meta {
-        private int page;
-        private int pageSize;
-        private int pages;
-        private long total;
+        // phân trang theo số trang (mặc định)
+        private Integer page;
+        private Integer pageSize;
+        private Integer pages;
+        private Long total;
+        // cách tính total: EXACT / CACHED / ESTIMATED (?count=...)
+        private CountModeEnum countMode;
+
+        // phân trang theo cursor (?cursor=...): không có page / pages / total
+        private String nextCursor;
+        private String prevCursor;
     }
 }
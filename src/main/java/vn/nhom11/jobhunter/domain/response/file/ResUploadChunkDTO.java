@@ -0,0 +1,16 @@
+package vn.nhom11.jobhunter.domain.response.file;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResUploadChunkDTO {
+    private int chunkIndex;
+    private long size;
+    private String checksum;
+}
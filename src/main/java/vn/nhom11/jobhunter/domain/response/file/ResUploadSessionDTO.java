@@ -0,0 +1,20 @@
+package vn.nhom11.jobhunter.domain.response.file;
+
+import java.time.Instant;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ResUploadSessionDTO {
+    private String uploadId;
+    private String fileName;
+    private long size;
+    private int chunkSize;
+    private int chunkCount;
+    // các phần server đã nhận, client chỉ cần gửi các phần còn thiếu
+    private List<Integer> receivedChunks;
+    private Instant expiresAt;
+}
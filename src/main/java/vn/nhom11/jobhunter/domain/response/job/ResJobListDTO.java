@@ -0,0 +1,54 @@
+package vn.nhom11.jobhunter.domain.response.job;
+
+import java.time.Instant;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import vn.nhom11.jobhunter.util.constant.LevelEnum;
+
+// 1 dòng trong danh sách job: chỉ các cột hiển thị (không có description), company / skills rút gọn
+@Getter
+@Setter
+public class ResJobListDTO {
+    private long id;
+    private String name;
+    private String location;
+    private double salary;
+    private int quantity;
+    private LevelEnum level;
+
+    private Instant startDate;
+    private Instant endDate;
+    private boolean active;
+
+    private Instant createdAt;
+    private Instant updatedAt;
+    private String createdBy;
+    private String updatedBy;
+
+    private CompanyJob company;
+
+    private List<SkillJob> skills;
+
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class CompanyJob {
+        private long id;
+        private String name;
+        private String logo;
+    }
+
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class SkillJob {
+        private long id;
+        private String name;
+    }
+}
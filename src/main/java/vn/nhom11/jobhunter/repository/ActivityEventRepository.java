@@ -0,0 +1,19 @@
+package vn.nhom11.jobhunter.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import vn.nhom11.jobhunter.domain.ActivityEvent;
+
+@Repository
+public interface ActivityEventRepository extends JpaRepository<ActivityEvent, Long> {
+
+    List<ActivityEvent> findByOccurredAtGreaterThanEqualOrderBySequenceAsc(Instant from);
+
+    @Query("SELECT COALESCE(MAX(e.sequence), 0) FROM ActivityEvent e")
+    long findMaxSequence();
+}
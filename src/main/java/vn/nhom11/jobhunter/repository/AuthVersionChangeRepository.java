@@ -0,0 +1,24 @@
+package vn.nhom11.jobhunter.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import vn.nhom11.jobhunter.domain.AuthVersionChange;
+
+@Repository
+public interface AuthVersionChangeRepository extends JpaRepository<AuthVersionChange, Long> {
+
+    // 🔹 Các thay đổi authVersion từ mốc since còn hiệu lực (đồng bộ giữa các node)
+    List<AuthVersionChange> findByCreatedAtGreaterThanEqualAndExpiresAtAfter(Instant since, Instant now);
+
+    // 🔹 Dọn các thay đổi mà mọi token cấp trước đó đã hết hạn
+    @Modifying
+    @Query("DELETE FROM AuthVersionChange c WHERE c.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -1,13 +1,31 @@
 package vn.nhom11.jobhunter.repository;
 
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import vn.nhom11.jobhunter.domain.Company;
+import vn.nhom11.jobhunter.domain.NotificationDTO.NotificationDTO;
 
 @Repository
 public interface CompanyRepository extends JpaRepository<Company, Long>,
                 JpaSpecificationExecutor<Company> {
 
+        // 🔹 Thông báo: bản ghi được tạo/cập nhật từ mốc from (index created_at, updated_at chỉ dùng để lọc cửa sổ),
+        // chỉ lấy các dòng đứng sau cursor (beforeAt, beforeId) theo thời điểm hoạt động giảm dần, tối đa limit dòng.
+        // ORDER BY COALESCE(...) không dùng được index nào: DB sắp xếp (filesort) toàn bộ các dòng trong cửa sổ
+        // rồi mới cắt limit, chi phí tăng theo số dòng thay đổi trong cửa sổ chứ không theo limit
+        @Query("SELECT new vn.nhom11.jobhunter.domain.NotificationDTO.NotificationDTO(c.id, c.createdBy, c.createdAt, c.updatedBy, c.updatedAt)"
+                        + " FROM Company c WHERE (c.createdAt >= :from OR c.updatedAt >= :from)"
+                        + " AND (:beforeAt IS NULL OR COALESCE(c.updatedAt, c.createdAt) < :beforeAt"
+                        + " OR (COALESCE(c.updatedAt, c.createdAt) = :beforeAt AND c.id < :beforeId))"
+                        + " ORDER BY COALESCE(c.updatedAt, c.createdAt) DESC, c.id DESC")
+        List<NotificationDTO> findNotificationsSince(@Param("from") Instant from, @Param("beforeAt") Instant beforeAt,
+                        @Param("beforeId") long beforeId, Limit limit);
 }
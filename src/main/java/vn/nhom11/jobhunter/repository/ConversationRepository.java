@@ -0,0 +1,54 @@
+package vn.nhom11.jobhunter.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.LockModeType;
+import vn.nhom11.jobhunter.domain.Conversation;
+
+@Repository
+public interface ConversationRepository extends JpaRepository<Conversation, Long> {
+
+    // 🔹 Trang inbox mới nhất (index idx_conversations_inbox)
+    @Query("SELECT c FROM Conversation c WHERE c.userId = :userId AND c.lastMessageAt IS NOT NULL"
+            + " ORDER BY c.lastMessageAt DESC, c.id DESC")
+    List<Conversation> findInboxLatest(@Param("userId") long userId, Pageable pageable);
+
+    // 🔹 Trang inbox cũ hơn mốc (lastMessageAt, id)
+    @Query("SELECT c FROM Conversation c WHERE c.userId = :userId"
+            + " AND (c.lastMessageAt < :beforeAt OR (c.lastMessageAt = :beforeAt AND c.id < :beforeId))"
+            + " ORDER BY c.lastMessageAt DESC, c.id DESC")
+    List<Conversation> findInboxBefore(@Param("userId") long userId, @Param("beforeAt") Instant beforeAt,
+            @Param("beforeId") long beforeId, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Conversation> findByUserIdAndPeerId(long userId, long peerId);
+
+    // 🔹 Tạo 2 dòng của cuộc hội thoại nếu chưa có (an toàn khi nhiều luồng cùng gửi tin đầu tiên)
+    @Modifying
+    @Query(value = "INSERT INTO conversations (user_id, peer_id, unread_count) VALUES (:a, :b, 0), (:b, :a, 0)"
+            + " ON DUPLICATE KEY UPDATE user_id = user_id", nativeQuery = true)
+    int ensurePair(@Param("a") long a, @Param("b") long b);
+
+    // 🔹 Cập nhật tin nhắn cuối cho cả 2 dòng, bỏ qua nếu đã có tin mới hơn
+    @Modifying
+    @Query("UPDATE Conversation c SET c.lastMessageId = :messageId, c.lastMessagePreview = :preview,"
+            + " c.lastMessageAt = :at, c.lastSenderId = :senderId"
+            + " WHERE ((c.userId = :a AND c.peerId = :b) OR (c.userId = :b AND c.peerId = :a))"
+            + " AND (c.lastMessageId IS NULL OR c.lastMessageId < :messageId)")
+    int updateLastMessage(@Param("a") long a, @Param("b") long b, @Param("messageId") long messageId,
+            @Param("preview") String preview, @Param("at") Instant at, @Param("senderId") long senderId);
+
+    @Modifying
+    @Query("UPDATE Conversation c SET c.unreadCount = c.unreadCount + :n WHERE c.userId = :userId AND c.peerId = :peerId")
+    int incrementUnread(@Param("userId") long userId, @Param("peerId") long peerId, @Param("n") int n);
+}
@@ -0,0 +1,23 @@
+package vn.nhom11.jobhunter.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import vn.nhom11.jobhunter.domain.InboxCounter;
+
+@Repository
+public interface InboxCounterRepository extends JpaRepository<InboxCounter, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO inbox_counters (user_id, unread_total) VALUES (:userId, :n)"
+            + " ON DUPLICATE KEY UPDATE unread_total = unread_total + :n", nativeQuery = true)
+    int increment(@Param("userId") long userId, @Param("n") long n);
+
+    @Modifying
+    @Query("UPDATE InboxCounter c SET c.unreadTotal = CASE WHEN c.unreadTotal > :n THEN c.unreadTotal - :n ELSE 0 END"
+            + " WHERE c.userId = :userId")
+    int decrement(@Param("userId") long userId, @Param("n") long n);
+}
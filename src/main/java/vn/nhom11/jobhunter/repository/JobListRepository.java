@@ -0,0 +1,17 @@
+package vn.nhom11.jobhunter.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import vn.nhom11.jobhunter.domain.Job;
+import vn.nhom11.jobhunter.domain.response.job.ResJobListDTO;
+
+// Truy vấn projection cho danh sách job (JobRepository kế thừa, cài đặt ở JobListRepositoryImpl)
+public interface JobListRepository {
+
+    // 🔹 1 trang job dạng DTO gọn (LEFT JOIN company, chỉ các cột hiển thị), lọc bằng cùng Specification của @Filter.
+    // skills để null, bên gọi nạp 1 lần cho cả trang
+    List<ResJobListDTO> findJobList(Specification<Job> spec, Pageable pageable);
+}
@@ -0,0 +1,85 @@
+package vn.nhom11.jobhunter.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import vn.nhom11.jobhunter.domain.Company;
+import vn.nhom11.jobhunter.domain.Job;
+import vn.nhom11.jobhunter.domain.response.job.ResJobListDTO;
+import vn.nhom11.jobhunter.util.constant.LevelEnum;
+
+public class JobListRepositoryImpl implements JobListRepository {
+
+    private final EntityManager entityManager;
+
+    public JobListRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<ResJobListDTO> findJobList(Specification<Job> spec, Pageable pageable) {
+        CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Job> root = query.from(Job.class);
+        Join<Job, Company> company = root.join("company", JoinType.LEFT);
+
+        query.multiselect(
+                root.get("id"), root.get("name"), root.get("location"), root.get("salary"),
+                root.get("quantity"), root.get("level"), root.get("startDate"), root.get("endDate"),
+                root.get("active"), root.get("createdAt"), root.get("updatedAt"),
+                root.get("createdBy"), root.get("updatedBy"),
+                company.get("id"), company.get("name"), company.get("logo"));
+
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+
+        TypedQuery<Tuple> typedQuery = this.entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        return typedQuery.getResultList().stream().map(JobListRepositoryImpl::toDTO).toList();
+    }
+
+    private static ResJobListDTO toDTO(Tuple t) {
+        ResJobListDTO dto = new ResJobListDTO();
+        dto.setId(t.get(0, Long.class));
+        dto.setName(t.get(1, String.class));
+        dto.setLocation(t.get(2, String.class));
+        dto.setSalary(t.get(3, Double.class));
+        dto.setQuantity(t.get(4, Integer.class));
+        dto.setLevel(t.get(5, LevelEnum.class));
+        dto.setStartDate(t.get(6, Instant.class));
+        dto.setEndDate(t.get(7, Instant.class));
+        dto.setActive(t.get(8, Boolean.class));
+        dto.setCreatedAt(t.get(9, Instant.class));
+        dto.setUpdatedAt(t.get(10, Instant.class));
+        dto.setCreatedBy(t.get(11, String.class));
+        dto.setUpdatedBy(t.get(12, String.class));
+
+        // LEFT JOIN: job chưa gắn company -> các cột company là null
+        Long companyId = t.get(13, Long.class);
+        if (companyId != null) {
+            dto.setCompany(new ResJobListDTO.CompanyJob(companyId, t.get(14, String.class), t.get(15, String.class)));
+        }
+        return dto;
+    }
+}
@@ -1,17 +1,51 @@
 package vn.nhom11.jobhunter.repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import vn.nhom11.jobhunter.domain.Job;
+import vn.nhom11.jobhunter.domain.NotificationDTO.NotificationDTO;
 import vn.nhom11.jobhunter.domain.Skill;
 
 @Repository
 public interface JobRepository extends JpaRepository<Job, Long>,
-                JpaSpecificationExecutor<Job> {
+                JpaSpecificationExecutor<Job>, JobListRepository {
 
         List<Job> findBySkillsIn(List<Skill> skills);
+
+        // 🔹 Dữ liệu gọn cho email digest: [jobId, jobName, salary, companyName, createdAt, updatedAt]
+        // của các job active được tạo/cập nhật từ mốc since (dùng index created_at, updated_at)
+        @Query("SELECT j.id, j.name, j.salary, c.name, j.createdAt, j.updatedAt FROM Job j LEFT JOIN j.company c"
+                        + " WHERE j.active = true AND (j.createdAt >= :since OR j.updatedAt >= :since)")
+        List<Object[]> findActiveJobsForDigest(@Param("since") Instant since);
+
+        // 🔹 Cặp [skillId, jobId, skillName] của các job trên, dùng để dựng chỉ mục skill -> job
+        @Query("SELECT s.id, j.id, s.name FROM Job j JOIN j.skills s"
+                        + " WHERE j.active = true AND (j.createdAt >= :since OR j.updatedAt >= :since)"
+                        + " ORDER BY s.id, j.id")
+        List<Object[]> findActiveJobSkillPairs(@Param("since") Instant since);
+
+        // 🔹 Skill của cả 1 trang job trong 1 truy vấn IN: [jobId, skillId, skillName]
+        @Query("SELECT j.id, s.id, s.name FROM Job j JOIN j.skills s WHERE j.id IN :jobIds ORDER BY j.id, s.id")
+        List<Object[]> findSkillsByJobIds(@Param("jobIds") Collection<Long> jobIds);
+
+        // 🔹 Thông báo: bản ghi được tạo/cập nhật từ mốc from (index created_at, updated_at chỉ dùng để lọc cửa sổ),
+        // chỉ lấy các dòng đứng sau cursor (beforeAt, beforeId) theo thời điểm hoạt động giảm dần, tối đa limit dòng.
+        // ORDER BY COALESCE(...) không dùng được index nào: DB sắp xếp (filesort) toàn bộ các dòng trong cửa sổ
+        // rồi mới cắt limit, chi phí tăng theo số dòng thay đổi trong cửa sổ chứ không theo limit
+        @Query("SELECT new vn.nhom11.jobhunter.domain.NotificationDTO.NotificationDTO(j.id, j.createdBy, j.createdAt, j.updatedBy, j.updatedAt)"
+                        + " FROM Job j WHERE (j.createdAt >= :from OR j.updatedAt >= :from)"
+                        + " AND (:beforeAt IS NULL OR COALESCE(j.updatedAt, j.createdAt) < :beforeAt"
+                        + " OR (COALESCE(j.updatedAt, j.createdAt) = :beforeAt AND j.id < :beforeId))"
+                        + " ORDER BY COALESCE(j.updatedAt, j.createdAt) DESC, j.id DESC")
+        List<NotificationDTO> findNotificationsSince(@Param("from") Instant from, @Param("beforeAt") Instant beforeAt,
+                        @Param("beforeId") long beforeId, Limit limit);
 }
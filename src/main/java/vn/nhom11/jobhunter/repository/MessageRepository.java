@@ -1,18 +1,44 @@
 package vn.nhom11.jobhunter.repository;
 
+import java.time.Instant;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import vn.nhom11.jobhunter.domain.Message;
-import vn.nhom11.jobhunter.domain.User;
 
 @Repository
 public interface MessageRepository extends JpaRepository<Message, Long> {
 
-    List<Message> findBySenderAndReceiverOrderByCreatedAtAsc(User sender, User receiver);
+    // 🔹 Trang mới nhất của hội thoại (dùng index idx_messages_conversation, dừng sau limit dòng)
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender JOIN FETCH m.receiver"
+            + " WHERE m.userLowId = :low AND m.userHighId = :high"
+            + " ORDER BY m.createdAt DESC, m.id DESC")
+    List<Message> findConversationLatest(@Param("low") long low, @Param("high") long high, Pageable pageable);
 
-    List<Message> findByReceiverAndSenderOrderByCreatedAtAsc(User receiver, User sender);
+    // 🔹 Trang cũ hơn mốc (createdAt, id) của tin cũ nhất trang trước
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender JOIN FETCH m.receiver"
+            + " WHERE m.userLowId = :low AND m.userHighId = :high"
+            + " AND (m.createdAt < :beforeAt OR (m.createdAt = :beforeAt AND m.id < :beforeId))"
+            + " ORDER BY m.createdAt DESC, m.id DESC")
+    List<Message> findConversationBefore(@Param("low") long low, @Param("high") long high,
+            @Param("beforeAt") Instant beforeAt, @Param("beforeId") long beforeId, Pageable pageable);
+
+    // 🔹 Duyệt tin nhắn theo từng trang (keyset theo id)
+    Slice<Message> findByIdGreaterThan(Long id, Pageable pageable);
+
+    // 🔹 Điền khóa hội thoại cho tin nhắn cũ (tạo trước khi có cột user_low_id/user_high_id)
+    @Modifying
+    @Query("UPDATE Message m SET"
+            + " m.userLowId = CASE WHEN m.sender.id < m.receiver.id THEN m.sender.id ELSE m.receiver.id END,"
+            + " m.userHighId = CASE WHEN m.sender.id < m.receiver.id THEN m.receiver.id ELSE m.sender.id END"
+            + " WHERE m.userLowId IS NULL AND m.sender IS NOT NULL AND m.receiver IS NOT NULL")
+    int backfillConversationKeys();
 
 }
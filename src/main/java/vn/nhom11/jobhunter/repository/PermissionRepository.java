@@ -1,10 +1,15 @@
 package vn.nhom11.jobhunter.repository;
 
+import java.time.Instant;
 import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import vn.nhom11.jobhunter.domain.Permission;
+import vn.nhom11.jobhunter.domain.NotificationDTO.NotificationDTO;
 
 @Repository
 public interface PermissionRepository extends JpaRepository<Permission, Long>,
@@ -24,4 +29,16 @@ public interface PermissionRepository extends JpaRepository<Permission, Long>,
         // 🔹 Lấy một quyền cụ thể theo apiPath và method (vd: "/api/v1/companies",
         // "PUT")
         Permission findByApiPathAndMethod(String apiPath, String method);
+
+        // 🔹 Thông báo: bản ghi được tạo/cập nhật từ mốc from (index created_at, updated_at chỉ dùng để lọc cửa sổ),
+        // chỉ lấy các dòng đứng sau cursor (beforeAt, beforeId) theo thời điểm hoạt động giảm dần, tối đa limit dòng.
+        // ORDER BY COALESCE(...) không dùng được index nào: DB sắp xếp (filesort) toàn bộ các dòng trong cửa sổ
+        // rồi mới cắt limit, chi phí tăng theo số dòng thay đổi trong cửa sổ chứ không theo limit
+        @Query("SELECT new vn.nhom11.jobhunter.domain.NotificationDTO.NotificationDTO(p.id, p.createdBy, p.createdAt, p.updatedBy, p.updatedAt)"
+                        + " FROM Permission p WHERE (p.createdAt >= :from OR p.updatedAt >= :from)"
+                        + " AND (:beforeAt IS NULL OR COALESCE(p.updatedAt, p.createdAt) < :beforeAt"
+                        + " OR (COALESCE(p.updatedAt, p.createdAt) = :beforeAt AND p.id < :beforeId))"
+                        + " ORDER BY COALESCE(p.updatedAt, p.createdAt) DESC, p.id DESC")
+        List<NotificationDTO> findNotificationsSince(@Param("from") Instant from, @Param("beforeAt") Instant beforeAt,
+                        @Param("beforeId") long beforeId, Limit limit);
 }
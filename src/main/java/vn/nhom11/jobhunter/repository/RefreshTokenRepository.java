@@ -0,0 +1,33 @@
+package vn.nhom11.jobhunter.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import vn.nhom11.jobhunter.domain.RefreshToken;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+    // 🔹 Các phiên đăng nhập của 1 user, dùng gần nhất trước
+    List<RefreshToken> findByUserIdOrderByLastUsedAtDesc(long userId);
+
+    // 🔹 Xóa 1 token, trả về số dòng đã xóa (0 = token đã bị dùng / thu hồi)
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.tokenHash = :tokenHash")
+    int deleteByHash(@Param("tokenHash") String tokenHash);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.userId = :userId")
+    int deleteAllByUserId(@Param("userId") long userId);
+
+    // 🔹 Dọn token hết hạn
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,24 @@
+package vn.nhom11.jobhunter.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import vn.nhom11.jobhunter.domain.RevokedToken;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    // 🔹 Các token bị thu hồi từ mốc since và chưa hết hạn (đồng bộ giữa các node)
+    List<RevokedToken> findByCreatedAtGreaterThanEqualAndExpiresAtAfter(Instant since, Instant now);
+
+    // 🔹 Dọn token đã hết hạn (không cần nhớ nữa)
+    @Modifying
+    @Query("DELETE FROM RevokedToken t WHERE t.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
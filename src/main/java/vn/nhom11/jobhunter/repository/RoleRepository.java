@@ -1,11 +1,15 @@
 package vn.nhom11.jobhunter.repository;
 
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import vn.nhom11.jobhunter.domain.Role;
+import vn.nhom11.jobhunter.domain.NotificationDTO.NotificationDTO;
 
 @Repository
 public interface RoleRepository extends JpaRepository<Role, Long>,
@@ -18,4 +22,16 @@ public interface RoleRepository extends JpaRepository<Role, Long>,
 
         @Query(value = "SELECT COUNT(*) FROM role_permission rp WHERE rp.role_id = :roleId", nativeQuery = true)
         long countPermissionsByRoleId(@Param("roleId") Long roleId);
+
+        // 🔹 Thông báo: bản ghi được tạo/cập nhật từ mốc from (index created_at, updated_at chỉ dùng để lọc cửa sổ),
+        // chỉ lấy các dòng đứng sau cursor (beforeAt, beforeId) theo thời điểm hoạt động giảm dần, tối đa limit dòng.
+        // ORDER BY COALESCE(...) không dùng được index nào: DB sắp xếp (filesort) toàn bộ các dòng trong cửa sổ
+        // rồi mới cắt limit, chi phí tăng theo số dòng thay đổi trong cửa sổ chứ không theo limit
+        @Query("SELECT new vn.nhom11.jobhunter.domain.NotificationDTO.NotificationDTO(r.id, r.createdBy, r.createdAt, r.updatedBy, r.updatedAt)"
+                        + " FROM Role r WHERE (r.createdAt >= :from OR r.updatedAt >= :from)"
+                        + " AND (:beforeAt IS NULL OR COALESCE(r.updatedAt, r.createdAt) < :beforeAt"
+                        + " OR (COALESCE(r.updatedAt, r.createdAt) = :beforeAt AND r.id < :beforeId))"
+                        + " ORDER BY COALESCE(r.updatedAt, r.createdAt) DESC, r.id DESC")
+        List<NotificationDTO> findNotificationsSince(@Param("from") Instant from, @Param("beforeAt") Instant beforeAt,
+                        @Param("beforeId") long beforeId, Limit limit);
 }
@@ -0,0 +1,12 @@
+package vn.nhom11.jobhunter.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import vn.nhom11.jobhunter.domain.StoredFile;
+
+@Repository
+public interface StoredFileRepository extends JpaRepository<StoredFile, Long> {
+
+    StoredFile findByFolderAndName(String folder, String name);
+}
@@ -1,10 +1,20 @@
 package vn.nhom11.jobhunter.repository;
 
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import vn.nhom11.jobhunter.domain.Subscriber;
+import vn.nhom11.jobhunter.domain.NotificationDTO.NotificationDTO;
 
 @Repository
 public interface SubscriberRepository extends JpaRepository<Subscriber, Long>,
@@ -13,4 +23,33 @@ public interface SubscriberRepository extends JpaRepository<Subscriber, Long>,
         boolean existsByEmail(String email);
 
         Subscriber findByEmail(String email);
+
+        // 🔹 Duyệt subscriber theo từng trang (keyset theo id), không load toàn bộ bảng
+        Slice<Subscriber> findByIdGreaterThan(long id, Pageable pageable);
+
+        // 🔹 Mốc gửi digest sớm nhất (null nếu chưa subscriber nào được gửi)
+        @Query("SELECT MIN(s.lastDigestAt) FROM Subscriber s")
+        Instant findMinLastDigestAt();
+
+        boolean existsByLastDigestAtIsNull();
+
+        @Modifying
+        @Query("UPDATE Subscriber s SET s.lastDigestAt = :at WHERE s.id IN :ids")
+        int updateLastDigestAt(@Param("ids") List<Long> ids, @Param("at") Instant at);
+
+        // 🔹 Cặp [subscriberId, skillId] cho cả 1 trang subscriber trong 1 query
+        @Query("SELECT s.id, sk.id FROM Subscriber s JOIN s.skills sk WHERE s.id IN :ids")
+        List<Object[]> findSkillIdsBySubscriberIdIn(@Param("ids") List<Long> ids);
+
+        // 🔹 Thông báo: bản ghi được tạo/cập nhật từ mốc from (index created_at, updated_at chỉ dùng để lọc cửa sổ),
+        // chỉ lấy các dòng đứng sau cursor (beforeAt, beforeId) theo thời điểm hoạt động giảm dần, tối đa limit dòng.
+        // ORDER BY COALESCE(...) không dùng được index nào: DB sắp xếp (filesort) toàn bộ các dòng trong cửa sổ
+        // rồi mới cắt limit, chi phí tăng theo số dòng thay đổi trong cửa sổ chứ không theo limit
+        @Query("SELECT new vn.nhom11.jobhunter.domain.NotificationDTO.NotificationDTO(s.id, s.createdBy, s.createdAt, s.updatedBy, s.updatedAt)"
+                        + " FROM Subscriber s WHERE (s.createdAt >= :from OR s.updatedAt >= :from)"
+                        + " AND (:beforeAt IS NULL OR COALESCE(s.updatedAt, s.createdAt) < :beforeAt"
+                        + " OR (COALESCE(s.updatedAt, s.createdAt) = :beforeAt AND s.id < :beforeId))"
+                        + " ORDER BY COALESCE(s.updatedAt, s.createdAt) DESC, s.id DESC")
+        List<NotificationDTO> findNotificationsSince(@Param("from") Instant from, @Param("beforeAt") Instant beforeAt,
+                        @Param("beforeId") long beforeId, Limit limit);
 }
@@ -0,0 +1,33 @@
+package vn.nhom11.jobhunter.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import vn.nhom11.jobhunter.domain.UploadChunk;
+
+@Repository
+public interface UploadChunkRepository extends JpaRepository<UploadChunk, Long> {
+
+    // 🔹 Ghi nhận 1 phần đã nhận (gửi lại phần cũ thì ghi đè checksum)
+    @Modifying
+    @Query(value = "INSERT INTO upload_chunks (upload_id, chunk_index, size, checksum)"
+            + " VALUES (:uploadId, :chunkIndex, :size, :checksum)"
+            + " ON DUPLICATE KEY UPDATE size = VALUES(size), checksum = VALUES(checksum)", nativeQuery = true)
+    int markReceived(@Param("uploadId") String uploadId, @Param("chunkIndex") int chunkIndex,
+            @Param("size") long size, @Param("checksum") String checksum);
+
+    // 🔹 Danh sách các phần đã nhận (để client tiếp tục upload)
+    @Query("SELECT c.chunkIndex FROM UploadChunk c WHERE c.uploadId = :uploadId ORDER BY c.chunkIndex")
+    List<Integer> findChunkIndexes(@Param("uploadId") String uploadId);
+
+    long countByUploadId(String uploadId);
+
+    @Modifying
+    @Query("DELETE FROM UploadChunk c WHERE c.uploadId = :uploadId")
+    int deleteByUploadId(@Param("uploadId") String uploadId);
+}
@@ -2,13 +2,13 @@ package vn.nhom11.jobhunter.repository;
 
 import java.util.List;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import vn.nhom11.jobhunter.domain.Company;
 import vn.nhom11.jobhunter.domain.User;
@@ -22,21 +22,25 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
     // Kiểm tra email đã tồn tại chưa
     boolean existsByEmail(String email);
 
-    // Tìm user theo refresh token và email (login refresh)
-    User findByRefreshTokenAndEmail(String token, String email);
+    // Cập nhật hash mật khẩu (băm lại với cost mới khi đăng nhập)
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :password WHERE u.email = :email")
+    int updatePassword(@Param("email") String email, @Param("password") String password);
+
+    // 🔹 version quyền hiện tại của user (đọc lại ngay sau khi tăng)
+    @Query("SELECT u.authVersion FROM User u WHERE u.email = :email")
+    Long findAuthVersionByEmail(@Param("email") String email);
+
+    // 🔹 role/công ty đổi: access token cấp trước đó (trên mọi node) không còn được tin quyền nhúng
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.authVersion = u.authVersion + 1 WHERE u.email = :email")
+    int incrementAuthVersion(@Param("email") String email);
 
     // Tìm tất cả user thuộc 1 công ty
     List<User> findByCompany(Company company);
 
-    // Tìm tất cả user do creator tạo hoặc chính mình
-    @Query("""
-                SELECT u FROM User u
-                WHERE u.createdBy = :creator OR u.id = :userId
-            """)
-    Page<User> findAllByCreatorOrSelf(@Param("creator") String creator,
-            @Param("userId") long userId,
-            Pageable pageable);
-
     // =================== MỚI ===================
     // Tìm user theo verification token
     User findByVerificationToken(String token);
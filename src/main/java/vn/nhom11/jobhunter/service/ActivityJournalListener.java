@@ -0,0 +1,110 @@
+package vn.nhom11.jobhunter.service;
+
+import java.time.Instant;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import vn.nhom11.jobhunter.domain.ActivityEvent;
+import vn.nhom11.jobhunter.domain.Company;
+import vn.nhom11.jobhunter.domain.CompanyRegistration;
+import vn.nhom11.jobhunter.domain.Job;
+import vn.nhom11.jobhunter.domain.Permission;
+import vn.nhom11.jobhunter.domain.Resume;
+import vn.nhom11.jobhunter.domain.Role;
+import vn.nhom11.jobhunter.domain.Subscriber;
+
+/**
+ * Entity listener ghi sự kiện vào nhật ký hoạt động sau khi tạo mới / cập nhật.
+ * Hibernate lấy bean này qua Spring nên có thể inject; journal được lấy lười để tránh vòng phụ thuộc với EntityManagerFactory.
+ */
+@Component
+public class ActivityJournalListener {
+
+    private final ObjectProvider<ActivityJournalService> journal;
+
+    public ActivityJournalListener(ObjectProvider<ActivityJournalService> journal) {
+        this.journal = journal;
+    }
+
+    @PostPersist
+    public void afterCreate(Object entity) {
+        this.record(entity, ActivityEvent.ACTION_CREATE);
+    }
+
+    @PostUpdate
+    public void afterUpdate(Object entity) {
+        this.record(entity, ActivityEvent.ACTION_UPDATE);
+    }
+
+    // ========================== UTIL ==========================
+
+    private void record(Object entity, String action) {
+        boolean create = ActivityEvent.ACTION_CREATE.equals(action);
+        String type;
+        Long sourceId;
+        String actor;
+        Instant occurredAt;
+
+        if (entity instanceof Company c) {
+            type = "company";
+            sourceId = c.getId();
+            actor = create ? c.getCreatedBy() : c.getUpdatedBy();
+            occurredAt = create ? c.getCreatedAt() : c.getUpdatedAt();
+        } else if (entity instanceof Job j) {
+            type = "job";
+            sourceId = j.getId();
+            actor = create ? j.getCreatedBy() : j.getUpdatedBy();
+            occurredAt = create ? j.getCreatedAt() : j.getUpdatedAt();
+        } else if (entity instanceof Permission p) {
+            type = "permission";
+            sourceId = p.getId();
+            actor = create ? p.getCreatedBy() : p.getUpdatedBy();
+            occurredAt = create ? p.getCreatedAt() : p.getUpdatedAt();
+        } else if (entity instanceof Resume r) {
+            type = "resume";
+            sourceId = r.getId();
+            actor = create ? r.getCreatedBy() : r.getUpdatedBy();
+            occurredAt = create ? r.getCreatedAt() : r.getUpdatedAt();
+        } else if (entity instanceof Role r) {
+            type = "role";
+            sourceId = r.getId();
+            actor = create ? r.getCreatedBy() : r.getUpdatedBy();
+            occurredAt = create ? r.getCreatedAt() : r.getUpdatedAt();
+        } else if (entity instanceof Subscriber s) {
+            type = "subscriber";
+            sourceId = s.getId();
+            actor = create ? s.getCreatedBy() : s.getUpdatedBy();
+            occurredAt = create ? s.getCreatedAt() : s.getUpdatedAt();
+        } else if (entity instanceof CompanyRegistration cr) {
+            type = "company_registration";
+            sourceId = cr.getId();
+            actor = create ? cr.getCreatedBy() : cr.getUpdatedBy();
+            occurredAt = create ? cr.getCreatedAt() : cr.getUpdatedAt();
+        } else {
+            return;
+        }
+
+        if (sourceId == null) {
+            return;
+        }
+        long id = sourceId;
+        Runnable append = () -> this.journal.getObject().append(type, id, action, actor, occurredAt);
+
+        // chỉ ghi khi transaction commit thành công, đúng thứ tự dữ liệu hiển thị
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    append.run();
+                }
+            });
+        } else {
+            append.run();
+        }
+    }
+}
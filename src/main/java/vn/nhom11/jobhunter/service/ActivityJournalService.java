@@ -0,0 +1,225 @@
+package vn.nhom11.jobhunter.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import vn.nhom11.jobhunter.domain.ActivityEvent;
+import vn.nhom11.jobhunter.repository.ActivityEventRepository;
+
+/**
+ * Nhật ký hoạt động (append-only).
+ * Sự kiện 24h gần nhất nằm trong ring buffer chia theo giờ, đọc thẳng từ bộ nhớ;
+ * bảng activity_journal được ghi theo lô ở nền (và 1 lần cuối khi tắt) và chỉ dùng để khôi phục khi khởi động lại.
+ * Khóa chính do DB cấp (IDENTITY) nên nhiều node ghi chung bảng không bị trùng;
+ * số thứ tự sự kiện (id SSE) lấy theo đồng hồ micro giây và luôn tăng, gần khớp giữa các node.
+ */
+@Service
+public class ActivityJournalService {
+
+    private static final Duration WINDOW = Duration.ofHours(24);
+    private static final long BUCKET_SECONDS = 3600;
+    // 24 giờ đầy đủ + giờ hiện tại đang ghi dở
+    private static final int BUCKET_COUNT = 25;
+
+    private final ActivityEventRepository activityEventRepository;
+
+    private final Bucket[] buckets = new Bucket[BUCKET_COUNT];
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConcurrentLinkedQueue<ActivityEvent> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private final List<Consumer<ActivityEvent>> subscribers = new CopyOnWriteArrayList<>();
+
+    // DB lỗi kéo dài: giữ tối đa chừng này sự kiện chờ ghi, bỏ bớt sự kiện cũ nhất (bộ nhớ vẫn phục vụ 24h)
+    @Value("${nhom11.activity-journal.max-pending:100000}")
+    private int maxPending;
+
+    public ActivityJournalService(ActivityEventRepository activityEventRepository) {
+        this.activityEventRepository = activityEventRepository;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            this.buckets[i] = new Bucket();
+        }
+    }
+
+    // ===== Khôi phục khi khởi động =====
+    // chạy trước khi bean được dùng; sequence không lùi dù đồng hồ bị chỉnh lùi
+    @PostConstruct
+    public void recover() {
+        Instant from = Instant.now().minus(WINDOW);
+        List<ActivityEvent> events = this.activityEventRepository
+                .findByOccurredAtGreaterThanEqualOrderBySequenceAsc(from);
+        this.sequence.set(this.activityEventRepository.findMaxSequence());
+        for (ActivityEvent e : events) {
+            this.addToBuffer(e);
+        }
+        System.out.println(">>> Activity journal: khôi phục " + events.size() + " sự kiện trong 24h");
+    }
+
+    // ===== Ghi sự kiện =====
+    // đồng bộ để subscriber nhận sự kiện đúng thứ tự id
+    public synchronized ActivityEvent append(String type, long sourceId, String action, String actor,
+            Instant occurredAt) {
+        ActivityEvent e = new ActivityEvent();
+        long now = currentMicros();
+        e.setSequence(this.sequence.updateAndGet(last -> Math.max(last + 1, now)));
+        e.setType(type);
+        e.setSourceId(sourceId);
+        e.setAction(action);
+        e.setActor(actor);
+        e.setOccurredAt(occurredAt != null ? occurredAt : Instant.now());
+
+        this.addToBuffer(e);
+        this.enqueue(e);
+        for (Consumer<ActivityEvent> subscriber : this.subscribers) {
+            subscriber.accept(e);
+        }
+        return e;
+    }
+
+    /**
+     * Đăng ký nhận sự kiện mới; subscriber được gọi trên luồng ghi nên phải xử lý nhanh
+     */
+    public void subscribe(Consumer<ActivityEvent> subscriber) {
+        this.subscribers.add(subscriber);
+    }
+
+    // ghi các sự kiện đang chờ xuống bảng theo lô
+    @Scheduled(fixedDelayString = "${nhom11.activity-journal.flush-interval-ms:1000}")
+    public void flush() {
+        List<ActivityEvent> batch = new ArrayList<>();
+        ActivityEvent e;
+        while ((e = this.pending.poll()) != null) {
+            this.pendingCount.decrementAndGet();
+            batch.add(e);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            this.activityEventRepository.saveAll(batch);
+        } catch (RuntimeException ex) {
+            // giữ lại để lần sau ghi tiếp (có giới hạn), bộ nhớ vẫn phục vụ bình thường
+            for (ActivityEvent failed : batch) {
+                failed.setId(null);
+                this.enqueue(failed);
+            }
+            System.out.println(">>> Activity journal: ghi " + batch.size() + " sự kiện thất bại: " + ex.getMessage());
+        }
+    }
+
+    // tắt ứng dụng: ghi nốt các sự kiện còn chờ để lần khởi động sau khôi phục đủ
+    @PreDestroy
+    public void shutdown() {
+        this.flush();
+        if (this.pendingCount.get() > 0) {
+            System.out.println(">>> Activity journal: mất " + this.pendingCount.get() + " sự kiện chưa ghi khi tắt");
+        }
+    }
+
+    // ===== Đọc =====
+    /**
+     * Các sự kiện từ thời điểm from (tối đa 24h), mới nhất trước
+     */
+    public List<ActivityEvent> findSince(Instant from) {
+        Instant windowStart = Instant.now().minus(WINDOW);
+        if (from == null || from.isBefore(windowStart)) {
+            from = windowStart;
+        }
+        long fromHour = hourOf(from);
+
+        List<ActivityEvent> result = new ArrayList<>();
+        for (Bucket bucket : this.buckets) {
+            synchronized (bucket) {
+                if (bucket.hour < fromHour) {
+                    continue;
+                }
+                for (ActivityEvent e : bucket.events) {
+                    if (!e.getOccurredAt().isBefore(from)) {
+                        result.add(e);
+                    }
+                }
+            }
+        }
+        result.sort(Comparator.comparingLong(ActivityEvent::getSequence).reversed());
+        return result;
+    }
+
+    /**
+     * Các sự kiện có sequence lớn hơn afterSequence còn trong bộ đệm, cũ nhất trước (dùng để phát lại)
+     */
+    public List<ActivityEvent> findAfter(long afterSequence) {
+        List<ActivityEvent> result = new ArrayList<>();
+        for (ActivityEvent e : this.findSince(null)) {
+            if (e.getSequence() > afterSequence) {
+                result.add(e);
+            }
+        }
+        result.sort(Comparator.comparingLong(ActivityEvent::getSequence));
+        return result;
+    }
+
+    public long lastSequence() {
+        return this.sequence.get();
+    }
+
+    // ========================== UTIL ==========================
+
+    private void enqueue(ActivityEvent e) {
+        this.pending.add(e);
+        // quá giới hạn: bỏ sự kiện cũ nhất
+        if (this.pendingCount.incrementAndGet() > this.maxPending && this.pending.poll() != null) {
+            this.pendingCount.decrementAndGet();
+            long dropped = this.dropped.incrementAndGet();
+            if (dropped % 1000 == 1) {
+                System.out.println(">>> Activity journal: hàng đợi ghi đầy, đã bỏ " + dropped + " sự kiện");
+            }
+        }
+    }
+
+    private static long currentMicros() {
+        Instant now = Instant.now();
+        return now.getEpochSecond() * 1_000_000 + now.getNano() / 1_000;
+    }
+
+    private void addToBuffer(ActivityEvent e) {
+        long hour = hourOf(e.getOccurredAt());
+        if (hour < hourOf(Instant.now().minus(WINDOW))) {
+            return;
+        }
+        Bucket bucket = this.buckets[(int) Math.floorMod(hour, (long) BUCKET_COUNT)];
+        synchronized (bucket) {
+            if (bucket.hour != hour) {
+                // ô đang giữ dữ liệu của giờ đã trôi khỏi cửa sổ -> dùng lại
+                if (bucket.hour > hour) {
+                    return;
+                }
+                bucket.hour = hour;
+                bucket.events = new ArrayList<>();
+            }
+            bucket.events.add(e);
+        }
+    }
+
+    private static long hourOf(Instant t) {
+        return Math.floorDiv(t.getEpochSecond(), BUCKET_SECONDS);
+    }
+
+    private static final class Bucket {
+        long hour = Long.MIN_VALUE;
+        List<ActivityEvent> events = new ArrayList<>();
+    }
+}
@@ -0,0 +1,136 @@
+package vn.nhom11.jobhunter.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import vn.nhom11.jobhunter.domain.Message;
+import vn.nhom11.jobhunter.repository.MessageRepository;
+
+/**
+ * Lưu tin nhắn chat theo kiểu write-behind: tin nhắn được giao cho người nhận ngay,
+ * việc ghi DB do 1 luồng nền gom thành lô (1 transaction / lô, gồm cả cập nhật inbox).
+ */
+@Service
+public class ChatMessageWriter {
+
+    private final MessageRepository messageRepository;
+    private final ConversationService conversationService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${nhom11.chat.write-queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${nhom11.chat.write-batch-size:100}")
+    private int batchSize;
+
+    private BlockingQueue<PendingMessage> queue;
+    private Thread worker;
+    private volatile boolean running;
+
+    public ChatMessageWriter(MessageRepository messageRepository, ConversationService conversationService,
+            TransactionTemplate transactionTemplate, MeterRegistry meterRegistry) {
+        this.messageRepository = messageRepository;
+        this.conversationService = conversationService;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        this.queue = new LinkedBlockingQueue<>(this.queueCapacity);
+        Gauge.builder("chat.write.queue.depth", this.queue, BlockingQueue::size).register(this.meterRegistry);
+
+        this.running = true;
+        this.worker = new Thread(this::run, "chat-writer");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        this.running = false;
+        this.worker.interrupt();
+        try {
+            this.worker.join(10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        System.out.println(">>> CHAT WRITER STOPPED, còn lại trong queue: " + this.queue.size());
+    }
+
+    /**
+     * Đưa tin nhắn vào hàng đợi ghi. Trả về false nếu hàng đợi đầy (bên gọi báo lỗi cho client).
+     */
+    public boolean enqueue(Message message, Consumer<Message> onSaved, Consumer<Exception> onFailed) {
+        return this.queue.offer(new PendingMessage(message, onSaved, onFailed));
+    }
+
+    // ========================== UTIL ==========================
+
+    private void run() {
+        List<PendingMessage> batch = new ArrayList<>(this.batchSize);
+        while (this.running || !this.queue.isEmpty()) {
+            try {
+                PendingMessage first = this.queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                this.queue.drainTo(batch, this.batchSize - 1);
+            } catch (InterruptedException e) {
+                // đang dừng: ghi nốt phần còn lại rồi thoát
+                this.queue.drainTo(batch);
+                this.running = false;
+            }
+            if (!batch.isEmpty()) {
+                this.write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingMessage> batch) {
+        List<Message> messages = batch.stream().map(PendingMessage::message).toList();
+        try {
+            this.save(messages);
+        } catch (RuntimeException e) {
+            // lô lỗi (đã rollback): ghi lại từng tin để 1 tin hỏng không kéo theo cả lô
+            for (PendingMessage p : batch) {
+                try {
+                    p.message().setId(null);
+                    this.save(List.of(p.message()));
+                } catch (RuntimeException ex) {
+                    System.out.println(">>> Chat writer: lưu tin nhắn thất bại: " + ex.getMessage());
+                    p.onFailed().accept(ex);
+                    continue;
+                }
+                p.onSaved().accept(p.message());
+            }
+            return;
+        }
+        batch.forEach(p -> p.onSaved().accept(p.message()));
+    }
+
+    private void save(List<Message> messages) {
+        this.transactionTemplate.executeWithoutResult(status -> {
+            this.messageRepository.saveAll(messages);
+            this.conversationService.recordMessages(messages);
+        });
+    }
+
+    private record PendingMessage(Message message, Consumer<Message> onSaved, Consumer<Exception> onFailed) {
+    }
+}
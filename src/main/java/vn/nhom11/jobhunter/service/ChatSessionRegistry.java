@@ -0,0 +1,141 @@
+package vn.nhom11.jobhunter.service;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import vn.nhom11.jobhunter.domain.response.Message.ResMessageDTO;
+
+/**
+ * Danh sách phiên WebSocket chat đang mở theo user id (1 user có thể mở nhiều tab/thiết bị).
+ * Mỗi phiên được bọc ConcurrentWebSocketSessionDecorator: gửi an toàn từ nhiều luồng,
+ * client chậm vượt giới hạn thời gian/bộ đệm sẽ bị đóng thay vì chặn người gửi.
+ */
+@Service
+public class ChatSessionRegistry {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${nhom11.chat.send-time-limit-ms:5000}")
+    private int sendTimeLimitMs;
+
+    @Value("${nhom11.chat.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    private final Map<Long, Set<WebSocketSession>> sessions = new ConcurrentHashMap<>();
+
+    public ChatSessionRegistry(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        Gauge.builder("chat.sessions", this, ChatSessionRegistry::countSessions).register(meterRegistry);
+    }
+
+    /**
+     * Đăng ký phiên mới, trả về phiên đã bọc (dùng phiên này cho mọi lần gửi)
+     */
+    public WebSocketSession register(long userId, WebSocketSession session) {
+        WebSocketSession decorated = new ConcurrentWebSocketSessionDecorator(session,
+                this.sendTimeLimitMs, this.sendBufferSizeLimit);
+        this.sessions.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(decorated);
+        return decorated;
+    }
+
+    public void unregister(long userId, WebSocketSession decorated) {
+        this.sessions.computeIfPresent(userId, (id, set) -> {
+            set.remove(decorated);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    public boolean isOnline(long userId) {
+        return this.sessions.containsKey(userId);
+    }
+
+    /**
+     * Gửi 1 payload tới mọi phiên của user, trả về số phiên đã nhận
+     */
+    public int sendToUser(long userId, String payload) {
+        Set<WebSocketSession> targets = this.sessions.get(userId);
+        if (targets == null) {
+            return 0;
+        }
+        TextMessage message = new TextMessage(payload);
+        int delivered = 0;
+        for (WebSocketSession session : targets) {
+            if (send(session, message)) {
+                delivered++;
+            } else {
+                // phiên chậm / hỏng đã bị đóng: bỏ khỏi danh sách, lần sau không tính là đã nhận
+                this.unregister(userId, session);
+            }
+        }
+        return delivered;
+    }
+
+    /**
+     * Gửi tới 1 phiên, false nếu phiên đã đóng hoặc gửi lỗi (phiên bị đóng luôn).
+     * Không ném exception: lỗi của phía nhận không được làm hỏng request / phiên của người gửi
+     */
+    public static boolean send(WebSocketSession session, TextMessage message) {
+        if (!session.isOpen()) {
+            return false;
+        }
+        try {
+            session.sendMessage(message);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            // RuntimeException gồm SessionLimitExceededException: client vượt giới hạn thời gian / bộ đệm gửi
+            try {
+                session.close(CloseStatus.SESSION_NOT_RELIABLE);
+            } catch (IOException | RuntimeException ignored) {
+                // phiên đã hỏng, bỏ qua
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Đẩy tin nhắn mới tới người nhận đang online, trả về số phiên đã nhận
+     */
+    public int pushMessage(long receiverId, String clientId, ResMessageDTO message) {
+        if (!this.isOnline(receiverId)) {
+            return 0;
+        }
+        ObjectNode node = this.objectMapper.createObjectNode();
+        node.put("type", "message");
+        node.put("clientId", clientId);
+        node.set("message", this.objectMapper.valueToTree(message));
+        return this.sendToUser(receiverId, this.toJson(node));
+    }
+
+    public String toJson(ObjectNode node) {
+        try {
+            return this.objectMapper.writeValueAsString(node);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public ObjectNode createNode(String type) {
+        ObjectNode node = this.objectMapper.createObjectNode();
+        node.put("type", type);
+        return node;
+    }
+
+    private double countSessions() {
+        return this.sessions.values().stream().mapToInt(Set::size).sum();
+    }
+}
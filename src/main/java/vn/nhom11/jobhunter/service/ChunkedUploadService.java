@@ -0,0 +1,273 @@
+package vn.nhom11.jobhunter.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import vn.nhom11.jobhunter.domain.UploadSession;
+import vn.nhom11.jobhunter.domain.request.ReqInitUploadDTO;
+import vn.nhom11.jobhunter.domain.response.file.ResUploadChunkDTO;
+import vn.nhom11.jobhunter.domain.response.file.ResUploadSessionDTO;
+import vn.nhom11.jobhunter.repository.UploadChunkRepository;
+import vn.nhom11.jobhunter.repository.UploadSessionRepository;
+import vn.nhom11.jobhunter.util.SecurityUtil;
+import vn.nhom11.jobhunter.util.error.StorageException;
+
+/**
+ * Upload file lớn theo từng phần, tiếp tục được sau khi mất kết nối:
+ * initiate -> PUT phần N (thứ tự bất kỳ, gửi lại được) -> complete.
+ * Mỗi phần được ghi thẳng vào đúng vị trí trong file tạm (FileChannel ghi theo vị trí),
+ * nên khi hoàn tất không cần ghép / sao chép lại; bộ nhớ mỗi request chỉ là 1 bộ đệm cố định.
+ */
+@Service
+public class ChunkedUploadService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final UploadSessionRepository uploadSessionRepository;
+    private final UploadChunkRepository uploadChunkRepository;
+    private final FileBlobService fileBlobService;
+    private final ImageVariantService imageVariantService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${nhom11.chunked-upload.chunk-size:8388608}")
+    private int chunkSize;
+
+    @Value("${nhom11.chunked-upload.max-size:2147483648}")
+    private long maxSize;
+
+    @Value("${nhom11.chunked-upload.ttl-hours:24}")
+    private long ttlHours;
+
+    public ChunkedUploadService(UploadSessionRepository uploadSessionRepository,
+            UploadChunkRepository uploadChunkRepository,
+            FileBlobService fileBlobService,
+            ImageVariantService imageVariantService,
+            TransactionTemplate transactionTemplate) {
+        this.uploadSessionRepository = uploadSessionRepository;
+        this.uploadChunkRepository = uploadChunkRepository;
+        this.fileBlobService = fileBlobService;
+        this.imageVariantService = imageVariantService;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Bước 1: tạo phiên upload và file tạm
+     */
+    public ResUploadSessionDTO initiate(ReqInitUploadDTO req) throws IOException, StorageException {
+        FileBlobService.validateFolder(req.getFolder());
+        if (!FileService.hasAllowedExtension(req.getFileName())) {
+            throw new StorageException("Invalid file extension. only allows " + FileService.ALLOWED_EXTENSIONS);
+        }
+        if (req.getSize() > this.maxSize) {
+            throw new StorageException("File vượt quá kích thước tối đa " + this.maxSize + " bytes");
+        }
+        String checksum = req.getChecksum();
+        if (checksum != null && !checksum.isBlank()) {
+            checksum = checksum.trim().toLowerCase();
+            if (!checksum.matches("[0-9a-f]{64}")) {
+                throw new StorageException("checksum phải là SHA-256 dạng hex");
+            }
+        } else {
+            checksum = null;
+        }
+
+        UploadSession session = new UploadSession();
+        session.setId(UUID.randomUUID().toString());
+        session.setFolder(req.getFolder());
+        session.setOriginalName(req.getFileName());
+        session.setTotalSize(req.getSize());
+        session.setChunkSize(this.chunkSize);
+        session.setChunkCount((int) ((req.getSize() + this.chunkSize - 1) / this.chunkSize));
+        session.setChecksum(checksum);
+        session.setCreatedAt(Instant.now());
+        session.setCreatedBy(SecurityUtil.getCurrentUserLogin().orElse(""));
+        session.setExpiresAt(session.getCreatedAt().plus(Duration.ofHours(this.ttlHours)));
+
+        Files.createFile(this.partPath(session));
+        this.uploadSessionRepository.save(session);
+        return this.convertToResUploadSessionDTO(session, List.of());
+    }
+
+    /**
+     * Trạng thái phiên: các phần đã nhận (client dùng để tiếp tục sau khi mất kết nối)
+     */
+    public ResUploadSessionDTO fetchStatus(String uploadId) throws StorageException {
+        UploadSession session = this.fetchOwnSession(uploadId);
+        return this.convertToResUploadSessionDTO(session, this.uploadChunkRepository.findChunkIndexes(uploadId));
+    }
+
+    /**
+     * Bước 2: ghi phần thứ index vào đúng vị trí index * chunkSize.
+     * expectedChecksum (SHA-256 hex, không bắt buộc) khác với dữ liệu nhận được thì phần đó không được ghi nhận
+     */
+    public ResUploadChunkDTO writeChunk(String uploadId, int index, InputStream input, String expectedChecksum)
+            throws IOException, StorageException {
+        UploadSession session = this.fetchOwnSession(uploadId);
+        if (index < 0 || index >= session.getChunkCount()) {
+            throw new StorageException("Chỉ số phần không hợp lệ: " + index);
+        }
+        long position = (long) index * session.getChunkSize();
+        long expectedSize = Math.min(session.getChunkSize(), session.getTotalSize() - position);
+
+        MessageDigest digest = FileBlobService.sha256();
+        long written = 0;
+        try (FileChannel channel = FileChannel.open(this.partPath(session), StandardOpenOption.WRITE)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int n;
+            while ((n = input.read(buffer)) != -1) {
+                if (written + n > expectedSize) {
+                    throw new StorageException("Phần " + index + " phải có đúng " + expectedSize + " bytes");
+                }
+                digest.update(buffer, 0, n);
+                ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, n);
+                while (chunk.hasRemaining()) {
+                    written += channel.write(chunk, position + written);
+                }
+            }
+            if (written != expectedSize) {
+                throw new StorageException("Phần " + index + " phải có đúng " + expectedSize + " bytes");
+            }
+            channel.force(false);
+        }
+
+        String checksum = HexFormat.of().formatHex(digest.digest());
+        if (expectedChecksum != null && !expectedChecksum.isBlank()
+                && !checksum.equalsIgnoreCase(expectedChecksum.trim())) {
+            throw new StorageException("Checksum phần " + index + " không khớp, vui lòng gửi lại");
+        }
+
+        final long size = written;
+        this.transactionTemplate.executeWithoutResult(
+                status -> this.uploadChunkRepository.markReceived(uploadId, index, size, checksum));
+        return new ResUploadChunkDTO(index, size, checksum);
+    }
+
+    /**
+     * Bước 3: đủ các phần thì đưa file tạm vào kho (rename, không sao chép), trả về tên file logic
+     */
+    public String complete(String uploadId) throws IOException, StorageException {
+        UploadSession session = this.fetchOwnSession(uploadId);
+        long received = this.uploadChunkRepository.countByUploadId(uploadId);
+        if (received < session.getChunkCount()) {
+            throw new StorageException("Còn thiếu " + (session.getChunkCount() - received) + " phần");
+        }
+
+        // giành phiên: chỉ 1 request complete được đi tiếp
+        Integer claimed = this.transactionTemplate.execute(status -> {
+            this.uploadChunkRepository.deleteByUploadId(uploadId);
+            return this.uploadSessionRepository.deleteSession(uploadId);
+        });
+        if (claimed == null || claimed == 0) {
+            throw new StorageException("Phiên upload không tồn tại: " + uploadId);
+        }
+
+        Path part = this.partPath(session);
+        try {
+            // đọc tuần tự 1 lần để lấy hash nội dung (khóa của kho blob)
+            MessageDigest digest = FileBlobService.sha256();
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            try (FileChannel channel = FileChannel.open(part, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                channel.force(true);
+                while (channel.read(buffer) != -1) {
+                    buffer.flip();
+                    digest.update(buffer);
+                    buffer.clear();
+                }
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            if (session.getChecksum() != null && !session.getChecksum().equals(hash)) {
+                throw new StorageException("Checksum file không khớp, vui lòng upload lại");
+            }
+
+            String finalName = System.currentTimeMillis() + "-" + session.getOriginalName();
+            this.fileBlobService.adopt(part, hash, session.getTotalSize(), session.getFolder(), finalName,
+                    session.getOriginalName());
+            this.imageVariantService.generateAsync(session.getFolder(), finalName);
+            return finalName;
+        } finally {
+            Files.deleteIfExists(part);
+        }
+    }
+
+    /**
+     * Hủy phiên, xóa file tạm
+     */
+    public void abort(String uploadId) throws IOException, StorageException {
+        UploadSession session = this.fetchOwnSession(uploadId);
+        this.delete(session);
+    }
+
+    /**
+     * Dọn các phiên quá hạn chưa hoàn tất
+     */
+    @Scheduled(fixedDelayString = "${nhom11.chunked-upload.cleanup-interval-ms:3600000}")
+    public void cleanupExpired() {
+        List<UploadSession> expired = this.uploadSessionRepository.findTop100ByExpiresAtBefore(Instant.now());
+        for (UploadSession session : expired) {
+            try {
+                this.delete(session);
+            } catch (IOException e) {
+                System.out.println(">>> Không xóa được phiên upload " + session.getId() + ": " + e.getMessage());
+            }
+        }
+        if (!expired.isEmpty()) {
+            System.out.println(">>> Đã dọn " + expired.size() + " phiên upload quá hạn");
+        }
+    }
+
+    // ========================== UTIL ==========================
+
+    private UploadSession fetchOwnSession(String uploadId) throws StorageException {
+        UploadSession session = this.uploadSessionRepository.findById(uploadId).orElse(null);
+        String email = SecurityUtil.getCurrentUserLogin().orElse("");
+        if (session == null || !session.getCreatedBy().equals(email)) {
+            throw new StorageException("Phiên upload không tồn tại: " + uploadId);
+        }
+        if (session.getExpiresAt().isBefore(Instant.now())) {
+            throw new StorageException("Phiên upload đã hết hạn: " + uploadId);
+        }
+        return session;
+    }
+
+    private void delete(UploadSession session) throws IOException {
+        Integer deleted = this.transactionTemplate.execute(status -> {
+            this.uploadChunkRepository.deleteByUploadId(session.getId());
+            return this.uploadSessionRepository.deleteSession(session.getId());
+        });
+        if (deleted != null && deleted > 0) {
+            Files.deleteIfExists(this.partPath(session));
+        }
+    }
+
+    private Path partPath(UploadSession session) {
+        return this.fileBlobService.tempPath(session.getId() + ".part");
+    }
+
+    private ResUploadSessionDTO convertToResUploadSessionDTO(UploadSession session, List<Integer> received) {
+        ResUploadSessionDTO res = new ResUploadSessionDTO();
+        res.setUploadId(session.getId());
+        res.setFileName(session.getOriginalName());
+        res.setSize(session.getTotalSize());
+        res.setChunkSize(session.getChunkSize());
+        res.setChunkCount(session.getChunkCount());
+        res.setReceivedChunks(received);
+        res.setExpiresAt(session.getExpiresAt());
+        return res;
+    }
+}
@@ -4,7 +4,6 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
@@ -24,14 +23,23 @@ public class CompanyRegistrationService {
     private final CompanyRegistrationRepository registrationRepository;
     private final CompanyRepository companyRepository;
     private final UserRepository userRepository;
+    private final PrincipalService principalService;
+    private final KeysetPaginationService keysetPaginationService;
+    private final PageCountService pageCountService;
 
     public CompanyRegistrationService(
             CompanyRegistrationRepository registrationRepository,
             CompanyRepository companyRepository,
-            UserRepository userRepository) {
+            UserRepository userRepository,
+            PrincipalService principalService,
+            KeysetPaginationService keysetPaginationService,
+            PageCountService pageCountService) {
         this.registrationRepository = registrationRepository;
         this.companyRepository = companyRepository;
         this.userRepository = userRepository;
+        this.principalService = principalService;
+        this.keysetPaginationService = keysetPaginationService;
+        this.pageCountService = pageCountService;
     }
 
     /**
@@ -47,7 +55,11 @@ public class CompanyRegistrationService {
      * 📌 Lấy danh sách tất cả yêu cầu (có phân trang và lọc bằng Specification)
      */
     public ResultPaginationDTO handleGetRegistrations(Specification<CompanyRegistration> spec, Pageable pageable) {
-        Page<CompanyRegistration> pageReg = registrationRepository.findAll(spec, pageable);
+        if (this.keysetPaginationService.isCursorRequest()) {
+            return this.keysetPaginationService.fetch(this.registrationRepository, CompanyRegistration.class, spec, pageable);
+        }
+        PageCountService.CountedPage<CompanyRegistration> pageReg =
+                this.pageCountService.findAll(CompanyRegistration.class, spec, pageable);
 
         ResultPaginationDTO rs = new ResultPaginationDTO();
         ResultPaginationDTO.Meta mt = new ResultPaginationDTO.Meta();
@@ -56,6 +68,7 @@ public class CompanyRegistrationService {
         mt.setPageSize(pageable.getPageSize());
         mt.setPages(pageReg.getTotalPages());
         mt.setTotal(pageReg.getTotalElements());
+        mt.setCountMode(pageReg.getCountMode());
 
         rs.setMeta(mt);
         rs.setResult(pageReg.getContent());
@@ -104,6 +117,7 @@ public class CompanyRegistrationService {
                         User user = userOpt.get();
                         user.setCompany(savedCompany); // gán company_id vừa tạo
                         userRepository.save(user);
+                        principalService.invalidate(user.getEmail());
                     }
                 }
             }
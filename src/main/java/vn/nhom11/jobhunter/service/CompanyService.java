@@ -3,7 +3,6 @@ package vn.nhom11.jobhunter.service;
 import java.util.List;
 import java.util.Optional;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
@@ -19,12 +18,21 @@ public class CompanyService {
 
     private final CompanyRepository companyRepository;
     private final UserRepository userRepository;
+    private final PrincipalService principalService;
+    private final KeysetPaginationService keysetPaginationService;
+    private final PageCountService pageCountService;
 
     public CompanyService(
             CompanyRepository companyRepository,
-            UserRepository userRepository) {
+            UserRepository userRepository,
+            PrincipalService principalService,
+            KeysetPaginationService keysetPaginationService,
+            PageCountService pageCountService) {
         this.companyRepository = companyRepository;
         this.userRepository = userRepository;
+        this.principalService = principalService;
+        this.keysetPaginationService = keysetPaginationService;
+        this.pageCountService = pageCountService;
     }
 
     public Company handleCreateCompany(Company c) {
@@ -32,7 +40,10 @@ public class CompanyService {
     }
 
     public ResultPaginationDTO handleGetCompany(Specification<Company> spec, Pageable pageable) {
-        Page<Company> pCompany = this.companyRepository.findAll(spec, pageable);
+        if (this.keysetPaginationService.isCursorRequest()) {
+            return this.keysetPaginationService.fetch(this.companyRepository, Company.class, spec, pageable);
+        }
+        PageCountService.CountedPage<Company> pCompany = this.pageCountService.findAll(Company.class, spec, pageable);
         ResultPaginationDTO rs = new ResultPaginationDTO();
         ResultPaginationDTO.Meta mt = new ResultPaginationDTO.Meta();
 
@@ -41,6 +52,7 @@ public class CompanyService {
 
         mt.setPages(pCompany.getTotalPages());
         mt.setTotal(pCompany.getTotalElements());
+        mt.setCountMode(pCompany.getCountMode());
 
         rs.setMeta(mt);
         rs.setResult(pCompany.getContent());
@@ -82,6 +94,7 @@ public class CompanyService {
             }
             // lưu lại các user đã cập nhật
             this.userRepository.saveAll(users);
+            users.forEach(u -> this.principalService.invalidate(u.getEmail()));
         }
 
         // xóa công ty
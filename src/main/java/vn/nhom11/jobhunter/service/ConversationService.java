@@ -0,0 +1,232 @@
+package vn.nhom11.jobhunter.service;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import vn.nhom11.jobhunter.domain.Conversation;
+import vn.nhom11.jobhunter.domain.InboxCounter;
+import vn.nhom11.jobhunter.domain.Message;
+import vn.nhom11.jobhunter.domain.User;
+import vn.nhom11.jobhunter.domain.response.Message.ResInboxDTO;
+import vn.nhom11.jobhunter.repository.ConversationRepository;
+import vn.nhom11.jobhunter.repository.InboxCounterRepository;
+import vn.nhom11.jobhunter.repository.MessageRepository;
+import vn.nhom11.jobhunter.repository.UserRepository;
+import vn.nhom11.jobhunter.util.error.IdInvalidException;
+
+/**
+ * Inbox đã tổng hợp sẵn (bảng conversations + inbox_counters).
+ * recordMessages phải được gọi trong cùng transaction với việc lưu tin nhắn.
+ */
+@Service
+public class ConversationService {
+
+    private static final int PREVIEW_LENGTH = 100;
+    private static final int BACKFILL_PAGE_SIZE = 500;
+
+    private final ConversationRepository conversationRepository;
+    private final InboxCounterRepository inboxCounterRepository;
+    private final MessageRepository messageRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public ConversationService(ConversationRepository conversationRepository,
+            InboxCounterRepository inboxCounterRepository,
+            MessageRepository messageRepository,
+            UserRepository userRepository,
+            TransactionTemplate transactionTemplate) {
+        this.conversationRepository = conversationRepository;
+        this.inboxCounterRepository = inboxCounterRepository;
+        this.messageRepository = messageRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Cập nhật inbox cho các tin nhắn vừa lưu (đã có id): tin nhắn cuối của mỗi cặp, số tin chưa đọc của người nhận
+     */
+    public void recordMessages(List<Message> messages) {
+        this.record(messages, true);
+    }
+
+    /**
+     * Inbox của user đang đăng nhập, mới nhất trước. before = nextCursor của trang trước
+     */
+    public ResInboxDTO fetchInbox(long userId, String before, int limit) throws IdInvalidException {
+        PageRequest page = PageRequest.of(0, limit + 1);
+        List<Conversation> rows;
+        if (before == null || before.isBlank()) {
+            rows = this.conversationRepository.findInboxLatest(userId, page);
+        } else {
+            Conversation cursor = decodeCursor(before);
+            rows = this.conversationRepository.findInboxBefore(userId, cursor.getLastMessageAt(), cursor.getId(),
+                    page);
+        }
+
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            nextCursor = encodeCursor(rows.get(rows.size() - 1));
+        }
+
+        // thông tin người còn lại: 1 query cho cả trang
+        List<Long> peerIds = rows.stream().map(Conversation::getPeerId).distinct().collect(Collectors.toList());
+        Map<Long, User> peers = new HashMap<>();
+        for (User u : this.userRepository.findAllById(peerIds)) {
+            peers.put(u.getId(), u);
+        }
+
+        List<ResInboxDTO.Item> items = new ArrayList<>();
+        for (Conversation c : rows) {
+            ResInboxDTO.Item item = new ResInboxDTO.Item();
+            item.setPeerId(c.getPeerId());
+            User peer = peers.get(c.getPeerId());
+            if (peer != null) {
+                item.setPeerName(peer.getName());
+                item.setPeerEmail(peer.getEmail());
+            }
+            item.setLastMessageId(c.getLastMessageId());
+            item.setLastMessagePreview(c.getLastMessagePreview());
+            item.setLastMessageAt(c.getLastMessageAt());
+            item.setLastSenderId(c.getLastSenderId());
+            item.setUnreadCount(c.getUnreadCount());
+            items.add(item);
+        }
+        return new ResInboxDTO(items, nextCursor);
+    }
+
+    /**
+     * Tổng số tin chưa đọc (badge)
+     */
+    public long countUnread(long userId) {
+        return this.inboxCounterRepository.findById(userId).map(InboxCounter::getUnreadTotal).orElse(0L);
+    }
+
+    /**
+     * Đánh dấu đã đọc hội thoại với peerId, trả về số tin vừa được đánh dấu
+     */
+    @Transactional
+    public int markRead(long userId, long peerId) {
+        // khóa dòng để không lệch với tin nhắn đang được ghi đồng thời
+        Conversation c = this.conversationRepository.findByUserIdAndPeerId(userId, peerId).orElse(null);
+        if (c == null || c.getUnreadCount() == 0) {
+            return 0;
+        }
+        int read = c.getUnreadCount();
+        c.setUnreadCount(0);
+        this.inboxCounterRepository.decrement(userId, read);
+        return read;
+    }
+
+    /**
+     * Dựng inbox từ tin nhắn đã có khi bảng conversations còn trống (lần đầu triển khai).
+     * Tin nhắn cũ được coi là đã đọc.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (this.conversationRepository.count() > 0) {
+            return;
+        }
+        long lastId = 0;
+        int total = 0;
+        boolean hasNext = true;
+        while (hasNext) {
+            final long afterId = lastId;
+            Slice<Message> slice = this.transactionTemplate.execute(status -> {
+                Slice<Message> current = this.messageRepository.findByIdGreaterThan(afterId,
+                        PageRequest.of(0, BACKFILL_PAGE_SIZE, Sort.by("id")));
+                this.record(current.getContent(), false);
+                return current;
+            });
+            if (slice == null || slice.isEmpty()) {
+                break;
+            }
+            List<Message> page = slice.getContent();
+            lastId = page.get(page.size() - 1).getId();
+            total += page.size();
+            hasNext = slice.hasNext();
+        }
+        if (total > 0) {
+            System.out.println(">>> Dựng inbox từ " + total + " tin nhắn cũ");
+        }
+    }
+
+    // ========================== UTIL ==========================
+
+    private void record(List<Message> messages, boolean countUnread) {
+        // gom theo cặp (tin cuối) và theo chiều gửi (số tin chưa đọc) để giảm số câu lệnh
+        Map<String, Message> latestByPair = new HashMap<>();
+        Map<String, Integer> countByDirection = new HashMap<>();
+        for (Message m : messages) {
+            if (m.getId() == null || m.getSender() == null || m.getReceiver() == null) {
+                continue;
+            }
+            long senderId = m.getSender().getId();
+            long receiverId = m.getReceiver().getId();
+            String pair = Math.min(senderId, receiverId) + ":" + Math.max(senderId, receiverId);
+            latestByPair.merge(pair, m, (a, b) -> a.getId() >= b.getId() ? a : b);
+            if (senderId != receiverId) {
+                countByDirection.merge(senderId + ":" + receiverId, 1, Integer::sum);
+            }
+        }
+
+        for (Message m : latestByPair.values()) {
+            long senderId = m.getSender().getId();
+            long receiverId = m.getReceiver().getId();
+            this.conversationRepository.ensurePair(senderId, receiverId);
+            this.conversationRepository.updateLastMessage(senderId, receiverId, m.getId(), preview(m.getContent()),
+                    m.getCreatedAt(), senderId);
+        }
+
+        if (!countUnread) {
+            return;
+        }
+        for (Map.Entry<String, Integer> e : countByDirection.entrySet()) {
+            String[] ids = e.getKey().split(":");
+            long senderId = Long.parseLong(ids[0]);
+            long receiverId = Long.parseLong(ids[1]);
+            this.conversationRepository.incrementUnread(receiverId, senderId, e.getValue());
+            this.inboxCounterRepository.increment(receiverId, e.getValue());
+        }
+    }
+
+    private static String preview(String content) {
+        if (content == null) {
+            return null;
+        }
+        return content.length() > PREVIEW_LENGTH ? content.substring(0, PREVIEW_LENGTH) + "…" : content;
+    }
+
+    private static String encodeCursor(Conversation c) {
+        return c.getLastMessageAt() + "," + c.getId();
+    }
+
+    private static Conversation decodeCursor(String cursor) throws IdInvalidException {
+        int comma = cursor.lastIndexOf(',');
+        if (comma < 0) {
+            throw new IdInvalidException("Tham số before không hợp lệ");
+        }
+        try {
+            Conversation c = new Conversation();
+            c.setLastMessageAt(Instant.parse(cursor.substring(0, comma).trim()));
+            c.setId(Long.parseLong(cursor.substring(comma + 1).trim()));
+            return c;
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IdInvalidException("Tham số before không hợp lệ");
+        }
+    }
+}
@@ -1,12 +1,13 @@
 package vn.nhom11.jobhunter.service;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
 import org.springframework.mail.MailException;
 import org.springframework.mail.MailSender;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.context.Context;
 import org.thymeleaf.spring6.SpringTemplateEngine;
@@ -20,13 +21,16 @@ public class EmailService {
     private final MailSender mailSender;
     private final JavaMailSender javaMailSender;
     private final SpringTemplateEngine templateEngine;
+    private final MailDispatcher mailDispatcher;
 
     public EmailService(MailSender mailSender,
             JavaMailSender javaMailSender,
-            SpringTemplateEngine templateEngine) {
+            SpringTemplateEngine templateEngine,
+            MailDispatcher mailDispatcher) {
         this.mailSender = mailSender;
         this.javaMailSender = javaMailSender;
         this.templateEngine = templateEngine;
+        this.mailDispatcher = mailDispatcher;
     }
 
     public void sendSimpleEmail() {
@@ -51,8 +55,43 @@ public class EmailService {
         }
     }
 
-    @Async
-    public void sendEmailFromTemplateSync(
+    /**
+     * Đưa email hàng loạt vào hàng đợi gửi (MailDispatcher), không chờ SMTP.
+     * Có thể bị chặn tới enqueue-timeout khi hàng đợi đầy: chỉ dùng cho job nền
+     */
+    public boolean sendEmail(String to, String subject, String content, boolean isHtml) {
+        return this.mailDispatcher.enqueue(to, subject, content, isHtml);
+    }
+
+    /**
+     * Như trên, onSent chạy sau khi email đã gửi thành công (không chạy nếu email bị bỏ)
+     */
+    public boolean sendEmail(String to, String subject, String content, boolean isHtml, Runnable onSent) {
+        return this.mailDispatcher.enqueue(to, subject, content, isHtml, onSent);
+    }
+
+    /**
+     * Email giao dịch gửi từ luồng request: đi làn ưu tiên, không bao giờ chặn.
+     * Trả về false nếu làn ưu tiên đầy, bên gọi phải báo lỗi cho client
+     */
+    public boolean sendTransactionalEmail(String to, String subject, String content, boolean isHtml) {
+        return this.mailDispatcher.enqueuePriority(to, subject, content, isHtml);
+    }
+
+    /**
+     * Render template (Thymeleaf đã cache template đã parse) với các biến truyền vào
+     */
+    public String renderTemplate(String templateName, Map<String, Object> variables) {
+        Context context = new Context();
+        context.setVariables(variables);
+        return templateEngine.process(templateName, context);
+    }
+
+    /**
+     * Render template rồi đưa vào hàng đợi gửi.
+     * Bên gọi có thể bị chặn một lúc nếu hàng đợi đầy (backpressure cho digest lớn).
+     */
+    public void sendEmailFromTemplate(
             String to,
             String subject,
             String templateName,
@@ -64,7 +103,7 @@ public class EmailService {
         context.setVariable("jobs", value);
 
         String content = templateEngine.process(templateName, context);
-        this.sendEmailSync(to, subject, content, false, true);
+        this.sendEmail(to, subject, content, true);
     }
 
 }
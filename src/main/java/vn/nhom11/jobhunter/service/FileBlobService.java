@@ -0,0 +1,272 @@
+package vn.nhom11.jobhunter.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import vn.nhom11.jobhunter.domain.FileBlob;
+import vn.nhom11.jobhunter.domain.StoredFile;
+import vn.nhom11.jobhunter.repository.FileBlobRepository;
+import vn.nhom11.jobhunter.repository.StoredFileRepository;
+import vn.nhom11.jobhunter.util.SecurityUtil;
+import vn.nhom11.jobhunter.util.error.StorageException;
+
+/**
+ * Kho file theo nội dung: mỗi nội dung (SHA-256) chỉ ghi 1 lần vào <base>/blobs/ab/cd/<hash>,
+ * bảng stored_files ánh xạ tên logic (folder + name) tới blob, file_blobs đếm số tham chiếu.
+ * Ghi file: stream vào file tạm (vừa ghi vừa băm) -> fsync -> rename nguyên tử.
+ */
+@Service
+public class FileBlobService {
+
+    public static final String BLOB_DIR = "blobs";
+    private static final String VARIANT_DIR = "variants";
+
+    private static final Pattern FOLDER_PATTERN = Pattern.compile("[A-Za-z0-9_-]+");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileBlobRepository fileBlobRepository;
+    private final StoredFileRepository storedFileRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${nhom11.upload-file.base-uri}")
+    private String baseURI;
+
+    private Path blobRoot;
+    private Path tmpDir;
+
+    public FileBlobService(FileBlobRepository fileBlobRepository, StoredFileRepository storedFileRepository,
+            TransactionTemplate transactionTemplate) {
+        this.fileBlobRepository = fileBlobRepository;
+        this.storedFileRepository = storedFileRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @PostConstruct
+    public void init() throws URISyntaxException, IOException {
+        this.blobRoot = Paths.get(new URI(this.baseURI)).toAbsolutePath().normalize().resolve(BLOB_DIR);
+        this.tmpDir = this.blobRoot.resolve(".tmp");
+        Files.createDirectories(this.tmpDir);
+    }
+
+    /**
+     * Lưu nội dung dưới tên logic folder/name. Nội dung đã có thì chỉ tăng số tham chiếu, không ghi lại
+     */
+    public StoredFile store(InputStream input, String folder, String name, String originalName)
+            throws IOException, StorageException {
+        validateFolder(folder);
+
+        Path tmp = this.createTempFile("upload-");
+        try {
+            // ghi file tạm, băm trong lúc ghi, fsync
+            MessageDigest digest = sha256();
+            long size = 0;
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int n;
+                while ((n = input.read(buffer)) != -1) {
+                    digest.update(buffer, 0, n);
+                    ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, n);
+                    while (chunk.hasRemaining()) {
+                        channel.write(chunk);
+                    }
+                    size += n;
+                }
+                channel.force(true);
+            }
+            return this.adopt(tmp, HexFormat.of().formatHex(digest.digest()), size, folder, name, originalName);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * File tạm mới trong kho (cùng phân vùng với blob nên rename được nguyên tử)
+     */
+    public Path createTempFile(String prefix) throws IOException {
+        return Files.createTempFile(this.tmpDir, prefix, ".part");
+    }
+
+    /**
+     * Đường dẫn file tạm có tên cố định trong kho (dùng cho upload theo từng phần)
+     */
+    public Path tempPath(String fileName) {
+        return this.tmpDir.resolve(fileName);
+    }
+
+    /**
+     * Đưa file tạm đã ghi xong (đã fsync, hash tính sẵn) vào kho dưới tên logic folder/name.
+     * File tạm bị chuyển đi hoặc bỏ lại cho bên gọi xóa nếu blob cùng nội dung đã tồn tại.
+     * Blob được đưa vào vị trí trước khi ghi metadata, trong cùng transaction: không bao giờ có dòng
+     * stored_files trỏ tới blob chưa có trên đĩa
+     */
+    public StoredFile adopt(Path tmp, String hash, long size, String folder, String name, String originalName)
+            throws IOException, StorageException {
+        validateFolder(folder);
+
+        try {
+            return this.transactionTemplate.execute(status -> {
+                // khóa dòng blob tới khi commit: release không xóa được blob đang được đưa vào
+                Instant now = Instant.now();
+                this.fileBlobRepository.acquire(hash, size, now);
+
+                // ----- đưa nội dung vào vị trí blob nếu chưa có (cùng hash = cùng nội dung) -----
+                boolean created;
+                try {
+                    created = this.placeBlob(tmp, hash);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+
+                // ----- ghi metadata; lỗi (vd. trùng tên) thì gỡ blob vừa tạo khi vẫn giữ khóa -----
+                try {
+                    StoredFile f = new StoredFile();
+                    f.setFolder(folder);
+                    f.setName(name);
+                    f.setOriginalName(originalName);
+                    f.setBlobHash(hash);
+                    f.setSize(size);
+                    f.setCreatedAt(now);
+                    f.setCreatedBy(SecurityUtil.getCurrentUserLogin().orElse(""));
+                    return this.storedFileRepository.saveAndFlush(f);
+                } catch (RuntimeException e) {
+                    if (created) {
+                        try {
+                            Files.deleteIfExists(this.blobPath(hash));
+                        } catch (IOException ignored) {
+                            // blob mồ côi: lần upload cùng nội dung sau dùng lại
+                        }
+                    }
+                    throw e;
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // transaction đã rollback, số tham chiếu không đổi
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Đường dẫn blob của tên logic folder/name, null nếu tên đó không có trong kho
+     */
+    public Path resolve(String folder, String name) {
+        if (folder == null || name == null) {
+            return null;
+        }
+        StoredFile stored = this.storedFileRepository.findByFolderAndName(folder, name);
+        return stored != null ? this.blobPath(stored.getBlobHash()) : null;
+    }
+
+    /**
+     * Bỏ tên logic folder/name, xóa blob khi không còn tên nào trỏ tới
+     */
+    @Transactional(rollbackFor = IOException.class)
+    public boolean release(String folder, String name) throws IOException {
+        StoredFile stored = this.storedFileRepository.findByFolderAndName(folder, name);
+        if (stored == null) {
+            return false;
+        }
+        this.storedFileRepository.delete(stored);
+
+        FileBlob blob = this.fileBlobRepository.findForUpdate(stored.getBlobHash()).orElse(null);
+        if (blob == null) {
+            return true;
+        }
+        blob.setRefCount(blob.getRefCount() - 1);
+        if (blob.getRefCount() <= 0) {
+            // xóa khi vẫn giữ khóa dòng: upload cùng nội dung phải chờ tới khi commit rồi mới ghi lại blob
+            Files.deleteIfExists(this.blobPath(blob.getHash()));
+            this.fileBlobRepository.delete(blob);
+        }
+        return true;
+    }
+
+    /**
+     * File đệm của ảnh thu nhỏ, theo hash nội dung ảnh gốc: blobs/variants/<variant>/ab/cd/<hash>.jpg
+     */
+    public Path variantPath(String variant, String hash) {
+        return this.blobRoot.resolve(VARIANT_DIR).resolve(variant)
+                .resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash + ".jpg");
+    }
+
+    /**
+     * Hash nội dung nếu path là 1 blob trong kho, ngược lại null
+     */
+    public String hashOf(Path path) {
+        Path normalized = path.toAbsolutePath().normalize();
+        if (!normalized.startsWith(this.blobRoot) || normalized.getNameCount() != this.blobRoot.getNameCount() + 3) {
+            return null;
+        }
+        return normalized.getFileName().toString();
+    }
+
+    public static void validateFolder(String folder) throws StorageException {
+        if (folder == null || !FOLDER_PATTERN.matcher(folder).matches() || BLOB_DIR.equals(folder)) {
+            throw new StorageException("Tên thư mục không hợp lệ: " + folder);
+        }
+    }
+
+    public static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // ========================== UTIL ==========================
+
+    // true nếu file tạm được chuyển thành blob, false nếu blob cùng nội dung đã có sẵn
+    private boolean placeBlob(Path tmp, String hash) throws IOException {
+        Path target = this.blobPath(hash);
+        if (Files.exists(target)) {
+            return false;
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // upload khác cùng nội dung vừa ghi xong
+            return false;
+        } catch (AtomicMoveNotSupportedException e) {
+            throw new IOException("Thư mục tạm và thư mục blob phải cùng phân vùng", e);
+        }
+        fsyncDirectory(target.getParent());
+        return true;
+    }
+
+    private Path blobPath(String hash) {
+        return this.blobRoot.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    // fsync thư mục để thao tác rename bền vững sau khi mất điện (không hỗ trợ trên Windows thì bỏ qua)
+    private static void fsyncDirectory(Path dir) {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // bỏ qua
+        }
+    }
+}
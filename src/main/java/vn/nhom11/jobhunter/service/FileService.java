@@ -1,76 +1,295 @@
 package vn.nhom11.jobhunter.service;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import vn.nhom11.jobhunter.util.error.StorageException;
+
 @Service
 public class FileService {
 
+    // thuộc tính request Tomcat dùng để gửi file bằng sendfile sau khi servlet trả về
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final int ETAG_CACHE_SIZE = 10000;
+
+    public static final List<String> ALLOWED_EXTENSIONS = List.of("pdf", "jpg", "jpeg", "png", "doc", "docx");
+
+    private final Map<Path, CachedETag> etags = new ConcurrentHashMap<>();
+
+    private final FileBlobService fileBlobService;
+
     @Value("${nhom11.upload-file.base-uri}")
     private String baseURI;
 
-    public void createDirectory(String folder) throws URISyntaxException {
-        URI uri = new URI(folder);
-        Path path = Paths.get(uri);
-        File tmpDir = new File(path.toString());
-        if (!tmpDir.isDirectory()) {
-            try {
-                Files.createDirectory(tmpDir.toPath());
-                System.out.println(">>> CREATE NEW DIRECTORY SUCCESSFUL, PATH = " + tmpDir.toPath());
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        } else {
-            System.out.println(">>> SKIP MAKING DIRECTORY, ALREADY EXISTS");
-        }
+    public FileService(FileBlobService fileBlobService) {
+        this.fileBlobService = fileBlobService;
+    }
 
+    public static boolean hasAllowedExtension(String fileName) {
+        return fileName != null && ALLOWED_EXTENSIONS.stream().anyMatch(item -> fileName.toLowerCase().endsWith(item));
     }
 
-    public String store(MultipartFile file, String folder) throws URISyntaxException, IOException {
+    /**
+     * Lưu file vào kho theo nội dung, trả về tên logic (vẫn dạng currentTimeMillis-originalName)
+     */
+    public String store(MultipartFile file, String folder) throws IOException, StorageException {
         // create unique filename
         String finalName = System.currentTimeMillis() + "-" + file.getOriginalFilename();
 
-        URI uri = new URI(baseURI + folder + "/" + finalName);
-        Path path = Paths.get(uri);
         try (InputStream inputStream = file.getInputStream()) {
-            Files.copy(inputStream, path,
-                    StandardCopyOption.REPLACE_EXISTING);
+            this.fileBlobService.store(inputStream, folder, finalName, file.getOriginalFilename());
         }
         return finalName;
     }
 
-    public long getFileLength(String fileName, String folder) throws URISyntaxException {
-        URI uri = new URI(baseURI + folder + "/" + fileName);
-        Path path = Paths.get(uri);
+    /**
+     * Đường dẫn nội dung của file: tra kho blob trước, sau đó tới file cũ lưu phẳng trong thư mục upload
+     * (chặn path traversal (../) ra ngoài baseURI)
+     */
+    public Path resolveFile(String fileName, String folder) throws URISyntaxException, StorageException {
+        Path blob = this.fileBlobService.resolve(folder, fileName);
+        if (blob != null) {
+            if (!Files.isRegularFile(blob)) {
+                throw new StorageException("File with name = " + fileName + " not found.");
+            }
+            return blob;
+        }
+
+        Path base = Paths.get(new URI(baseURI)).toAbsolutePath().normalize();
+        Path path = base.resolve(folder).resolve(fileName).normalize();
+        if (!path.startsWith(base) || path.equals(base) || path.startsWith(base.resolve(FileBlobService.BLOB_DIR))) {
+            throw new StorageException("Đường dẫn file không hợp lệ.");
+        }
+        // file không tồn tại, hoặc là thư mục
+        if (!Files.isRegularFile(path)) {
+            throw new StorageException("File with name = " + fileName + " not found.");
+        }
+        return path;
+    }
+
+    // ===== Tải file: Range (206), ETag / Last-Modified (304), ghi không qua heap =====
+
+    /**
+     * Ghi file ra response:
+     * - If-None-Match / If-Modified-Since / If-Match / If-Unmodified-Since -> 304 / 412
+     * - Range (kèm If-Range) -> 206, nhiều khoảng thì trả multipart/byteranges; khoảng sai -> 416
+     * - Tomcat hỗ trợ sendfile thì để connector gửi thẳng từ file (zero-copy),
+     *   ngược lại dùng FileChannel.transferTo với bộ đệm cố định
+     */
+    public void serveFile(Path path, String downloadName, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+        long length = attrs.size();
+        long lastModified = attrs.lastModifiedTime().toMillis();
+        String etag = this.getETag(path, attrs);
+
+        ServletWebRequest webRequest = new ServletWebRequest(request, response);
+        if (webRequest.checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        MediaType contentType = MediaTypeFactory.getMediaType(downloadName).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(downloadName, StandardCharsets.UTF_8).build().toString());
+
+        List<long[]> ranges;
+        try {
+            ranges = this.resolveRanges(request, length, etag, lastModified);
+        } catch (IllegalArgumentException e) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+            return;
+        }
+        boolean head = HttpMethod.HEAD.matches(request.getMethod());
 
-        File tmpDir = new File(path.toString());
+        // ----- cả file hoặc 1 khoảng -----
+        if (ranges.size() <= 1) {
+            long start = ranges.isEmpty() ? 0 : ranges.get(0)[0];
+            long end = ranges.isEmpty() ? length - 1 : ranges.get(0)[1];
+            if (!ranges.isEmpty()) {
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+            response.setContentType(contentType.toString());
+            response.setContentLengthLong(end - start + 1);
+            if (head || length == 0) {
+                return;
+            }
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START, start);
+                request.setAttribute(SENDFILE_END, end + 1);
+                return;
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                this.transfer(channel, start, end - start + 1, Channels.newChannel(response.getOutputStream()));
+            }
+            return;
+        }
 
-        // file không tồn tại, hoặc file là 1 director => return 0
-        if (!tmpDir.exists() || tmpDir.isDirectory())
-            return 0;
-        return tmpDir.length();
+        // ----- nhiều khoảng: multipart/byteranges -----
+        String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+        response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        if (head) {
+            return;
+        }
+        ServletOutputStream out = response.getOutputStream();
+        WritableByteChannel target = Channels.newChannel(out);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            for (long[] range : ranges) {
+                String partHeader = "\r\n--" + boundary + "\r\n"
+                        + HttpHeaders.CONTENT_TYPE + ": " + contentType + "\r\n"
+                        + HttpHeaders.CONTENT_RANGE + ": bytes " + range[0] + "-" + range[1] + "/" + length
+                        + "\r\n\r\n";
+                out.write(partHeader.getBytes(StandardCharsets.US_ASCII));
+                this.transfer(channel, range[0], range[1] - range[0] + 1, target);
+            }
+            out.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+
+    /**
+     * SHA-256 (hex) nội dung file, dùng chung bộ đệm với ETag
+     */
+    public String contentHash(Path path) throws IOException {
+        String etag = this.getETag(path, Files.readAttributes(path, BasicFileAttributes.class));
+        return etag.substring(1, etag.length() - 1);
+    }
+
+    // ========================== UTIL ==========================
+
+    // danh sách [start, end] cần gửi, rỗng = cả file; IllegalArgumentException nếu Range không hợp lệ
+    private List<long[]> resolveRanges(HttpServletRequest request, long length, String etag, long lastModified) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null || rangeHeader.isBlank()) {
+            return List.of();
+        }
+        // If-Range: file đã đổi so với bản client đang giữ -> trả cả file
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.isBlank()) {
+            if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+                if (!ifRange.trim().equals(etag)) {
+                    return List.of();
+                }
+            } else {
+                long ifRangeDate = request.getDateHeader(HttpHeaders.IF_RANGE);
+                if (ifRangeDate == -1 || lastModified / 1000 != ifRangeDate / 1000) {
+                    return List.of();
+                }
+            }
+        }
+
+        List<long[]> result = new ArrayList<>();
+        long total = 0;
+        for (HttpRange range : HttpRange.parseRanges(rangeHeader)) {
+            long start = range.getRangeStart(length);
+            long end = range.getRangeEnd(length);
+            // HttpRange không kiểm tra vị trí bắt đầu so với kích thước file (vd. bytes=200- với file 100 byte)
+            if (start >= length) {
+                throw new IllegalArgumentException("Khoảng bắt đầu ngoài file");
+            }
+            total += end - start + 1;
+            result.add(new long[] { start, end });
+        }
+        // nhiều khoảng chồng lên nhau vượt kích thước file: từ chối thay vì gửi lặp dữ liệu
+        if (result.size() > 1 && total > length) {
+            throw new IllegalArgumentException("Tổng các khoảng vượt quá kích thước file");
+        }
+        return result;
     }
 
-    public InputStreamResource getResource(String fileName, String folder)
-            throws URISyntaxException, FileNotFoundException {
-        URI uri = new URI(baseURI + folder + "/" + fileName);
-        Path path = Paths.get(uri);
+    private void transfer(FileChannel channel, long position, long count, WritableByteChannel target)
+            throws IOException {
+        long sent = 0;
+        while (sent < count) {
+            long n = channel.transferTo(position + sent, count - sent, target);
+            if (n <= 0) {
+                break;
+            }
+            sent += n;
+        }
+    }
+
+    /**
+     * ETag mạnh = SHA-256 nội dung file, tính 1 lần cho mỗi (đường dẫn, kích thước, thời điểm sửa)
+     */
+    private String getETag(Path path, BasicFileAttributes attrs) throws IOException {
+        // blob trong kho: tên file chính là SHA-256 nội dung
+        String hash = this.fileBlobService.hashOf(path);
+        if (hash != null) {
+            return "\"" + hash + "\"";
+        }
+        long size = attrs.size();
+        long modified = attrs.lastModifiedTime().toMillis();
+        CachedETag cached = this.etags.get(path);
+        if (cached != null && cached.size == size && cached.modified == modified) {
+            return cached.etag;
+        }
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        String etag = "\"" + HexFormat.of().formatHex(digest.digest()) + "\"";
+
+        if (this.etags.size() >= ETAG_CACHE_SIZE) {
+            this.etags.clear();
+        }
+        this.etags.put(path, new CachedETag(size, modified, etag));
+        return etag;
+    }
 
-        File file = new File(path.toString());
-        return new InputStreamResource(new FileInputStream(file));
+    private record CachedETag(long size, long modified, String etag) {
     }
 }
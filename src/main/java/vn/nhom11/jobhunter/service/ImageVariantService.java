@@ -0,0 +1,259 @@
+package vn.nhom11.jobhunter.service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Ảnh thu nhỏ (thumb / medium) cho logo công ty, lưu đệm trên đĩa theo hash nội dung ảnh gốc:
+ * <base>/blobs/variants/<variant>/ab/cd/<hash>.jpg
+ * - tạo nền ngay sau khi upload, trên 1 pool giới hạn số luồng và độ dài hàng đợi
+ * - lúc tải mà chưa có thì tạo ngay; nhiều request cùng ảnh chỉ tạo 1 lần (single-flight)
+ */
+@Service
+public class ImageVariantService {
+
+    public static final Map<String, Integer> VARIANTS = Map.of("thumb", 128, "medium", 512);
+
+    // ảnh gốc lớn hơn số điểm ảnh này không xử lý (tránh ảnh "bom" giải nén ra hàng GB)
+    private static final long MAX_SOURCE_PIXELS = 50_000_000L;
+
+    private final FileService fileService;
+    private final FileBlobService fileBlobService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${nhom11.image-variant.threads:2}")
+    private int threads;
+
+    @Value("${nhom11.image-variant.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${nhom11.image-variant.jpeg-quality:0.8}")
+    private float jpegQuality;
+
+    @Value("${nhom11.image-variant.wait-timeout-ms:10000}")
+    private long waitTimeoutMs;
+
+    private ThreadPoolExecutor executor;
+
+    private final Map<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+
+    public ImageVariantService(FileService fileService, FileBlobService fileBlobService, MeterRegistry meterRegistry) {
+        this.fileService = fileService;
+        this.fileBlobService = fileBlobService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(this.threads, this.threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(this.queueCapacity), r -> {
+                    Thread t = new Thread(r, "image-variant-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        Gauge.builder("image.variant.queue.depth", this.executor, e -> e.getQueue().size())
+                .register(this.meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        this.executor.shutdownNow();
+    }
+
+    public static boolean isImage(String fileName) {
+        String lower = fileName == null ? "" : fileName.toLowerCase();
+        return lower.endsWith(".png") || lower.endsWith(".jpg") || lower.endsWith(".jpeg");
+    }
+
+    public static boolean isVariant(String variant) {
+        return variant != null && VARIANTS.containsKey(variant);
+    }
+
+    /**
+     * Tạo nền tất cả các cỡ cho ảnh vừa upload; hàng đợi đầy thì bỏ qua (sẽ tạo khi có người tải)
+     */
+    public void generateAsync(String folder, String fileName) {
+        if (!isImage(fileName)) {
+            return;
+        }
+        try {
+            Path source = this.fileService.resolveFile(fileName, folder);
+            String hash = this.fileService.contentHash(source);
+            for (String variant : VARIANTS.keySet()) {
+                this.generate(source, hash, variant);
+            }
+        } catch (Exception e) {
+            System.out.println(">>> Image variant: bỏ qua " + folder + "/" + fileName + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * File của cỡ ảnh variant, tạo nếu chưa có. null = không tạo được (không phải ảnh, ảnh hỏng, hệ thống bận):
+     * bên gọi trả ảnh gốc
+     */
+    public Path resolveVariant(Path source, String fileName, String variant) throws IOException {
+        if (!isVariant(variant) || !isImage(fileName)) {
+            return null;
+        }
+        String hash = this.fileService.contentHash(source);
+        Path target = this.fileBlobService.variantPath(variant, hash);
+        if (Files.isRegularFile(target)) {
+            return target;
+        }
+        try {
+            return this.generate(source, hash, variant).get(this.waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    // ========================== UTIL ==========================
+
+    // single-flight: mỗi (variant, hash) chỉ có 1 tác vụ đang chạy, các request khác chờ chung kết quả
+    private CompletableFuture<Path> generate(Path source, String hash, String variant) {
+        String key = variant + ":" + hash;
+        CompletableFuture<Path> created = new CompletableFuture<>();
+        CompletableFuture<Path> existing = this.inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            this.executor.execute(() -> {
+                try {
+                    created.complete(this.render(source, hash, variant));
+                } catch (Throwable e) {
+                    created.completeExceptionally(e);
+                } finally {
+                    this.inFlight.remove(key, created);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            this.inFlight.remove(key, created);
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    private Path render(Path source, String hash, String variant) throws IOException {
+        Path target = this.fileBlobService.variantPath(variant, hash);
+        if (Files.isRegularFile(target)) {
+            return target;
+        }
+        int maxSide = VARIANTS.get(variant);
+
+        BufferedImage original = readSubsampled(source, maxSide);
+        int width = original.getWidth();
+        int height = original.getHeight();
+        double scale = Math.min(1.0, (double) maxSide / Math.max(width, height));
+        int w = Math.max(1, (int) Math.round(width * scale));
+        int h = Math.max(1, (int) Math.round(height * scale));
+
+        // JPEG không có kênh alpha: nền trắng cho PNG trong suốt
+        BufferedImage resized = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = resized.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, w, h);
+            g.drawImage(original, 0, 0, w, h, null);
+        } finally {
+            g.dispose();
+        }
+
+        // ghi file tạm rồi rename để request khác không đọc phải file ghi dở
+        Path tmp = this.fileBlobService.createTempFile("variant-");
+        try {
+            this.writeJpeg(resized, tmp);
+            Files.createDirectories(target.getParent());
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        return target;
+    }
+
+    // đọc ảnh gốc, bỏ bớt điểm ảnh ngay lúc giải mã nếu ảnh lớn hơn nhiều so với cỡ cần
+    private static BufferedImage readSubsampled(Path source, int maxSide) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("Không đọc được ảnh " + source.getFileName());
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_SOURCE_PIXELS) {
+                    throw new IOException("Ảnh quá lớn: " + width + "x" + height);
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, Math.max(width, height) / (maxSide * 2));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+                ImageOutputStream out = ImageIO.createImageOutputStream(Channels.newOutputStream(channel))) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(this.jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+            out.flush();
+            channel.force(true);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
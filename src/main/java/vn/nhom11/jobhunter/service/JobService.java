@@ -1,10 +1,12 @@
 package vn.nhom11.jobhunter.service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
@@ -14,6 +16,7 @@ import vn.nhom11.jobhunter.domain.Job;
 import vn.nhom11.jobhunter.domain.Skill;
 import vn.nhom11.jobhunter.domain.response.ResultPaginationDTO;
 import vn.nhom11.jobhunter.domain.response.job.ResCreateJobDTO;
+import vn.nhom11.jobhunter.domain.response.job.ResJobListDTO;
 import vn.nhom11.jobhunter.domain.response.job.ResUpdateJobDTO;
 import vn.nhom11.jobhunter.repository.CompanyRepository;
 import vn.nhom11.jobhunter.repository.JobRepository;
@@ -25,13 +28,19 @@ public class JobService {
     private final JobRepository jobRepository;
     private final SkillRepository skillRepository;
     private final CompanyRepository companyRepository;
+    private final KeysetPaginationService keysetPaginationService;
+    private final PageCountService pageCountService;
 
     public JobService(JobRepository jobRepository,
             SkillRepository skillRepository,
-            CompanyRepository companyRepository) {
+            CompanyRepository companyRepository,
+            KeysetPaginationService keysetPaginationService,
+            PageCountService pageCountService) {
         this.jobRepository = jobRepository;
         this.skillRepository = skillRepository;
         this.companyRepository = companyRepository;
+        this.keysetPaginationService = keysetPaginationService;
+        this.pageCountService = pageCountService;
     }
 
     public Optional<Job> fetchJobById(long id) {
@@ -153,7 +162,13 @@ public class JobService {
     }
 
     public ResultPaginationDTO fetchAll(Specification<Job> spec, Pageable pageable) {
-        Page<Job> pageUser = this.jobRepository.findAll(spec, pageable);
+        if (this.keysetPaginationService.isCursorRequest()) {
+            return this.keysetPaginationService.fetchPage(this.jobRepository, Job.class, spec, pageable,
+                    jobs -> this.fillSkills(jobs.stream().map(this::convertToResJobListDTO).toList()));
+        }
+        // projection: chỉ các cột hiển thị + company (LEFT JOIN), không nạp entity / quan hệ lazy theo từng dòng
+        PageCountService.CountedPage<ResJobListDTO> pageJob = this.pageCountService.findAll(Job.class, spec,
+                pageable, this.jobRepository::findJobList);
 
         ResultPaginationDTO rs = new ResultPaginationDTO();
         ResultPaginationDTO.Meta mt = new ResultPaginationDTO.Meta();
@@ -161,13 +176,55 @@ public class JobService {
         mt.setPage(pageable.getPageNumber() + 1);
         mt.setPageSize(pageable.getPageSize());
 
-        mt.setPages(pageUser.getTotalPages());
-        mt.setTotal(pageUser.getTotalElements());
+        mt.setPages(pageJob.getTotalPages());
+        mt.setTotal(pageJob.getTotalElements());
+        mt.setCountMode(pageJob.getCountMode());
 
         rs.setMeta(mt);
 
-        rs.setResult(pageUser.getContent());
+        rs.setResult(this.fillSkills(pageJob.getContent()));
 
         return rs;
     }
+
+    public ResJobListDTO convertToResJobListDTO(Job job) {
+        ResJobListDTO dto = new ResJobListDTO();
+        dto.setId(job.getId());
+        dto.setName(job.getName());
+        dto.setLocation(job.getLocation());
+        dto.setSalary(job.getSalary());
+        dto.setQuantity(job.getQuantity());
+        dto.setLevel(job.getLevel());
+        dto.setStartDate(job.getStartDate());
+        dto.setEndDate(job.getEndDate());
+        dto.setActive(job.isActive());
+        dto.setCreatedAt(job.getCreatedAt());
+        dto.setUpdatedAt(job.getUpdatedAt());
+        dto.setCreatedBy(job.getCreatedBy());
+        dto.setUpdatedBy(job.getUpdatedBy());
+        if (job.getCompany() != null) {
+            Company company = job.getCompany();
+            dto.setCompany(new ResJobListDTO.CompanyJob(company.getId(), company.getName(), company.getLogo()));
+        }
+        return dto;
+    }
+
+    // ========================== UTIL ==========================
+
+    // nạp skills cho cả trang bằng 1 truy vấn IN thay vì 1 truy vấn / job
+    private List<ResJobListDTO> fillSkills(List<ResJobListDTO> jobs) {
+        if (jobs.isEmpty()) {
+            return jobs;
+        }
+        List<Long> jobIds = jobs.stream().map(ResJobListDTO::getId).toList();
+        Map<Long, List<ResJobListDTO.SkillJob>> skillsByJob = new HashMap<>();
+        for (Object[] row : this.jobRepository.findSkillsByJobIds(jobIds)) {
+            skillsByJob.computeIfAbsent((Long) row[0], k -> new ArrayList<>())
+                    .add(new ResJobListDTO.SkillJob((Long) row[1], (String) row[2]));
+        }
+        for (ResJobListDTO job : jobs) {
+            job.setSkills(skillsByJob.getOrDefault(job.getId(), List.of()));
+        }
+        return jobs;
+    }
 }
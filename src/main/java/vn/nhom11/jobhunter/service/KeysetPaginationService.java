@@ -0,0 +1,191 @@
+package vn.nhom11.jobhunter.service;
+
+import java.lang.reflect.Field;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import vn.nhom11.jobhunter.domain.response.ResultPaginationDTO;
+import vn.nhom11.jobhunter.util.error.InvalidCursorException;
+
+/**
+ * Phân trang theo cursor (keyset) cho các API danh sách, bật khi request có tham số cursor:
+ * - ?cursor=&size=20 -> trang đầu, ?cursor=<meta.nextCursor | meta.prevCursor> -> trang sau / trước
+ * - sắp xếp mặc định createdAt desc, id desc (có index), hoặc theo ?sort=...; luôn thêm id để thứ tự là duy nhất
+ * - câu truy vấn "WHERE (createdAt, id) < (giá trị dòng cuối) ... LIMIT size + 1" thay cho OFFSET,
+ *   không chạy COUNT(*): trang sâu nhanh như trang đầu
+ * - cursor là Base64 của các giá trị khóa sắp xếp tại dòng đầu / cuối trang, chỉ dùng được với đúng sort đã tạo ra nó
+ */
+@Service
+public class KeysetPaginationService {
+
+    public static final String CURSOR_PARAM = "cursor";
+
+    private static final Sort DEFAULT_SORT = Sort.by(Sort.Direction.DESC, "createdAt");
+    private static final String ID = "id";
+
+    private final ObjectMapper objectMapper;
+
+    public KeysetPaginationService(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * true nếu request hiện tại có tham số cursor (kể cả rỗng = trang đầu)
+     */
+    public boolean isCursorRequest() {
+        return this.currentCursor() != null;
+    }
+
+    public <T> ResultPaginationDTO fetch(JpaSpecificationExecutor<T> repository, Class<T> type,
+            Specification<T> spec, Pageable pageable) {
+        return this.fetch(repository, type, spec, pageable, Function.identity());
+    }
+
+    /**
+     * Lấy 1 trang theo cursor của request hiện tại; spec (@Filter) được giữ nguyên và AND với điều kiện keyset
+     */
+    public <T> ResultPaginationDTO fetch(JpaSpecificationExecutor<T> repository, Class<T> type,
+            Specification<T> spec, Pageable pageable, Function<T, ?> mapper) {
+        return this.fetchPage(repository, type, spec, pageable, content -> content.stream().map(mapper).toList());
+    }
+
+    /**
+     * Như fetch nhưng chuyển đổi cả trang 1 lần (vd. nạp dữ liệu liên quan bằng 1 truy vấn IN cho cả trang)
+     */
+    public <T> ResultPaginationDTO fetchPage(JpaSpecificationExecutor<T> repository, Class<T> type,
+            Specification<T> spec, Pageable pageable, Function<List<T>, List<?>> pageMapper) {
+        Sort sort = this.resolveSort(pageable.getSort());
+        int size = pageable.getPageSize();
+        String cursor = this.currentCursor();
+        KeysetScrollPosition position = (cursor == null || cursor.isEmpty())
+                ? ScrollPosition.keyset()
+                : this.decode(cursor, type, sort);
+
+        Specification<T> where = spec != null ? spec : Specification.where(null);
+        Window<T> window = repository.findBy(where, q -> q.sortBy(sort).limit(size).scroll(position));
+        List<T> content = window.getContent();
+
+        ResultPaginationDTO.Meta meta = new ResultPaginationDTO.Meta();
+        meta.setPageSize(size);
+        if (content.isEmpty()) {
+            // trang rỗng: chỉ cho quay lại phía vừa đi tới
+            if (!position.isInitial()) {
+                meta.setPrevCursor(this.encode(position.reverse()));
+            }
+        } else {
+            Map<String, Object> first = this.keysOf(window, 0);
+            Map<String, Object> last = this.keysOf(window, content.size() - 1);
+            boolean forward = position.scrollsForward();
+            // window.hasNext() = còn dữ liệu theo hướng đang đi (lùi thì phía sau chắc chắn còn)
+            if (!forward || window.hasNext()) {
+                meta.setNextCursor(this.encode(ScrollPosition.forward(last)));
+            }
+            if (forward ? !position.isInitial() : window.hasNext()) {
+                meta.setPrevCursor(this.encode(ScrollPosition.backward(first)));
+            }
+        }
+
+        ResultPaginationDTO rs = new ResultPaginationDTO();
+        rs.setMeta(meta);
+        rs.setResult(pageMapper.apply(content));
+        return rs;
+    }
+
+    // ========================== UTIL ==========================
+
+    private String currentCursor() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servlet) {
+            return servlet.getRequest().getParameter(CURSOR_PARAM);
+        }
+        return null;
+    }
+
+    // sort của request (hoặc mặc định) + id cùng chiều với khóa cuối để khớp index (createdAt, id)
+    Sort resolveSort(Sort requested) {
+        Sort sort = requested.isSorted() ? requested : DEFAULT_SORT;
+        if (sort.getOrderFor(ID) != null) {
+            return sort;
+        }
+        Sort.Order lastOrder = sort.stream().reduce((a, b) -> b).orElseThrow();
+        return sort.and(Sort.by(lastOrder.getDirection(), ID));
+    }
+
+    private Map<String, Object> keysOf(Window<?> window, int index) {
+        return ((KeysetScrollPosition) window.positionAt(index)).getKeys();
+    }
+
+    String encode(KeysetScrollPosition position) {
+        ObjectNode node = this.objectMapper.createObjectNode();
+        node.put("d", position.scrollsForward() ? "f" : "b");
+        node.set("k", this.objectMapper.valueToTree(position.getKeys()));
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(this.objectMapper.writeValueAsBytes(node));
+        } catch (Exception e) {
+            throw new IllegalStateException("Không tạo được cursor", e);
+        }
+    }
+
+    KeysetScrollPosition decode(String cursor, Class<?> type, Sort sort) {
+        JsonNode node;
+        try {
+            node = this.objectMapper.readTree(Base64.getUrlDecoder().decode(cursor));
+        } catch (Exception e) {
+            throw new InvalidCursorException("cursor không hợp lệ");
+        }
+        JsonNode keys = node.get("k");
+        JsonNode direction = node.get("d");
+        if (keys == null || !keys.isObject() || direction == null) {
+            throw new InvalidCursorException("cursor không hợp lệ");
+        }
+
+        // giá trị khóa đổi lại đúng kiểu của thuộc tính entity (Instant, enum, long...) để so sánh trong SQL
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (Sort.Order order : sort) {
+            JsonNode value = keys.get(order.getProperty());
+            if (value == null || value.isNull()) {
+                throw new InvalidCursorException("cursor không khớp với sort hiện tại");
+            }
+            try {
+                values.put(order.getProperty(),
+                        this.objectMapper.treeToValue(value, propertyType(type, order.getProperty())));
+            } catch (Exception e) {
+                throw new InvalidCursorException("cursor không hợp lệ");
+            }
+        }
+        return "b".equals(direction.asText()) ? ScrollPosition.backward(values) : ScrollPosition.forward(values);
+    }
+
+    // kiểu của thuộc tính theo đường dẫn "company.name"
+    private static Class<?> propertyType(Class<?> type, String path) {
+        Class<?> current = type;
+        for (String part : path.split("\\.")) {
+            Field field = ReflectionUtils.findField(current, part);
+            if (field == null) {
+                throw new InvalidCursorException("Không sắp xếp theo cursor được với thuộc tính " + path);
+            }
+            current = field.getType();
+        }
+        return current;
+    }
+}
@@ -0,0 +1,382 @@
+package vn.nhom11.jobhunter.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Hàng đợi gửi email ra ngoài:
+ * - 2 làn: email giao dịch (xác nhận tài khoản...) và email hàng loạt (digest), worker luôn lấy email
+ *   giao dịch trước
+ * - làn hàng loạt: tối đa queue-capacity email đang chờ (kể cả email chờ gửi lại), bên gọi bị chặn
+ *   (backpressure) khi đầy; chỉ job nền (digest) được dùng làn này
+ * - làn giao dịch: có priority-capacity chỗ riêng, không bao giờ chặn luồng request, đầy thì trả false ngay
+ *   để bên gọi báo lỗi cho client
+ * - email đã nhận vào thì không bao giờ bị bỏ vì hết chỗ
+ * - nhiều worker, mỗi worker gom một lô email và gửi qua 1 kết nối SMTP
+ * - giới hạn tốc độ theo domain người nhận (token bucket)
+ * - gửi lỗi thì thử lại với thời gian chờ tăng dần; email bị giới hạn tốc độ / chờ gửi lại nằm trong
+ *   hàng đợi trễ (DelayQueue) riêng, worker lấy ra khi tới hạn
+ * - số liệu: mail.queue.depth, mail.sent, mail.failed, mail.retried, mail.rate-limited, mail.batch.send
+ */
+@Service
+public class MailDispatcher {
+
+    private final JavaMailSender javaMailSender;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${nhom11.mail.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${nhom11.mail.workers:4}")
+    private int workers;
+
+    @Value("${nhom11.mail.batch-size:50}")
+    private int batchSize;
+
+    @Value("${nhom11.mail.rate-per-domain-per-second:10}")
+    private double ratePerDomain;
+
+    @Value("${nhom11.mail.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${nhom11.mail.retry-backoff-ms:2000}")
+    private long retryBackoffMs;
+
+    @Value("${nhom11.mail.enqueue-timeout-ms:30000}")
+    private long enqueueTimeoutMs;
+
+    @Value("${nhom11.mail.priority-capacity:1000}")
+    private int priorityCapacity;
+
+    // email giao dịch đứng trước, cùng làn thì theo thứ tự nhận
+    private BlockingQueue<MailJob> queue;
+    private final DelayQueue<MailJob> delayed = new DelayQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+    // mỗi email đang chờ / đang gửi giữ 1 permit của làn mình, trả lại khi gửi xong hoặc bỏ hẳn
+    private Semaphore capacity;
+    private Semaphore priorityPermits;
+    private ExecutorService workerPool;
+    private volatile boolean running;
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    private Counter sentCounter;
+    private Counter failedCounter;
+    private Counter retriedCounter;
+    private Counter rateLimitedCounter;
+    private Timer batchTimer;
+
+    public MailDispatcher(JavaMailSender javaMailSender, MeterRegistry meterRegistry) {
+        this.javaMailSender = javaMailSender;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        this.queue = new PriorityBlockingQueue<>(64, Comparator
+                .comparing((MailJob job) -> !job.priority)
+                .thenComparingLong(job -> job.seq));
+        this.capacity = new Semaphore(this.queueCapacity);
+        this.priorityPermits = new Semaphore(this.priorityCapacity);
+
+        Gauge.builder("mail.queue.depth", this, MailDispatcher::getQueueDepth).register(this.meterRegistry);
+        this.sentCounter = this.meterRegistry.counter("mail.sent");
+        this.failedCounter = this.meterRegistry.counter("mail.failed");
+        this.retriedCounter = this.meterRegistry.counter("mail.retried");
+        this.rateLimitedCounter = this.meterRegistry.counter("mail.rate-limited");
+        this.batchTimer = this.meterRegistry.timer("mail.batch.send");
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workerPool = Executors.newFixedThreadPool(this.workers, r -> {
+            Thread t = new Thread(r, "mail-worker-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        this.running = true;
+        for (int i = 0; i < this.workers; i++) {
+            this.workerPool.submit(this::runWorker);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        this.running = false;
+        this.workerPool.shutdown();
+        try {
+            this.workerPool.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        System.out.println(">>> MAIL DISPATCHER STOPPED, còn lại trong queue: " + this.getQueueDepth());
+    }
+
+    /**
+     * Đưa email hàng loạt vào hàng đợi. Chờ tối đa enqueue-timeout nếu queue đầy,
+     * trả về false nếu vẫn không có chỗ. Chỉ gọi từ job nền, không gọi trên luồng request.
+     */
+    public boolean enqueue(String to, String subject, String content, boolean isHtml) {
+        return this.enqueue(to, subject, content, isHtml, null);
+    }
+
+    /**
+     * Như trên, onSent (có thể null) chạy trên luồng worker sau khi SMTP nhận email thành công;
+     * email bị bỏ (hết số lần thử) thì không gọi
+     */
+    public boolean enqueue(String to, String subject, String content, boolean isHtml, Runnable onSent) {
+        MailJob job = new MailJob(to, subject, content, isHtml, onSent, false, this.sequence.incrementAndGet());
+        try {
+            boolean accepted = this.capacity.tryAcquire(this.enqueueTimeoutMs, TimeUnit.MILLISECONDS);
+            if (!accepted) {
+                this.failedCounter.increment();
+                System.out.println("ERROR SEND EMAIL: queue đầy, bỏ email tới " + to);
+                return false;
+            }
+            this.queue.add(job);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Đưa email giao dịch vào làn ưu tiên, không chờ: trả về false ngay nếu làn ưu tiên đã đầy.
+     * Dùng cho luồng request (đăng ký, gửi lại email xác nhận...)
+     */
+    public boolean enqueuePriority(String to, String subject, String content, boolean isHtml) {
+        if (!this.priorityPermits.tryAcquire()) {
+            this.failedCounter.increment();
+            System.out.println("ERROR SEND EMAIL: làn ưu tiên đầy, không nhận email tới " + to);
+            return false;
+        }
+        this.queue.add(new MailJob(to, subject, content, isHtml, null, true, this.sequence.incrementAndGet()));
+        return true;
+    }
+
+    public int getQueueDepth() {
+        return this.queue.size() + this.delayed.size();
+    }
+
+    // ========================== WORKER ==========================
+    private void runWorker() {
+        List<MailJob> batch = new ArrayList<>(this.batchSize);
+        while (this.running || !this.queue.isEmpty()) {
+            try {
+                // email tới hạn gửi lại quay về queue (giữ thứ tự nhận cũ nên đứng trước email mới cùng làn),
+                // queue trả email giao dịch trước email hàng loạt
+                this.delayed.drainTo(this.queue);
+                MailJob first = this.queue.poll(this.pollTimeoutMs(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                this.queue.drainTo(batch, this.batchSize - batch.size());
+
+                this.sendBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                System.out.println("ERROR SEND EMAIL: " + e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void sendBatch(List<MailJob> batch) {
+        List<MailJob> ready = new ArrayList<>(batch.size());
+        List<MimeMessage> messages = new ArrayList<>(batch.size());
+
+        for (MailJob job : batch) {
+            long waitMs = this.bucketFor(job.to).tryAcquire();
+            if (waitMs > 0) {
+                // domain đang vượt giới hạn: đưa lại vào queue sau khi có token
+                this.rateLimitedCounter.increment();
+                this.schedule(job, waitMs);
+                continue;
+            }
+            try {
+                messages.add(this.toMimeMessage(job));
+                ready.add(job);
+            } catch (MessagingException | RuntimeException e) {
+                this.failedCounter.increment();
+                this.release(job);
+                System.out.println("ERROR SEND EMAIL: " + e);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        Timer.Sample sample = Timer.start(this.meterRegistry);
+        try {
+            // gửi cả lô trên cùng 1 kết nối SMTP
+            this.javaMailSender.send(messages.toArray(new MimeMessage[0]));
+            this.sentCounter.increment(messages.size());
+            ready.forEach(this::release);
+            ready.forEach(this::onSent);
+        } catch (MailSendException e) {
+            Map<Object, Exception> failed = e.getFailedMessages();
+            for (int i = 0; i < messages.size(); i++) {
+                if (failed.isEmpty() || failed.containsKey(messages.get(i))) {
+                    this.retry(ready.get(i), e);
+                } else {
+                    this.sentCounter.increment();
+                    this.release(ready.get(i));
+                    this.onSent(ready.get(i));
+                }
+            }
+        } catch (RuntimeException e) {
+            // MailException hoặc lỗi bất kỳ khác: cả lô được thử lại
+            ready.forEach(job -> this.retry(job, e));
+        } finally {
+            sample.stop(this.batchTimer);
+        }
+    }
+
+    private void retry(MailJob job, Exception cause) {
+        job.attempt++;
+        if (job.attempt >= this.maxAttempts) {
+            this.failedCounter.increment();
+            System.out.println("ERROR SEND EMAIL: bỏ email tới " + job.to + " sau " + job.attempt + " lần, " + cause);
+            this.release(job);
+            return;
+        }
+        this.retriedCounter.increment();
+        this.schedule(job, this.retryBackoffMs * (1L << (job.attempt - 1)));
+    }
+
+    private void release(MailJob job) {
+        (job.priority ? this.priorityPermits : this.capacity).release();
+    }
+
+    private void onSent(MailJob job) {
+        if (job.onSent == null) {
+            return;
+        }
+        try {
+            job.onSent.run();
+        } catch (RuntimeException e) {
+            System.out.println("ERROR SEND EMAIL: callback sau khi gửi tới " + job.to + " lỗi: " + e);
+        }
+    }
+
+    // email đã nhận giữ nguyên permit, chỉ chuyển sang hàng đợi trễ (không giới hạn nên không bao giờ bị bỏ)
+    private void schedule(MailJob job, long delayMs) {
+        job.readyAt = System.currentTimeMillis() + delayMs;
+        this.delayed.add(job);
+    }
+
+    // chờ email mới nhưng không quá thời điểm email trễ gần nhất tới hạn
+    private long pollTimeoutMs() {
+        MailJob next = this.delayed.peek();
+        long wait = next == null ? 1000 : next.getDelay(TimeUnit.MILLISECONDS);
+        return Math.max(1, Math.min(1000, wait));
+    }
+
+    private MimeMessage toMimeMessage(MailJob job) throws MessagingException {
+        MimeMessage mimeMessage = this.javaMailSender.createMimeMessage();
+        MimeMessageHelper message = new MimeMessageHelper(mimeMessage, false, StandardCharsets.UTF_8.name());
+        message.setTo(job.to);
+        message.setSubject(job.subject);
+        message.setText(job.content, job.isHtml);
+        return mimeMessage;
+    }
+
+    private TokenBucket bucketFor(String to) {
+        int at = to == null ? -1 : to.lastIndexOf('@');
+        String domain = at < 0 ? "" : to.substring(at + 1).toLowerCase();
+        return this.buckets.computeIfAbsent(domain, d -> new TokenBucket(this.ratePerDomain));
+    }
+
+    private static final class MailJob implements Delayed {
+        final String to;
+        final String subject;
+        final String content;
+        final boolean isHtml;
+        final Runnable onSent;
+        final boolean priority;
+        final long seq;
+        int attempt;
+        volatile long readyAt;
+
+        MailJob(String to, String subject, String content, boolean isHtml, Runnable onSent,
+                boolean priority, long seq) {
+            this.to = to;
+            this.subject = subject;
+            this.content = content;
+            this.isHtml = isHtml;
+            this.onSent = onSent;
+            this.priority = priority;
+            this.seq = seq;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(this.readyAt - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(this.readyAt, ((MailJob) other).readyAt);
+        }
+    }
+
+    /**
+     * Token bucket đơn giản: nạp lại ratePerSecond token mỗi giây, tối đa ratePerSecond token
+     */
+    private static final class TokenBucket {
+        private final double ratePerSecond;
+        private double tokens;
+        private long lastRefill = System.nanoTime();
+
+        TokenBucket(double ratePerSecond) {
+            this.ratePerSecond = ratePerSecond;
+            this.tokens = ratePerSecond;
+        }
+
+        // 0 nếu lấy được token, ngược lại là số ms cần chờ
+        synchronized long tryAcquire() {
+            long now = System.nanoTime();
+            this.tokens = Math.min(this.ratePerSecond,
+                    this.tokens + (now - this.lastRefill) / 1_000_000_000.0 * this.ratePerSecond);
+            this.lastRefill = now;
+            if (this.tokens >= 1) {
+                this.tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - this.tokens) / this.ratePerSecond * 1000);
+        }
+    }
+}
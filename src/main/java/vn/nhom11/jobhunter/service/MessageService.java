@@ -1,14 +1,23 @@
 package vn.nhom11.jobhunter.service;
 
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import vn.nhom11.jobhunter.domain.Message;
 import vn.nhom11.jobhunter.domain.User;
+import vn.nhom11.jobhunter.domain.response.Message.ResConversationDTO;
 import vn.nhom11.jobhunter.domain.response.Message.ResMessageDTO;
 import vn.nhom11.jobhunter.repository.MessageRepository;
 import vn.nhom11.jobhunter.util.error.IdInvalidException;
@@ -18,15 +27,21 @@ public class MessageService {
 
     private final MessageRepository messageRepository;
     private final UserService userService;
+    private final ChatSessionRegistry chatSessionRegistry;
+    private final ConversationService conversationService;
 
-    public MessageService(MessageRepository messageRepository, UserService userService) {
+    public MessageService(MessageRepository messageRepository, UserService userService,
+            ChatSessionRegistry chatSessionRegistry, ConversationService conversationService) {
         this.messageRepository = messageRepository;
         this.userService = userService;
+        this.chatSessionRegistry = chatSessionRegistry;
+        this.conversationService = conversationService;
     }
 
     /**
-     * Gửi tin nhắn giữa 2 user
+     * Gửi tin nhắn giữa 2 user (cập nhật inbox trong cùng transaction)
      */
+    @Transactional(rollbackFor = IdInvalidException.class)
     public Message handleSendMessage(Long senderId, Long receiverId, String content) throws IdInvalidException {
         User sender = this.userService.fetchUserById(senderId);
         User receiver = this.userService.fetchUserById(receiverId);
@@ -44,28 +59,70 @@ public class MessageService {
         message.setReceiver(receiver);
         message.setContent(content);
 
-        return this.messageRepository.save(message);
+        Message saved = this.messageRepository.save(message);
+        this.conversationService.recordMessages(List.of(saved));
+        // người nhận đang mở chat qua WebSocket thì nhận ngay, nhưng chỉ sau khi commit:
+        // không đẩy tin nhắn có id chưa tồn tại nếu transaction rollback, không giữ khóa inbox khi push
+        ResMessageDTO dto = this.convertToResMessageDTO(saved);
+        long receiverId = receiver.getId();
+        Runnable push = () -> this.chatSessionRegistry.pushMessage(receiverId, null, dto);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    push.run();
+                }
+            });
+        } else {
+            push.run();
+        }
+        return saved;
     }
 
     /**
-     * Lấy danh sách tin nhắn giữa 2 user
+     * Lấy 1 trang tin nhắn giữa 2 user, mới nhất trước khi truy vấn, trả về theo thứ tự cũ -> mới.
+     * before = nextCursor của trang trước ("createdAt,id"), null để lấy trang mới nhất.
+     * 1 query trên khóa hội thoại (min/max user id), thời gian không phụ thuộc độ dài hội thoại.
      */
-    public List<Message> fetchConversation(Long user1Id, Long user2Id) throws IdInvalidException {
-        User user1 = this.userService.fetchUserById(user1Id);
-        User user2 = this.userService.fetchUserById(user2Id);
-
-        if (user1 == null || user2 == null) {
-            throw new IdInvalidException("Một trong hai user không tồn tại");
+    public ResConversationDTO fetchConversation(long user1Id, long user2Id, String before, int limit)
+            throws IdInvalidException {
+        long low = Math.min(user1Id, user2Id);
+        long high = Math.max(user1Id, user2Id);
+        // lấy dư 1 tin để biết còn trang cũ hơn hay không
+        PageRequest page = PageRequest.of(0, limit + 1);
+
+        List<Message> messages;
+        if (before == null || before.isBlank()) {
+            messages = this.messageRepository.findConversationLatest(low, high, page);
+        } else {
+            Message cursor = decodeCursor(before);
+            messages = this.messageRepository.findConversationBefore(low, high,
+                    cursor.getCreatedAt(), cursor.getId(), page);
         }
 
-        List<Message> messages = new ArrayList<>();
-        messages.addAll(this.messageRepository.findBySenderAndReceiverOrderByCreatedAtAsc(user1, user2));
-        messages.addAll(this.messageRepository.findBySenderAndReceiverOrderByCreatedAtAsc(user2, user1));
+        String nextCursor = null;
+        if (messages.size() > limit) {
+            messages = new ArrayList<>(messages.subList(0, limit));
+            nextCursor = encodeCursor(messages.get(messages.size() - 1));
+        } else {
+            messages = new ArrayList<>(messages);
+        }
+        Collections.reverse(messages);
 
-        // Sắp xếp theo thời gian gửi
-        messages.sort(Comparator.comparing(Message::getCreatedAt));
+        List<ResMessageDTO> items = messages.stream().map(this::convertToResMessageDTO).toList();
+        return new ResConversationDTO(items, nextCursor);
+    }
 
-        return messages;
+    /**
+     * Điền khóa hội thoại cho tin nhắn cũ khi khởi động
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillConversationKeys() {
+        int updated = this.messageRepository.backfillConversationKeys();
+        if (updated > 0) {
+            System.out.println(">>> Điền khóa hội thoại cho " + updated + " tin nhắn cũ");
+        }
     }
 
     /**
@@ -90,6 +147,27 @@ public class MessageService {
         this.messageRepository.deleteById(id);
     }
 
+    // ========================== UTIL ==========================
+
+    private static String encodeCursor(Message m) {
+        return m.getCreatedAt() + "," + m.getId();
+    }
+
+    private static Message decodeCursor(String cursor) throws IdInvalidException {
+        int comma = cursor.lastIndexOf(',');
+        if (comma < 0) {
+            throw new IdInvalidException("Tham số before không hợp lệ");
+        }
+        try {
+            Message m = new Message();
+            m.setCreatedAt(Instant.parse(cursor.substring(0, comma).trim()));
+            m.setId(Long.parseLong(cursor.substring(comma + 1).trim()));
+            return m;
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IdInvalidException("Tham số before không hợp lệ");
+        }
+    }
+
     /**
      * Convert sang DTO để trả ra client
      */
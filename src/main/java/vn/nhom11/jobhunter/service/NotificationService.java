@@ -1,18 +1,46 @@
 package vn.nhom11.jobhunter.service;
 
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import vn.nhom11.jobhunter.domain.ActivityEvent;
 import vn.nhom11.jobhunter.domain.NotificationDTO.NotificationDTO;
+import vn.nhom11.jobhunter.domain.response.ResNotificationFeedDTO;
 import vn.nhom11.jobhunter.repository.*;
+import vn.nhom11.jobhunter.util.error.InvalidCursorException;
+import vn.nhom11.jobhunter.util.error.TooManyRequestsException;
 
+import java.time.Duration;
 import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Thông báo hoạt động gần đây trên 7 bảng.
+ * Danh sách 24h đọc từ nhật ký hoạt động trong bộ nhớ (ActivityJournalService).
+ * Feed theo khoảng thời gian tuỳ chọn: mỗi bảng chỉ query các bản ghi trong cửa sổ thời gian (range query trên index created_at/updated_at),
+ * mỗi query chỉ lấy tối đa limit + 1 dòng đứng sau cursor (seek theo thời điểm hoạt động, id),
+ * nhưng DB vẫn phải sắp xếp cả cửa sổ vì thời điểm hoạt động = COALESCE(updated_at, created_at) không có index;
+ * 7 query chạy song song, kết quả được trộn k-way theo thời gian (mới nhất trước), chỉ giữ limit + 1 phần tử.
+ * Các query chạy trên pool riêng (không dùng chung applicationTaskExecutor với @Async): số luồng không vượt
+ * quá nửa pool kết nối DB, hàng đợi có giới hạn, mỗi feed chờ tối đa feed-timeout-ms; quá tải thì trả 429.
+ */
 @Service
-@RequiredArgsConstructor
 public class NotificationService {
 
     private final CompanyRepository companyRepository;
@@ -22,143 +50,249 @@ public class NotificationService {
     private final RoleRepository roleRepository;
     private final SubscriberRepository subscriberRepository;
     private final CompanyRegistrationRepository companyRegistrationRepository;
+    private final ActivityJournalService activityJournalService;
 
-    private static final ZoneId ZONE = ZoneId.systemDefault();
+    @Value("${nhom11.notification.feed-threads:7}")
+    private int feedThreads;
 
-    public List<NotificationDTO> getAllNotificationsIn24h() {
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime from24h = now.minusHours(24);
+    @Value("${nhom11.notification.feed-queue-capacity:70}")
+    private int feedQueueCapacity;
+
+    @Value("${nhom11.notification.feed-timeout-ms:3000}")
+    private long feedTimeoutMs;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int dbPoolSize;
 
-        List<NotificationDTO> notifications = new ArrayList<>();
+    private ThreadPoolExecutor feedExecutor;
 
-        addCompany(notifications, from24h);
-        addJob(notifications, from24h);
-        addPermission(notifications, from24h);
-        addResume(notifications, from24h);
-        addRole(notifications, from24h);
-        addSubscriber(notifications, from24h);
-        addCompanyRegistration(notifications, from24h);
+    private static final Map<String, String> LABELS = Map.of(
+            "company", "Công ty",
+            "job", "Công việc",
+            "permission", "Quyền",
+            "resume", "Hồ sơ",
+            "role", "Vai trò",
+            "subscriber", "Người đăng ký",
+            "company_registration", "Yêu cầu đăng ký công ty");
 
-        return notifications;
+    // mới nhất trước; cùng thời điểm thì theo loại rồi id giảm dần
+    private static final Comparator<NotificationDTO> FEED_ORDER = Comparator
+            .comparing(NotificationDTO::getActivityAt, Comparator.reverseOrder())
+            .thenComparing(NotificationDTO::getType)
+            .thenComparing(NotificationDTO::getSourceId, Comparator.reverseOrder());
+
+    public NotificationService(CompanyRepository companyRepository,
+            JobRepository jobRepository,
+            PermissionRepository permissionRepository,
+            ResumeRepository resumeRepository,
+            RoleRepository roleRepository,
+            SubscriberRepository subscriberRepository,
+            CompanyRegistrationRepository companyRegistrationRepository,
+            ActivityJournalService activityJournalService) {
+        this.companyRepository = companyRepository;
+        this.jobRepository = jobRepository;
+        this.permissionRepository = permissionRepository;
+        this.resumeRepository = resumeRepository;
+        this.roleRepository = roleRepository;
+        this.subscriberRepository = subscriberRepository;
+        this.companyRegistrationRepository = companyRegistrationRepository;
+        this.activityJournalService = activityJournalService;
     }
 
-    // ========================== UTIL ==========================
-    private boolean isIn24h(Instant createdAt, Instant updatedAt, LocalDateTime from24h) {
-        LocalDateTime created = createdAt != null ? LocalDateTime.ofInstant(createdAt, ZONE) : null;
-        LocalDateTime updated = updatedAt != null ? LocalDateTime.ofInstant(updatedAt, ZONE) : null;
+    @PostConstruct
+    public void start() {
+        // feed không được chiếm quá nửa pool kết nối DB, phần còn lại cho các request khác
+        int threads = Math.max(1, Math.min(this.feedThreads, this.dbPoolSize / 2));
+        AtomicInteger counter = new AtomicInteger();
+        this.feedExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(this.feedQueueCapacity), r -> {
+                    Thread t = new Thread(r, "notification-feed-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
 
-        boolean c = created != null && created.isAfter(from24h);
-        boolean u = updated != null && updated.isAfter(from24h);
-        return c || u;
+    @PreDestroy
+    public void stop() {
+        this.feedExecutor.shutdownNow();
     }
 
-    private String buildMessage(String type, Instant createdAt, Instant updatedAt, String createdBy, String updatedBy) {
-        if (updatedAt != null && !updatedAt.equals(createdAt)) {
-            return "Đã cập nhật " + type + " bởi " + updatedBy;
+    public List<NotificationDTO> getAllNotificationsIn24h() {
+        Instant from24h = Instant.now().minus(Duration.ofHours(24));
+        return this.activityJournalService.findSince(from24h).stream()
+                .map(NotificationService::toNotification)
+                .toList();
+    }
+
+    /**
+     * Chuyển 1 sự kiện trong nhật ký thành thông báo
+     */
+    public static NotificationDTO toNotification(ActivityEvent e) {
+        NotificationDTO n = new NotificationDTO();
+        n.setType(e.getType());
+        n.setSourceId(e.getSourceId());
+        String label = LABELS.getOrDefault(e.getType(), e.getType());
+        if (ActivityEvent.ACTION_UPDATE.equals(e.getAction())) {
+            n.setUpdatedBy(e.getActor());
+            n.setUpdatedAt(e.getOccurredAt());
+            n.setMessage("Đã cập nhật " + label + " bởi " + e.getActor());
+        } else {
+            n.setCreatedBy(e.getActor());
+            n.setCreatedAt(e.getOccurredAt());
+            n.setMessage("Đã tạo mới " + label + " bởi " + e.getActor());
         }
-        return "Đã tạo mới " + type + " bởi " + createdBy;
+        return n;
     }
 
-    // ========================== 1. COMPANY ==========================
-    private void addCompany(List<NotificationDTO> list, LocalDateTime from24h) {
-        companyRepository.findAll().forEach(c -> {
-            if (isIn24h(c.getCreatedAt(), c.getUpdatedAt(), from24h)) {
-                list.add(new NotificationDTO(
-                        c.getCreatedBy(),
-                        c.getCreatedAt(),
-                        c.getUpdatedBy(),
-                        c.getUpdatedAt(),
-                        buildMessage("Công ty", c.getCreatedAt(), c.getUpdatedAt(), c.getCreatedBy(),
-                                c.getUpdatedBy())));
-            }
-        });
+    /**
+     * Feed thông báo phân trang bằng cursor (cursor = giá trị nextCursor của trang trước)
+     */
+    public ResNotificationFeedDTO getFeed(int hours, String cursor, int limit) {
+        NotificationDTO after = cursor == null || cursor.isBlank() ? null : decodeCursor(cursor);
+        Instant from = Instant.now().minus(Duration.ofHours(hours));
+
+        // lấy dư 1 phần tử để biết còn trang sau hay không
+        List<NotificationDTO> items = this.merge(this.fetchAll(from, after, limit + 1), limit + 1);
+        String nextCursor = null;
+        if (items.size() > limit) {
+            items = new ArrayList<>(items.subList(0, limit));
+            nextCursor = encodeCursor(items.get(items.size() - 1));
+        }
+        return new ResNotificationFeedDTO(items, nextCursor);
     }
 
-    // ========================== 2. JOB ==========================
-    private void addJob(List<NotificationDTO> list, LocalDateTime from24h) {
-        jobRepository.findAll().forEach(j -> {
-            if (isIn24h(j.getCreatedAt(), j.getUpdatedAt(), from24h)) {
-                list.add(new NotificationDTO(
-                        j.getCreatedBy(),
-                        j.getCreatedAt(),
-                        j.getUpdatedBy(),
-                        j.getUpdatedAt(),
-                        buildMessage("Công việc", j.getCreatedAt(), j.getUpdatedAt(), j.getCreatedBy(),
-                                j.getUpdatedBy())));
+    // ========================== UTIL ==========================
+
+    // 7 nguồn chạy song song, mỗi nguồn trả về tối đa limit dòng sau cursor, đã sắp xếp theo FEED_ORDER
+    private List<List<NotificationDTO>> fetchAll(Instant from, NotificationDTO after, int limit) {
+        List<CompletableFuture<List<NotificationDTO>>> futures = new ArrayList<>(LABELS.size());
+        try {
+            futures.add(this.fetch("company", companyRepository::findNotificationsSince, from, after, limit));
+            futures.add(this.fetch("job", jobRepository::findNotificationsSince, from, after, limit));
+            futures.add(this.fetch("permission", permissionRepository::findNotificationsSince, from, after, limit));
+            futures.add(this.fetch("resume", resumeRepository::findNotificationsSince, from, after, limit));
+            futures.add(this.fetch("role", roleRepository::findNotificationsSince, from, after, limit));
+            futures.add(this.fetch("subscriber", subscriberRepository::findNotificationsSince, from, after, limit));
+            futures.add(this.fetch("company_registration", companyRegistrationRepository::findNotificationsSince,
+                    from, after, limit));
+        } catch (RejectedExecutionException e) {
+            // hàng đợi của pool feed đầy: bỏ các query đã xếp hàng của request này
+            futures.forEach(f -> f.cancel(false));
+            throw new TooManyRequestsException("Hệ thống đang bận, vui lòng thử lại sau giây lát.");
+        }
+
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                    .orTimeout(this.feedTimeoutMs, TimeUnit.MILLISECONDS)
+                    .join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                // query còn trong hàng đợi thì không chạy nữa, query đang chạy chạy nốt; request không chờ thêm
+                futures.forEach(f -> f.cancel(false));
+                throw new TooManyRequestsException("Hệ thống đang bận, vui lòng thử lại sau giây lát.");
             }
-        });
+            throw e;
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
     }
 
-    // ========================== 3. PERMISSION ==========================
-    private void addPermission(List<NotificationDTO> list, LocalDateTime from24h) {
-        permissionRepository.findAll().forEach(p -> {
-            if (isIn24h(p.getCreatedAt(), p.getUpdatedAt(), from24h)) {
-                list.add(new NotificationDTO(
-                        p.getCreatedBy(),
-                        p.getCreatedAt(),
-                        p.getUpdatedBy(),
-                        p.getUpdatedAt(),
-                        buildMessage("Quyền", p.getCreatedAt(), p.getUpdatedAt(), p.getCreatedBy(), p.getUpdatedBy())));
+    private CompletableFuture<List<NotificationDTO>> fetch(String type, FeedQuery query, Instant from,
+            NotificationDTO after, int limit) {
+        String label = LABELS.get(type);
+        Instant beforeAt = after != null ? after.getActivityAt() : null;
+        long beforeId = after != null ? seekBound(type, after) : 0;
+        return CompletableFuture.supplyAsync(() -> {
+            List<NotificationDTO> rows = new ArrayList<>(query.find(from, beforeAt, beforeId, Limit.of(limit)));
+            for (NotificationDTO n : rows) {
+                n.setType(type);
+                n.setMessage(buildMessage(label, n.getCreatedAt(), n.getUpdatedAt(), n.getCreatedBy(),
+                        n.getUpdatedBy()));
             }
-        });
+            return rows;
+        }, this.feedExecutor);
     }
 
-    // ========================== 4. RESUME ==========================
-    private void addResume(List<NotificationDTO> list, LocalDateTime from24h) {
-        resumeRepository.findAll().forEach(r -> {
-            if (isIn24h(r.getCreatedAt(), r.getUpdatedAt(), from24h)) {
-                list.add(new NotificationDTO(
-                        r.getCreatedBy(),
-                        r.getCreatedAt(),
-                        r.getUpdatedBy(),
-                        r.getUpdatedAt(),
-                        buildMessage("Hồ sơ", r.getCreatedAt(), r.getUpdatedAt(), r.getCreatedBy(), r.getUpdatedBy())));
-            }
-        });
+    /**
+     * Cận trên (không tính) của id trong bảng type, với các dòng cùng thời điểm với cursor:
+     * cùng thời điểm thì FEED_ORDER xếp theo type tăng dần rồi id giảm dần
+     */
+    static long seekBound(String type, NotificationDTO after) {
+        int cmp = type.compareTo(after.getType());
+        if (cmp > 0) {
+            return Long.MAX_VALUE; // bảng đứng sau type của cursor: lấy hết các dòng cùng thời điểm
+        }
+        return cmp == 0 ? after.getSourceId() : Long.MIN_VALUE;
     }
 
-    // ========================== 5. ROLE ==========================
-    private void addRole(List<NotificationDTO> list, LocalDateTime from24h) {
-        roleRepository.findAll().forEach(r -> {
-            if (isIn24h(r.getCreatedAt(), r.getUpdatedAt(), from24h)) {
-                list.add(new NotificationDTO(
-                        r.getCreatedBy(),
-                        r.getCreatedAt(),
-                        r.getUpdatedBy(),
-                        r.getUpdatedAt(),
-                        buildMessage("Vai trò", r.getCreatedAt(), r.getUpdatedAt(), r.getCreatedBy(),
-                                r.getUpdatedBy())));
+    // trộn k danh sách đã sắp xếp, chỉ lấy limit phần tử đầu
+    private List<NotificationDTO> merge(List<List<NotificationDTO>> sources, int limit) {
+        PriorityQueue<Cursor> heads = new PriorityQueue<>((a, b) -> FEED_ORDER.compare(a.current(), b.current()));
+        for (List<NotificationDTO> source : sources) {
+            Cursor c = new Cursor(source);
+            if (c.hasCurrent()) {
+                heads.add(c);
             }
-        });
-    }
+        }
 
-    // ========================== 6. SUBSCRIBER ==========================
-    private void addSubscriber(List<NotificationDTO> list, LocalDateTime from24h) {
-        subscriberRepository.findAll().forEach(s -> {
-            if (isIn24h(s.getCreatedAt(), s.getUpdatedAt(), from24h)) {
-                list.add(new NotificationDTO(
-                        s.getCreatedBy(),
-                        s.getCreatedAt(),
-                        s.getUpdatedBy(),
-                        s.getUpdatedAt(),
-                        buildMessage("Người đăng ký", s.getCreatedAt(), s.getUpdatedAt(), s.getCreatedBy(),
-                                s.getUpdatedBy())));
+        List<NotificationDTO> result = new ArrayList<>(limit);
+        while (!heads.isEmpty() && result.size() < limit) {
+            Cursor c = heads.poll();
+            result.add(c.current());
+            c.index++;
+            if (c.hasCurrent()) {
+                heads.add(c);
             }
-        });
+        }
+        return result;
     }
 
-    // ========================== 7. COMPANY REGISTRATION ==========================
-    private void addCompanyRegistration(List<NotificationDTO> list, LocalDateTime from24h) {
-        companyRegistrationRepository.findAll().forEach(cr -> {
-            if (isIn24h(cr.getCreatedAt(), cr.getUpdatedAt(), from24h)) {
-                list.add(new NotificationDTO(
-                        cr.getCreatedBy(),
-                        cr.getCreatedAt(),
-                        cr.getUpdatedBy(),
-                        cr.getUpdatedAt(),
-                        buildMessage("Yêu cầu đăng ký công ty", cr.getCreatedAt(), cr.getUpdatedAt(), cr.getCreatedBy(),
-                                cr.getUpdatedBy())));
-            }
-        });
+    static String encodeCursor(NotificationDTO n) {
+        return n.getActivityAt() + "_" + n.getType() + "_" + n.getSourceId();
+    }
+
+    static NotificationDTO decodeCursor(String cursor) {
+        String[] parts = cursor.split("_", 2);
+        int last = parts.length == 2 ? parts[1].lastIndexOf('_') : -1;
+        if (last <= 0) {
+            throw new InvalidCursorException("Cursor không hợp lệ");
+        }
+        try {
+            NotificationDTO n = new NotificationDTO();
+            n.setCreatedAt(Instant.parse(parts[0]));
+            n.setType(parts[1].substring(0, last));
+            n.setSourceId(Long.parseLong(parts[1].substring(last + 1)));
+            return n;
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new InvalidCursorException("Cursor không hợp lệ");
+        }
+    }
+
+    private String buildMessage(String type, Instant createdAt, Instant updatedAt, String createdBy, String updatedBy) {
+        if (updatedAt != null && !updatedAt.equals(createdAt)) {
+            return "Đã cập nhật " + type + " bởi " + updatedBy;
+        }
+        return "Đã tạo mới " + type + " bởi " + createdBy;
+    }
+
+    @FunctionalInterface
+    private interface FeedQuery {
+        List<NotificationDTO> find(Instant from, Instant beforeAt, long beforeId, Limit limit);
+    }
+
+    private static final class Cursor {
+        final List<NotificationDTO> items;
+        int index;
+
+        Cursor(List<NotificationDTO> items) {
+            this.items = items;
+        }
+
+        boolean hasCurrent() {
+            return this.index < this.items.size();
+        }
+
+        NotificationDTO current() {
+            return this.items.get(this.index);
+        }
     }
 }
@@ -0,0 +1,258 @@
+package vn.nhom11.jobhunter.service;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import vn.nhom11.jobhunter.domain.ActivityEvent;
+
+/**
+ * Đẩy thông báo realtime qua Server-Sent Events.
+ * - kết nối giữ bằng async servlet (SseEmitter), không chiếm thread khi rảnh
+ * - mỗi sự kiện chỉ serialize 1 lần rồi đưa vào hàng đợi có giới hạn của từng client, đúng thứ tự id
+ * - vài luồng ghi dùng chung rút hàng đợi của từng client (mỗi client tối đa 1 luồng cùng lúc):
+ *   client chậm không làm chậm client khác; hàng đợi đầy hoặc 1 lần ghi quá send-timeout-ms thì ngắt client đó,
+ *   client kết nối lại với Last-Event-ID để nhận tiếp
+ * - heartbeat định kỳ để proxy không cắt kết nối
+ * - client kết nối lại với Last-Event-ID được phát lại các sự kiện còn trong nhật ký 24h
+ */
+@Service
+public class NotificationStreamHub {
+
+    private static final String EVENT_NAME = "notification";
+
+    private final ActivityJournalService activityJournalService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${nhom11.notification-stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${nhom11.notification-stream.reconnect-ms:3000}")
+    private long reconnectMs;
+
+    @Value("${nhom11.notification-stream.outbox-size:256}")
+    private int outboxSize;
+
+    @Value("${nhom11.notification-stream.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    @Value("${nhom11.notification-stream.writer-threads:4}")
+    private int writerThreads;
+
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+
+    private ExecutorService writers;
+
+    public NotificationStreamHub(ActivityJournalService activityJournalService, ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.activityJournalService = activityJournalService;
+        this.objectMapper = objectMapper;
+        Gauge.builder("notification.stream.clients", this.clients, Set::size).register(meterRegistry);
+        // append của nhật ký là tuần tự nên các client nhận sự kiện đúng thứ tự id
+        this.activityJournalService.subscribe(this::broadcast);
+    }
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger counter = new AtomicInteger();
+        this.writers = Executors.newFixedThreadPool(this.writerThreads, r -> {
+            Thread t = new Thread(r, "notification-stream-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        this.writers.shutdownNow();
+        for (Client client : this.clients) {
+            client.emitter.complete();
+        }
+        this.clients.clear();
+    }
+
+    /**
+     * Mở kết nối mới. lastEventId != null: phát lại các sự kiện sau id đó trước khi nhận sự kiện mới,
+     * ngược lại chỉ nhận sự kiện phát sinh từ lúc kết nối
+     */
+    public SseEmitter connect(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(this.timeoutMs);
+        Client client = new Client(emitter, this.outboxSize,
+                lastEventId != null ? lastEventId : this.activityJournalService.lastSequence());
+
+        emitter.onCompletion(() -> this.remove(client));
+        emitter.onTimeout(() -> this.remove(client));
+        emitter.onError(ex -> this.remove(client));
+
+        // nhận sự kiện mới vào hàng đợi ngay; phần phát lại từ nhật ký được gửi trước, trùng id thì bỏ qua
+        this.clients.add(client);
+        this.schedule(client);
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${nhom11.notification-stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        if (this.clients.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Frame ping = new Frame(0, SseEmitter.event().comment("ping").build());
+        for (Client client : this.clients) {
+            // 1 lần ghi bị treo quá lâu (client không đọc, TCP đầy)
+            long startedAt = client.sendStartedAt;
+            if (startedAt != 0 && now - startedAt > this.sendTimeoutMs) {
+                this.drop(client, "ghi quá " + this.sendTimeoutMs + "ms");
+                continue;
+            }
+            this.offer(client, ping);
+        }
+    }
+
+    public int getClientCount() {
+        return this.clients.size();
+    }
+
+    // ========================== UTIL ==========================
+
+    private void broadcast(ActivityEvent e) {
+        if (this.clients.isEmpty()) {
+            return;
+        }
+        Frame frame;
+        try {
+            frame = new Frame(e.getSequence(), this.frame(e));
+        } catch (JsonProcessingException ex) {
+            System.out.println(">>> Notification stream: không serialize được sự kiện " + e.getSequence());
+            return;
+        }
+        for (Client client : this.clients) {
+            this.offer(client, frame);
+        }
+    }
+
+    // không bao giờ chặn: hàng đợi đầy = client không theo kịp -> ngắt
+    private void offer(Client client, Frame frame) {
+        if (!client.outbox.offer(frame)) {
+            this.drop(client, "hàng đợi đầy");
+            return;
+        }
+        this.schedule(client);
+    }
+
+    private void schedule(Client client) {
+        if (client.scheduled.compareAndSet(false, true)) {
+            try {
+                this.writers.execute(() -> this.drain(client));
+            } catch (RejectedExecutionException ex) {
+                // đang tắt ứng dụng
+                client.scheduled.set(false);
+            }
+        }
+    }
+
+    // chạy trên 1 luồng ghi; scheduled đảm bảo mỗi client chỉ có 1 luồng rút hàng đợi
+    private void drain(Client client) {
+        try {
+            if (!client.started) {
+                client.started = true;
+                client.emitter.send(SseEmitter.event().reconnectTime(this.reconnectMs).comment("connected"));
+                // client đã có trong danh sách: sự kiện nào không có ở đây thì đã nằm trong hàng đợi
+                for (ActivityEvent e : this.activityJournalService.findAfter(client.lastSentId)) {
+                    this.send(client, e.getSequence(), this.frame(e));
+                }
+            }
+            Frame frame;
+            while (this.clients.contains(client) && (frame = client.outbox.poll()) != null) {
+                // đã nhận qua phát lại
+                if (frame.id != 0 && frame.id <= client.lastSentId) {
+                    continue;
+                }
+                this.send(client, frame.id, frame.data);
+            }
+        } catch (IOException | RuntimeException ex) {
+            // client đã ngắt kết nối
+            this.remove(client);
+            client.emitter.completeWithError(ex);
+        } finally {
+            client.scheduled.set(false);
+        }
+        // frame được thêm sau lần poll cuối nhưng trước khi nhả cờ
+        if (!client.outbox.isEmpty() && this.clients.contains(client)) {
+            this.schedule(client);
+        }
+    }
+
+    private void send(Client client, long id, Set<ResponseBodyEmitter.DataWithMediaType> data) throws IOException {
+        client.sendStartedAt = System.currentTimeMillis();
+        try {
+            client.emitter.send(data);
+        } finally {
+            client.sendStartedAt = 0;
+        }
+        if (id != 0) {
+            client.lastSentId = id;
+        }
+    }
+
+    private Set<ResponseBodyEmitter.DataWithMediaType> frame(ActivityEvent e) throws JsonProcessingException {
+        String json = this.objectMapper.writeValueAsString(NotificationService.toNotification(e));
+        return SseEmitter.event()
+                .id(String.valueOf(e.getSequence()))
+                .name(EVENT_NAME)
+                .data(json)
+                .build();
+    }
+
+    private void drop(Client client, String reason) {
+        if (this.clients.remove(client)) {
+            client.outbox.clear();
+            System.out.println(">>> Notification stream: ngắt client chậm (" + reason + ")");
+            client.emitter.completeWithError(new IOException("Client không theo kịp: " + reason));
+        }
+    }
+
+    private void remove(Client client) {
+        this.clients.remove(client);
+        client.outbox.clear();
+    }
+
+    private record Frame(long id, Set<ResponseBodyEmitter.DataWithMediaType> data) {
+    }
+
+    private static final class Client {
+        final SseEmitter emitter;
+        final BlockingQueue<Frame> outbox;
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        // chỉ đọc/ghi trên luồng đang giữ scheduled
+        boolean started;
+        long lastSentId;
+        // thời điểm bắt đầu lần ghi đang chạy, 0 khi rảnh
+        volatile long sendStartedAt;
+
+        Client(SseEmitter emitter, int outboxSize, long lastSentId) {
+            this.emitter = emitter;
+            this.outbox = new ArrayBlockingQueue<>(outboxSize);
+            this.lastSentId = lastSentId;
+        }
+    }
+}
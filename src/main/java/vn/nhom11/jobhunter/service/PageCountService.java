@@ -0,0 +1,239 @@
+package vn.nhom11.jobhunter.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Table;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.servlet.http.HttpServletRequest;
+import vn.nhom11.jobhunter.util.SecurityUtil;
+import vn.nhom11.jobhunter.util.TtlCache;
+import vn.nhom11.jobhunter.util.constant.CountModeEnum;
+
+/**
+ * Lấy 1 trang theo số trang và tính tổng số bản ghi theo chế độ client chọn (?count=...):
+ * - exact (mặc định): COUNT(*) với cùng điều kiện lọc như trước đây
+ * - cached: kết quả COUNT(*) được nhớ trong count-cache-ttl-ms, khóa theo API + bộ lọc đã chuẩn hóa + user
+ * - estimated: số dòng ước lượng từ thống kê bảng (information_schema) khi không có điều kiện lọc nào;
+ *   có điều kiện lọc thì dùng cached
+ * Trang chưa đầy thì tổng được suy ra luôn từ trang đó, không cần đếm (giống Spring Data).
+ * Meta.countMode cho biết chế độ thực sự đã trả lời.
+ */
+@Service
+public class PageCountService {
+
+    public static final String COUNT_PARAM = "count";
+
+    // tham số không làm thay đổi tập kết quả -> không đưa vào khóa cache
+    private static final Set<String> PAGING_PARAMS = Set.of("page", "size", "sort", COUNT_PARAM,
+            KeysetPaginationService.CURSOR_PARAM);
+
+    private final EntityManager entityManager;
+
+    // khóa -> tổng số bản ghi (hoặc số dòng ước lượng của bảng)
+    private TtlCache<String, Long> cache;
+
+    @Value("${nhom11.pagination.count-cache-ttl-ms:30000}")
+    private long ttlMs;
+
+    @Value("${nhom11.pagination.count-cache-max-size:10000}")
+    private int maxSize;
+
+    public PageCountService(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @PostConstruct
+    public void init() {
+        this.cache = new TtlCache<>(this.maxSize);
+    }
+
+    /**
+     * Thay cho repository.findAll(spec, pageable): cùng kết quả, tổng số bản ghi theo chế độ của request
+     */
+    @Transactional(readOnly = true)
+    public <T> CountedPage<T> findAll(Class<T> type, Specification<T> spec, Pageable pageable) {
+        return this.findAll(type, spec, pageable, (s, p) -> this.fetchContent(type, s, p));
+    }
+
+    /**
+     * Như trên nhưng nội dung trang do loader lấy (vd. truy vấn projection ra DTO); tổng vẫn đếm theo entity type
+     */
+    @Transactional(readOnly = true)
+    public <T, R> CountedPage<R> findAll(Class<T> type, Specification<T> spec, Pageable pageable,
+            ContentLoader<T, R> loader) {
+        List<R> content = loader.load(spec, pageable);
+
+        if (pageable.isUnpaged()) {
+            return new CountedPage<>(content, pageable, content.size(), CountModeEnum.EXACT);
+        }
+        long offset = pageable.getOffset();
+        if (content.size() < pageable.getPageSize() && (offset == 0 || !content.isEmpty())) {
+            return new CountedPage<>(content, pageable, offset + content.size(), CountModeEnum.EXACT);
+        }
+
+        CountModeEnum mode = this.requestedMode();
+        long seen = offset + content.size();
+        if (mode == CountModeEnum.ESTIMATED) {
+            if (!this.hasRestriction(type, spec)) {
+                Long estimate = this.estimate(type);
+                if (estimate != null) {
+                    return new CountedPage<>(content, pageable, Math.max(estimate, seen), CountModeEnum.ESTIMATED);
+                }
+                return new CountedPage<>(content, pageable, this.count(type, spec), CountModeEnum.EXACT);
+            }
+            mode = CountModeEnum.CACHED;
+        }
+        if (mode == CountModeEnum.CACHED) {
+            String key = this.cacheKey(type);
+            if (key != null) {
+                long total = this.cache.get(key, this.ttlMs, () -> this.count(type, spec));
+                return new CountedPage<>(content, pageable, Math.max(total, seen), CountModeEnum.CACHED);
+            }
+        }
+        return new CountedPage<>(content, pageable, this.count(type, spec), CountModeEnum.EXACT);
+    }
+
+    // ========================== UTIL ==========================
+
+    private <T> List<T> fetchContent(Class<T> type, Specification<T> spec, Pageable pageable) {
+        CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> root = query.from(type);
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root);
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+
+        TypedQuery<T> typedQuery = this.entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        return typedQuery.getResultList();
+    }
+
+    private <T> long count(Class<T> type, Specification<T> spec) {
+        CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(type);
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(query.isDistinct() ? cb.countDistinct(root) : cb.count(root));
+        return this.entityManager.createQuery(query).getSingleResult();
+    }
+
+    // spec có sinh ra điều kiện WHERE nào không (@Filter rỗng / không có filter -> null)
+    private <T> boolean hasRestriction(Class<T> type, Specification<T> spec) {
+        if (spec == null) {
+            return false;
+        }
+        CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        return spec.toPredicate(query.from(type), query, cb) != null;
+    }
+
+    // TABLE_ROWS của InnoDB là số ước lượng (có thể lệch vài chục %), đọc từ thống kê, không quét bảng
+    private Long estimate(Class<?> type) {
+        Table table = type.getAnnotation(Table.class);
+        if (table == null || table.name().isEmpty()) {
+            return null;
+        }
+        long rows = this.cache.get("estimate:" + table.name(), this.ttlMs, () -> {
+            List<?> result = this.entityManager.createNativeQuery("SELECT TABLE_ROWS FROM information_schema.TABLES "
+                    + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = :table")
+                    .setParameter("table", table.name())
+                    .getResultList();
+            // -1: không có thống kê (bảng chưa tồn tại / không phải MySQL)
+            if (result.isEmpty() || result.get(0) == null) {
+                return -1L;
+            }
+            return ((Number) result.get(0)).longValue();
+        });
+        return rows >= 0 ? rows : null;
+    }
+
+    private CountModeEnum requestedMode() {
+        HttpServletRequest request = currentRequest();
+        String value = request == null ? null : request.getParameter(COUNT_PARAM);
+        if (value == null || value.isBlank()) {
+            return CountModeEnum.EXACT;
+        }
+        try {
+            return CountModeEnum.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return CountModeEnum.EXACT;
+        }
+    }
+
+    // entity + đường dẫn (chứa path variable) + tham số lọc đã chuẩn hóa + user (điều kiện theo quyền trong service)
+    private String cacheKey(Class<?> type) {
+        HttpServletRequest request = currentRequest();
+        if (request == null) {
+            return null;
+        }
+        Map<String, String> params = new TreeMap<>();
+        request.getParameterMap().forEach((name, values) -> {
+            if (!PAGING_PARAMS.contains(name)) {
+                params.put(name, String.join(",", values).trim().replaceAll("\\s+", " "));
+            }
+        });
+        return type.getName() + "|" + request.getRequestURI() + "|" + params + "|"
+                + SecurityUtil.getCurrentUserLogin().orElse("");
+    }
+
+    private static HttpServletRequest currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servlet) {
+            return servlet.getRequest();
+        }
+        return null;
+    }
+
+    @FunctionalInterface
+    public interface ContentLoader<T, R> {
+        List<R> load(Specification<T> spec, Pageable pageable);
+    }
+
+    /**
+     * Page kèm chế độ đã dùng để tính tổng (đưa vào Meta.countMode)
+     */
+    public static class CountedPage<T> extends PageImpl<T> {
+
+        private final CountModeEnum countMode;
+
+        public CountedPage(List<T> content, Pageable pageable, long total, CountModeEnum countMode) {
+            super(content, pageable, total);
+            this.countMode = countMode;
+        }
+
+        public CountModeEnum getCountMode() {
+            return this.countMode;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package vn.nhom11.jobhunter.service;
+
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import vn.nhom11.jobhunter.domain.Permission;
+import vn.nhom11.jobhunter.domain.Role;
+import vn.nhom11.jobhunter.repository.PermissionRepository;
+import vn.nhom11.jobhunter.repository.RoleRepository;
+import vn.nhom11.jobhunter.util.RouteTrie;
+
+/**
+ * Ma trận phân quyền được biên dịch sẵn trong bộ nhớ.
+ * Mỗi role được biên dịch thành một BitSet theo id của permission,
+ * các route (method + apiPath) được đưa vào một RouteTrie, mỗi route trỏ tới BitSet các permission của route đó.
+ * Kiểm tra quyền chỉ là phép giao 2 BitSet, không cần truy vấn DB.
+ * Danh sách role có toàn quyền (admin) cũng được tính sẵn mỗi khi ma trận thay đổi.
+ *
+ * BitSet của role được nhúng vào access token (claim "perm") kèm version của ma trận (claim "perm_ver").
+ * Version là hash nội dung (danh mục permission + permission của từng role) nên giống nhau giữa các
+ * instance và sau khi khởi động lại, token chỉ bị bỏ qua khi ma trận thực sự thay đổi.
+ */
+@Service
+public class PermissionMatrixService {
+
+    private final RoleRepository roleRepository;
+    private final PermissionRepository permissionRepository;
+
+    private final AtomicLong revision = new AtomicLong();
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public PermissionMatrixService(RoleRepository roleRepository, PermissionRepository permissionRepository) {
+        this.roleRepository = roleRepository;
+        this.permissionRepository = permissionRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void reload() {
+        Map<Long, String> permissionRoutes = new HashMap<>();
+        Map<Long, BitSet> roles = new HashMap<>();
+
+        // toàn bộ danh mục permission, kể cả permission chưa gán cho role nào
+        for (Permission p : this.permissionRepository.findAll()) {
+            permissionRoutes.put(p.getId(), routeKey(p.getMethod(), p.getApiPath()));
+        }
+
+        for (Role role : this.roleRepository.findAll()) {
+            roles.put(role.getId(), compile(role.getPermissions(), permissionRoutes));
+        }
+
+        publish(new Snapshot(permissionRoutes, buildRoutes(permissionRoutes), roles));
+        System.out.println(">>> PERMISSION MATRIX LOADED, roles = " + roles.size()
+                + ", permissions = " + permissionRoutes.size()
+                + ", full roles = " + this.snapshot.fullRoles.size());
+    }
+
+    /**
+     * Kiểm tra role có quyền gọi route (apiPath là pattern của handler, vd: /api/v1/jobs/{id}).
+     * Tên biến trong pattern không cần trùng với apiPath đã lưu trong bảng permissions.
+     */
+    public boolean isAllowed(long roleId, String apiPath, String method) {
+        if (apiPath == null) {
+            return false;
+        }
+        Snapshot current = this.snapshot;
+        BitSet roleBits = current.roles.get(roleId);
+        BitSet routeBits = current.routes.matchPattern(apiPath, method);
+        return roleBits != null && routeBits != null && roleBits.intersects(routeBits);
+    }
+
+    /**
+     * Kiểm tra quyền chỉ dựa vào BitSet đã nhúng trong token (claim "perm")
+     */
+    public boolean isAllowed(String encodedPermissions, String apiPath, String method) {
+        if (apiPath == null || encodedPermissions == null) {
+            return false;
+        }
+        BitSet routeBits = this.snapshot.routes.matchPattern(apiPath, method);
+        return routeBits != null && decode(encodedPermissions).intersects(routeBits);
+    }
+
+    /**
+     * BitSet permission của role, mã hóa base64url để đặt vào token. null nếu role không tồn tại
+     */
+    public String encodePermissions(long roleId) {
+        BitSet roleBits = this.snapshot.roles.get(roleId);
+        if (roleBits == null) {
+            return null;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(roleBits.toByteArray());
+    }
+
+    /**
+     * Version hiện tại của ma trận, token mang version khác thì phải kiểm tra lại qua DB/cache
+     */
+    public long version() {
+        return this.snapshot.version;
+    }
+
+    /**
+     * Role có đủ tất cả permission trong hệ thống hay không (thay cho việc đếm và so sánh bằng query)
+     */
+    public boolean isFullPermission(long roleId) {
+        return this.snapshot.fullRoles.contains(roleId);
+    }
+
+    /**
+     * Số permission của role, lấy từ ma trận
+     */
+    public int countPermissions(long roleId) {
+        BitSet roleBits = this.snapshot.roles.get(roleId);
+        return roleBits != null ? roleBits.cardinality() : 0;
+    }
+
+    // ========================== CẬP NHẬT TĂNG DẦN ==========================
+
+    /**
+     * Biên dịch lại một role sau khi create/update
+     */
+    public synchronized void onRoleSaved(Role role) {
+        Snapshot current = this.snapshot;
+        Map<Long, String> permissionRoutes = new HashMap<>(current.permissionRoutes);
+        Map<Long, BitSet> roles = new HashMap<>(current.roles);
+
+        roles.put(role.getId(), compile(role.getPermissions(), permissionRoutes));
+        publish(new Snapshot(permissionRoutes, buildRoutes(permissionRoutes), roles));
+    }
+
+    public synchronized void onRoleDeleted(long roleId) {
+        Snapshot current = this.snapshot;
+        Map<Long, BitSet> roles = new HashMap<>(current.roles);
+        roles.remove(roleId);
+        publish(new Snapshot(current.permissionRoutes, current.routes, roles));
+    }
+
+    /**
+     * Permission được tạo mới hoặc đổi apiPath/method: chỉ cần cập nhật bảng route,
+     * BitSet của các role giữ nguyên vì được đánh chỉ mục theo id permission.
+     * Tạo mới làm danh mục lớn hơn nên các role toàn quyền sẽ được tính lại.
+     */
+    public synchronized void onPermissionSaved(Permission permission) {
+        Snapshot current = this.snapshot;
+        Map<Long, String> permissionRoutes = new HashMap<>(current.permissionRoutes);
+        permissionRoutes.put(permission.getId(), routeKey(permission.getMethod(), permission.getApiPath()));
+        publish(new Snapshot(permissionRoutes, buildRoutes(permissionRoutes), current.roles));
+    }
+
+    public synchronized void onPermissionDeleted(long permissionId) {
+        Snapshot current = this.snapshot;
+        Map<Long, String> permissionRoutes = new HashMap<>(current.permissionRoutes);
+        permissionRoutes.remove(permissionId);
+
+        Map<Long, BitSet> roles = new HashMap<>();
+        current.roles.forEach((roleId, bits) -> {
+            if (bits.get((int) permissionId)) {
+                BitSet copy = (BitSet) bits.clone();
+                copy.clear((int) permissionId);
+                roles.put(roleId, copy);
+            } else {
+                roles.put(roleId, bits);
+            }
+        });
+        publish(new Snapshot(permissionRoutes, buildRoutes(permissionRoutes), roles));
+    }
+
+    /**
+     * Tăng mỗi khi ma trận thay đổi, dùng để biết các cache phụ thuộc role đã cũ
+     */
+    public long revision() {
+        return this.revision.get();
+    }
+
+    // ========================== UTIL ==========================
+    private void publish(Snapshot next) {
+        this.snapshot = next;
+        this.revision.incrementAndGet();
+    }
+
+    private BitSet compile(Collection<Permission> permissions, Map<Long, String> permissionRoutes) {
+        BitSet bits = new BitSet();
+        if (permissions != null) {
+            for (Permission p : permissions) {
+                bits.set((int) p.getId());
+                permissionRoutes.put(p.getId(), routeKey(p.getMethod(), p.getApiPath()));
+            }
+        }
+        return bits;
+    }
+
+    private RouteTrie<BitSet> buildRoutes(Map<Long, String> permissionRoutes) {
+        RouteTrie<BitSet> routes = new RouteTrie<>((a, b) -> {
+            BitSet merged = (BitSet) a.clone();
+            merged.or(b);
+            return merged;
+        });
+        permissionRoutes.forEach((id, key) -> {
+            int space = key.indexOf(' ');
+            BitSet bits = new BitSet();
+            bits.set(id.intValue());
+            routes.put(key.substring(space + 1), key.substring(0, space), bits);
+        });
+        return routes;
+    }
+
+    private static BitSet decode(String encodedPermissions) {
+        try {
+            return BitSet.valueOf(Base64.getUrlDecoder().decode(encodedPermissions));
+        } catch (IllegalArgumentException e) {
+            return new BitSet();
+        }
+    }
+
+    private static String routeKey(String method, String apiPath) {
+        return method + " " + apiPath;
+    }
+
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(Map.of(), new RouteTrie<>((a, b) -> a), Map.of());
+
+        final Map<Long, String> permissionRoutes;
+        final RouteTrie<BitSet> routes;
+        final Map<Long, BitSet> roles;
+        final Set<Long> fullRoles;
+        final long version;
+
+        Snapshot(Map<Long, String> permissionRoutes, RouteTrie<BitSet> routes, Map<Long, BitSet> roles) {
+            this.permissionRoutes = Collections.unmodifiableMap(permissionRoutes);
+            this.routes = routes;
+            this.roles = Collections.unmodifiableMap(roles);
+            this.fullRoles = Collections.unmodifiableSet(computeFullRoles(permissionRoutes, roles));
+            this.version = computeVersion(permissionRoutes, roles);
+        }
+
+        // hash FNV-1a 64 bit trên nội dung đã sắp xếp, không phụ thuộc thứ tự nạp hay thời điểm khởi động
+        private static long computeVersion(Map<Long, String> permissionRoutes, Map<Long, BitSet> roles) {
+            long hash = 0xcbf29ce484222325L;
+            for (Map.Entry<Long, String> e : new TreeMap<>(permissionRoutes).entrySet()) {
+                hash = mix(hash, e.getKey());
+                hash = mix(hash, e.getValue().hashCode());
+            }
+            for (Map.Entry<Long, BitSet> e : new TreeMap<>(roles).entrySet()) {
+                long[] words = e.getValue().toLongArray();
+                hash = mix(hash, e.getKey());
+                hash = mix(hash, words.length);
+                for (long word : words) {
+                    hash = mix(hash, word);
+                }
+            }
+            return hash;
+        }
+
+        private static long mix(long hash, long value) {
+            for (int i = 0; i < 8; i++) {
+                hash ^= (value >>> (i * 8)) & 0xff;
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+
+        // role toàn quyền = BitSet của role phủ hết danh mục permission
+        private static Set<Long> computeFullRoles(Map<Long, String> permissionRoutes, Map<Long, BitSet> roles) {
+            BitSet catalogue = new BitSet();
+            permissionRoutes.keySet().forEach(id -> catalogue.set(id.intValue()));
+
+            Set<Long> fullRoles = new HashSet<>();
+            roles.forEach((roleId, bits) -> {
+                BitSet missing = (BitSet) catalogue.clone();
+                missing.andNot(bits);
+                if (missing.isEmpty()) {
+                    fullRoles.add(roleId);
+                }
+            });
+            return fullRoles;
+        }
+    }
+}
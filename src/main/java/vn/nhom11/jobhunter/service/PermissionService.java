@@ -10,14 +10,24 @@ import org.springframework.stereotype.Service;
 import vn.nhom11.jobhunter.domain.Permission;
 import vn.nhom11.jobhunter.domain.response.ResultPaginationDTO;
 import vn.nhom11.jobhunter.repository.PermissionRepository;
+import vn.nhom11.jobhunter.util.constant.CountModeEnum;
 
 @Service
 public class PermissionService {
 
     private final PermissionRepository permissionRepository;
-
-    public PermissionService(PermissionRepository permissionRepository) {
+    private final PermissionMatrixService permissionMatrixService;
+    private final KeysetPaginationService keysetPaginationService;
+    private final PageCountService pageCountService;
+
+    public PermissionService(PermissionRepository permissionRepository,
+            PermissionMatrixService permissionMatrixService,
+            KeysetPaginationService keysetPaginationService,
+            PageCountService pageCountService) {
         this.permissionRepository = permissionRepository;
+        this.permissionMatrixService = permissionMatrixService;
+        this.keysetPaginationService = keysetPaginationService;
+        this.pageCountService = pageCountService;
     }
 
     public boolean isPermissionExist(Permission p) {
@@ -33,7 +43,9 @@ public class PermissionService {
     }
 
     public Permission create(Permission p) {
-        return this.permissionRepository.save(p);
+        Permission savedPermission = this.permissionRepository.save(p);
+        this.permissionMatrixService.onPermissionSaved(savedPermission);
+        return savedPermission;
     }
 
     public Permission update(Permission p) {
@@ -43,7 +55,9 @@ public class PermissionService {
             permissionDB.setApiPath(p.getApiPath());
             permissionDB.setMethod(p.getMethod());
             permissionDB.setModule(p.getModule());
-            return this.permissionRepository.save(permissionDB);
+            permissionDB = this.permissionRepository.save(permissionDB);
+            this.permissionMatrixService.onPermissionSaved(permissionDB);
+            return permissionDB;
         }
         return null;
     }
@@ -53,10 +67,15 @@ public class PermissionService {
         Permission currentPermission = permissionOptional.get();
         currentPermission.getRoles().forEach(role -> role.getPermissions().remove(currentPermission));
         this.permissionRepository.delete(currentPermission);
+        this.permissionMatrixService.onPermissionDeleted(id);
     }
 
     public ResultPaginationDTO getPermissions(Specification<Permission> spec, Pageable pageable) {
-        Page<Permission> pPermissions = this.permissionRepository.findAll(spec, pageable);
+        if (this.keysetPaginationService.isCursorRequest()) {
+            return this.keysetPaginationService.fetch(this.permissionRepository, Permission.class, spec, pageable);
+        }
+        PageCountService.CountedPage<Permission> pPermissions =
+                this.pageCountService.findAll(Permission.class, spec, pageable);
         ResultPaginationDTO rs = new ResultPaginationDTO();
         ResultPaginationDTO.Meta mt = new ResultPaginationDTO.Meta();
 
@@ -64,6 +83,7 @@ public class PermissionService {
         mt.setPageSize(pageable.getPageSize());
         mt.setPages(pPermissions.getTotalPages());
         mt.setTotal(pPermissions.getTotalElements());
+        mt.setCountMode(pPermissions.getCountMode());
 
         rs.setMeta(mt);
         rs.setResult(pPermissions.getContent());
@@ -83,6 +103,11 @@ public class PermissionService {
 
     // ✅ THÊM PHƯƠNG THỨC NÀY
     public ResultPaginationDTO getPermissionsByRoleId(long roleId, Pageable pageable) {
+        if (this.keysetPaginationService.isCursorRequest()) {
+            Specification<Permission> spec = (root, query, cb) -> cb.equal(root.join("roles").get("id"), roleId);
+            return this.keysetPaginationService.fetch(this.permissionRepository, Permission.class, spec, pageable);
+        }
+
         List<Permission> permissions = this.permissionRepository.findByRoles_Id(roleId);
 
         // Tạo trang dữ liệu (Page) thủ công
@@ -99,6 +124,7 @@ public class PermissionService {
         meta.setPageSize(pageable.getPageSize());
         meta.setPages(page.getTotalPages());
         meta.setTotal(page.getTotalElements());
+        meta.setCountMode(CountModeEnum.EXACT);
 
         result.setMeta(meta);
         result.setResult(page.getContent());
@@ -0,0 +1,216 @@
+package vn.nhom11.jobhunter.service;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import jakarta.annotation.PostConstruct;
+
+import vn.nhom11.jobhunter.domain.AuthVersionChange;
+import vn.nhom11.jobhunter.domain.User;
+import vn.nhom11.jobhunter.domain.UserPrincipal;
+import vn.nhom11.jobhunter.repository.AuthVersionChangeRepository;
+import vn.nhom11.jobhunter.repository.UserRepository;
+import vn.nhom11.jobhunter.util.SecurityUtil;
+import vn.nhom11.jobhunter.util.TtlCache;
+
+/**
+ * Cung cấp UserPrincipal của user hiện tại.
+ * - Trong 1 request: lưu ở request attribute, interceptor và controller dùng chung.
+ * - Giữa các request: cache có TTL và giới hạn kích thước, key là subject của JWT (email).
+ * Cache bị xóa khi user/công ty thay đổi, và tự hết hiệu lực khi ma trận phân quyền đổi revision.
+ *
+ * Khi user bị thay đổi, authVersion trong DB được tăng và ghi vào bảng auth_version_changes: quyền nhúng
+ * trong access token mang version cũ không còn được tin. Mỗi node giữ authVersion tối thiểu của các user
+ * vừa bị đổi trong bộ nhớ (node xử lý thay đổi: ngay lập tức, node khác: sau 1 chu kỳ đồng bộ của
+ * RevokedTokenService), nên kiểm tra token ở mỗi request không cần truy vấn DB.
+ */
+@Service
+public class PrincipalService {
+
+    private static final String REQUEST_ATTRIBUTE = PrincipalService.class.getName() + ".CURRENT";
+
+    private final UserRepository userRepository;
+    private final RoleService roleService;
+    private final PermissionMatrixService permissionMatrixService;
+    private final AuthVersionChangeRepository authVersionChangeRepository;
+
+    private TtlCache<String, CacheEntry> cache;
+
+    // email -> authVersion tối thiểu của access token, chỉ các user bị đổi trong thời hạn access token
+    private final Map<String, AuthChange> authChanges = new ConcurrentHashMap<>();
+
+    @Value("${nhom11.jwt.access-token-validity-in-seconds}")
+    private long accessTokenValidity;
+
+    @Value("${nhom11.principal-cache.ttl-in-seconds:60}")
+    private long ttlInSeconds;
+
+    @Value("${nhom11.principal-cache.max-size:10000}")
+    private int maxSize;
+
+    public PrincipalService(UserRepository userRepository,
+            RoleService roleService,
+            PermissionMatrixService permissionMatrixService,
+            AuthVersionChangeRepository authVersionChangeRepository) {
+        this.userRepository = userRepository;
+        this.roleService = roleService;
+        this.permissionMatrixService = permissionMatrixService;
+        this.authVersionChangeRepository = authVersionChangeRepository;
+    }
+
+    @PostConstruct
+    public void init() {
+        this.cache = new TtlCache<>(this.maxSize);
+    }
+
+    /**
+     * Lấy principal của user đang đăng nhập, null nếu chưa đăng nhập hoặc user không tồn tại
+     */
+    public UserPrincipal getCurrentPrincipal() {
+        String email = SecurityUtil.getCurrentUserLogin().orElse("");
+        if (email.isEmpty()) {
+            return null;
+        }
+
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            Object current = attributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (current instanceof UserPrincipal principal && principal.getEmail().equals(email)) {
+                return principal;
+            }
+        }
+
+        UserPrincipal principal = this.getPrincipal(email);
+        if (attributes != null && principal != null) {
+            attributes.setAttribute(REQUEST_ATTRIBUTE, principal, RequestAttributes.SCOPE_REQUEST);
+        }
+        return principal;
+    }
+
+    public UserPrincipal getPrincipal(String email) {
+        long revision = this.permissionMatrixService.revision();
+
+        CacheEntry entry = this.cache.get(email);
+        if (entry != null && entry.revision == revision) {
+            return entry.principal;
+        }
+
+        User user = this.userRepository.findByEmail(email);
+        if (user == null) {
+            this.cache.remove(email);
+            return null;
+        }
+
+        UserPrincipal principal = this.toPrincipal(user);
+        this.cache.put(email, new CacheEntry(principal, revision),
+                System.currentTimeMillis() + this.ttlInSeconds * 1000);
+        return principal;
+    }
+
+    @Transactional
+    public void invalidate(String email) {
+        if (email != null) {
+            this.cache.remove(email);
+            this.userRepository.incrementAuthVersion(email);
+            Long version = this.userRepository.findAuthVersionByEmail(email);
+            this.recordAuthChange(email, version != null ? version : Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * User sắp bị xóa: không tin quyền nhúng trong mọi access token đã cấp cho email này
+     */
+    @Transactional
+    public void invalidateDeleted(String email) {
+        if (email != null) {
+            this.cache.remove(email);
+            this.recordAuthChange(email, Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Quyền nhúng trong token có còn dùng được không: authVersion trong token không được nhỏ hơn version
+     * mới nhất node này biết. Chỉ tra bộ nhớ, không truy vấn DB
+     */
+    public boolean isTokenCurrent(String email, Long authVersion) {
+        if (email == null || authVersion == null) {
+            return false;
+        }
+        AuthChange change = this.authChanges.get(email);
+        return change == null || change.expiresAt <= System.currentTimeMillis()
+                || authVersion >= change.authVersion;
+    }
+
+    /**
+     * Nạp các thay đổi authVersion từ mốc since (do node khác ghi), gọi cùng chu kỳ đồng bộ token thu hồi
+     */
+    public void syncAuthChanges(Instant since, Instant now) {
+        for (AuthVersionChange c : this.authVersionChangeRepository
+                .findByCreatedAtGreaterThanEqualAndExpiresAtAfter(since, now)) {
+            this.applyAuthChange(c.getEmail(), c.getAuthVersion(), c.getExpiresAt().toEpochMilli());
+        }
+        long nowMillis = now.toEpochMilli();
+        this.authChanges.values().removeIf(c -> c.expiresAt <= nowMillis);
+    }
+
+    @Transactional
+    public int purgeExpiredAuthChanges(Instant now) {
+        return this.authVersionChangeRepository.deleteExpired(now);
+    }
+
+    public void invalidateAll() {
+        this.cache.clear();
+    }
+
+    // ========================== UTIL ==========================
+
+    // token cấp trước thời điểm đổi hết hạn chậm nhất sau accessTokenValidity
+    private void recordAuthChange(String email, long authVersion) {
+        Instant now = Instant.now();
+        AuthVersionChange change = new AuthVersionChange();
+        change.setEmail(email);
+        change.setAuthVersion(authVersion);
+        change.setCreatedAt(now);
+        change.setExpiresAt(now.plusSeconds(this.accessTokenValidity));
+        this.authVersionChangeRepository.save(change);
+        this.applyAuthChange(email, authVersion, change.getExpiresAt().toEpochMilli());
+    }
+
+    private void applyAuthChange(String email, long authVersion, long expiresAt) {
+        AuthChange known = this.authChanges.get(email);
+        if (known != null && known.authVersion >= authVersion) {
+            return; // đã biết (dòng được đọc lại do đồng bộ chồng khoảng)
+        }
+        this.authChanges.merge(email, new AuthChange(authVersion, expiresAt),
+                (a, b) -> a.authVersion >= b.authVersion ? a : b);
+        // user bị đổi (có thể trên node khác): principal trong cache của node này cũng đã cũ
+        this.cache.remove(email);
+    }
+
+    private UserPrincipal toPrincipal(User user) {
+        long roleId = user.getRole() != null ? user.getRole().getId() : 0;
+        Long companyId = user.getCompany() != null ? user.getCompany().getId() : null;
+        boolean fullAdmin = roleId > 0 && this.roleService.permissionVsRole(roleId);
+        return new UserPrincipal(user.getId(), user.getEmail(), roleId, companyId, fullAdmin);
+    }
+
+    private static final class CacheEntry {
+        final UserPrincipal principal;
+        final long revision;
+
+        CacheEntry(UserPrincipal principal, long revision) {
+            this.principal = principal;
+            this.revision = revision;
+        }
+    }
+
+    private record AuthChange(long authVersion, long expiresAt) {
+    }
+}
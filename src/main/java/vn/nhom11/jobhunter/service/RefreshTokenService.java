@@ -0,0 +1,165 @@
+package vn.nhom11.jobhunter.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.servlet.http.HttpServletRequest;
+import vn.nhom11.jobhunter.domain.RefreshToken;
+import vn.nhom11.jobhunter.domain.response.ResSessionDTO;
+import vn.nhom11.jobhunter.repository.RefreshTokenRepository;
+import vn.nhom11.jobhunter.util.error.IdInvalidException;
+
+/**
+ * Lưu refresh token theo SHA-256 (bảng refresh_tokens), mỗi lần đăng nhập / thiết bị là 1 phiên.
+ * Refresh: token cũ bị xóa, token mới được lưu (dùng lại token cũ sẽ bị từ chối).
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final int SESSION_ID_LENGTH = 16;
+    private static final int USER_AGENT_LENGTH = 255;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository) {
+        this.refreshTokenRepository = refreshTokenRepository;
+    }
+
+    /**
+     * Lưu refresh token mới cấp cho user
+     */
+    public void store(long userId, String email, String token, Instant expiresAt, HttpServletRequest request) {
+        Instant now = Instant.now();
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(hash(token));
+        refreshToken.setUserId(userId);
+        refreshToken.setEmail(email);
+        refreshToken.setCreatedAt(now);
+        refreshToken.setLastUsedAt(now);
+        refreshToken.setExpiresAt(expiresAt);
+        if (request != null) {
+            String userAgent = request.getHeader(HttpHeaders.USER_AGENT);
+            if (userAgent != null && userAgent.length() > USER_AGENT_LENGTH) {
+                userAgent = userAgent.substring(0, USER_AGENT_LENGTH);
+            }
+            refreshToken.setUserAgent(userAgent);
+            refreshToken.setIpAddress(request.getRemoteAddr());
+        }
+        this.refreshTokenRepository.save(refreshToken);
+    }
+
+    /**
+     * Phiên của refresh token (tra theo khóa chính), null nếu token không còn / đã hết hạn
+     */
+    public RefreshToken findValid(String token) {
+        RefreshToken refreshToken = this.refreshTokenRepository.findById(hash(token)).orElse(null);
+        if (refreshToken == null || refreshToken.getExpiresAt().isBefore(Instant.now())) {
+            return null;
+        }
+        return refreshToken;
+    }
+
+    /**
+     * Đổi token cũ lấy token mới trong cùng phiên (giữ thông tin thiết bị, thời điểm đăng nhập)
+     */
+    @Transactional(rollbackFor = IdInvalidException.class)
+    public void rotate(RefreshToken current, String newToken, Instant expiresAt) throws IdInvalidException {
+        // 2 request refresh cùng lúc với 1 token: chỉ request xóa được token cũ đi tiếp
+        if (this.refreshTokenRepository.deleteByHash(current.getTokenHash()) == 0) {
+            throw new IdInvalidException("Refresh Token không hợp lệ");
+        }
+        RefreshToken next = new RefreshToken();
+        next.setTokenHash(hash(newToken));
+        next.setUserId(current.getUserId());
+        next.setEmail(current.getEmail());
+        next.setUserAgent(current.getUserAgent());
+        next.setIpAddress(current.getIpAddress());
+        next.setCreatedAt(current.getCreatedAt());
+        next.setLastUsedAt(Instant.now());
+        next.setExpiresAt(expiresAt);
+        this.refreshTokenRepository.save(next);
+    }
+
+    /**
+     * Thu hồi 1 refresh token (logout trên thiết bị hiện tại)
+     */
+    @Transactional
+    public void revoke(String token) {
+        if (token != null && !token.isEmpty()) {
+            this.refreshTokenRepository.deleteByHash(hash(token));
+        }
+    }
+
+    /**
+     * Thu hồi mọi phiên của user (đổi mật khẩu)
+     */
+    @Transactional
+    public void revokeAll(long userId) {
+        this.refreshTokenRepository.deleteAllByUserId(userId);
+    }
+
+    /**
+     * Đăng xuất 1 phiên của chính user theo id (16 ký tự đầu hash), false nếu không tìm thấy
+     */
+    @Transactional
+    public boolean revokeSession(long userId, String sessionId) {
+        for (RefreshToken t : this.refreshTokenRepository.findByUserIdOrderByLastUsedAtDesc(userId)) {
+            if (t.getTokenHash().substring(0, SESSION_ID_LENGTH).equals(sessionId)) {
+                this.refreshTokenRepository.deleteByHash(t.getTokenHash());
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Danh sách phiên đăng nhập của user, currentToken = refresh token trong cookie của request (có thể null)
+     */
+    public List<ResSessionDTO> fetchSessions(long userId, String currentToken) {
+        Instant now = Instant.now();
+        String currentHash = currentToken != null ? hash(currentToken) : null;
+        return this.refreshTokenRepository.findByUserIdOrderByLastUsedAtDesc(userId).stream()
+                .filter(t -> t.getExpiresAt().isAfter(now))
+                .map(t -> {
+                    ResSessionDTO res = new ResSessionDTO();
+                    res.setId(t.getTokenHash().substring(0, SESSION_ID_LENGTH));
+                    res.setUserAgent(t.getUserAgent());
+                    res.setIpAddress(t.getIpAddress());
+                    res.setCreatedAt(t.getCreatedAt());
+                    res.setLastUsedAt(t.getLastUsedAt());
+                    res.setExpiresAt(t.getExpiresAt());
+                    res.setCurrent(t.getTokenHash().equals(currentHash));
+                    return res;
+                })
+                .toList();
+    }
+
+    @Scheduled(fixedDelayString = "${nhom11.refresh-token.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = this.refreshTokenRepository.deleteExpired(Instant.now());
+        if (deleted > 0) {
+            System.out.println(">>> Đã xóa " + deleted + " refresh token hết hạn");
+        }
+    }
+
+    // ========================== UTIL ==========================
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
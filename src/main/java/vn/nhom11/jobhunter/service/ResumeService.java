@@ -5,7 +5,6 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
@@ -43,14 +42,20 @@ public class ResumeService {
     private final ResumeRepository resumeRepository;
     private final UserRepository userRepository;
     private final JobRepository jobRepository;
+    private final KeysetPaginationService keysetPaginationService;
+    private final PageCountService pageCountService;
 
     public ResumeService(
             ResumeRepository resumeRepository,
             UserRepository userRepository,
-            JobRepository jobRepository) {
+            JobRepository jobRepository,
+            KeysetPaginationService keysetPaginationService,
+            PageCountService pageCountService) {
         this.resumeRepository = resumeRepository;
         this.userRepository = userRepository;
         this.jobRepository = jobRepository;
+        this.keysetPaginationService = keysetPaginationService;
+        this.pageCountService = pageCountService;
     }
 
     public Optional<Resume> fetchById(long id) {
@@ -151,13 +156,18 @@ public class ResumeService {
     }
 
     public ResultPaginationDTO fetchAllResume(Specification<Resume> spec, Pageable pageable) {
-        Page<Resume> page = this.resumeRepository.findAll(spec, pageable);
+        if (this.keysetPaginationService.isCursorRequest()) {
+            return this.keysetPaginationService.fetch(this.resumeRepository, Resume.class, spec, pageable,
+                    this::getResume);
+        }
+        PageCountService.CountedPage<Resume> page = this.pageCountService.findAll(Resume.class, spec, pageable);
 
         ResultPaginationDTO.Meta meta = new ResultPaginationDTO.Meta();
         meta.setPage(pageable.getPageNumber() + 1);
         meta.setPageSize(pageable.getPageSize());
         meta.setPages(page.getTotalPages());
         meta.setTotal(page.getTotalElements());
+        meta.setCountMode(page.getCountMode());
 
         List<ResFetchResumeDTO> results = page.getContent()
                 .stream().map(this::getResume)
@@ -200,14 +210,19 @@ public class ResumeService {
         String email = SecurityUtil.getCurrentUserLogin().orElse("");
         FilterNode node = filterParser.parse("email='" + email + "'");
         FilterSpecification<Resume> spec = filterSpecificationConverter.convert(node);
+        if (this.keysetPaginationService.isCursorRequest()) {
+            return this.keysetPaginationService.fetch(this.resumeRepository, Resume.class, spec, pageable,
+                    this::getResume);
+        }
 
-        Page<Resume> page = this.resumeRepository.findAll(spec, pageable);
+        PageCountService.CountedPage<Resume> page = this.pageCountService.findAll(Resume.class, spec, pageable);
 
         ResultPaginationDTO.Meta meta = new ResultPaginationDTO.Meta();
         meta.setPage(pageable.getPageNumber() + 1);
         meta.setPageSize(pageable.getPageSize());
         meta.setPages(page.getTotalPages());
         meta.setTotal(page.getTotalElements());
+        meta.setCountMode(page.getCountMode());
 
         List<ResFetchResumeDTO> results = page.getContent()
                 .stream().map(this::getResume)
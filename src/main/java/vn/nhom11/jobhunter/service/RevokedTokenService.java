@@ -0,0 +1,90 @@
+package vn.nhom11.jobhunter.service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.annotation.PostConstruct;
+import vn.nhom11.jobhunter.config.CachingJwtDecoder;
+import vn.nhom11.jobhunter.domain.RevokedToken;
+import vn.nhom11.jobhunter.repository.RevokedTokenRepository;
+
+/**
+ * Thu hồi access token (logout), lưu ở bảng revoked_tokens tới khi token hết hạn:
+ * - node xử lý logout từ chối token ngay
+ * - các node khác đọc các dòng mới định kỳ (revocation-sync-ms) rồi từ chối token, kể cả khi đã cache
+ * - khởi động lại vẫn nhớ các token đã thu hồi
+ * Cùng chu kỳ đó đồng bộ luôn các thay đổi authVersion của user (PrincipalService)
+ */
+@Service
+public class RevokedTokenService {
+
+    // đọc chồng lên 1 khoảng: đồng hồ các node lệch nhau, transaction commit chậm
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final CachingJwtDecoder jwtDecoder;
+    private final PrincipalService principalService;
+
+    private volatile Instant syncedAt = Instant.EPOCH;
+
+    public RevokedTokenService(RevokedTokenRepository revokedTokenRepository, CachingJwtDecoder jwtDecoder,
+            PrincipalService principalService) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.jwtDecoder = jwtDecoder;
+        this.principalService = principalService;
+    }
+
+    // khởi động: nạp mọi token đã thu hồi còn hạn
+    @PostConstruct
+    public void load() {
+        this.sync();
+    }
+
+    /**
+     * Thu hồi token: có hiệu lực ngay trên node này, các node khác sau tối đa 1 chu kỳ đồng bộ
+     */
+    @Transactional
+    public void revoke(Jwt jwt) {
+        this.jwtDecoder.revoke(jwt);
+
+        Instant now = Instant.now();
+        Instant exp = jwt.getExpiresAt();
+        if (exp == null || !exp.isAfter(now)) {
+            return;
+        }
+        RevokedToken revoked = new RevokedToken();
+        revoked.setTokenHash(CachingJwtDecoder.hash(jwt.getTokenValue()));
+        revoked.setCreatedAt(now);
+        revoked.setExpiresAt(exp);
+        this.revokedTokenRepository.save(revoked);
+    }
+
+    @Scheduled(fixedDelayString = "${nhom11.jwt.revocation-sync-ms:5000}")
+    public void sync() {
+        Instant now = Instant.now();
+        Instant since = Instant.EPOCH.equals(this.syncedAt) ? Instant.EPOCH : this.syncedAt.minus(SYNC_OVERLAP);
+        for (RevokedToken t : this.revokedTokenRepository.findByCreatedAtGreaterThanEqualAndExpiresAtAfter(since,
+                now)) {
+            this.jwtDecoder.revoke(t.getTokenHash(), t.getExpiresAt().toEpochMilli());
+        }
+        this.jwtDecoder.purgeRevoked();
+        this.principalService.syncAuthChanges(since, now);
+        this.syncedAt = now;
+    }
+
+    @Scheduled(fixedDelayString = "${nhom11.refresh-token.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        int deleted = this.revokedTokenRepository.deleteExpired(now);
+        if (deleted > 0) {
+            System.out.println(">>> Đã xóa " + deleted + " access token thu hồi đã hết hạn");
+        }
+        this.principalService.purgeExpiredAuthChanges(now);
+    }
+}
@@ -3,7 +3,6 @@ package vn.nhom11.jobhunter.service;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
@@ -18,12 +17,21 @@ public class RoleService {
 
     private final RoleRepository roleRepository;
     private final PermissionRepository permissionRepository;
+    private final PermissionMatrixService permissionMatrixService;
+    private final KeysetPaginationService keysetPaginationService;
+    private final PageCountService pageCountService;
 
     public RoleService(
             RoleRepository roleRepository,
-            PermissionRepository permissionRepository) {
+            PermissionRepository permissionRepository,
+            PermissionMatrixService permissionMatrixService,
+            KeysetPaginationService keysetPaginationService,
+            PageCountService pageCountService) {
         this.roleRepository = roleRepository;
         this.permissionRepository = permissionRepository;
+        this.permissionMatrixService = permissionMatrixService;
+        this.keysetPaginationService = keysetPaginationService;
+        this.pageCountService = pageCountService;
     }
 
     public boolean existByName(String name) {
@@ -41,7 +49,9 @@ public class RoleService {
             r.setPermissions(dbPermissions);
         }
 
-        return this.roleRepository.save(r);
+        Role savedRole = this.roleRepository.save(r);
+        this.permissionMatrixService.onRoleSaved(savedRole);
+        return savedRole;
     }
 
     public Role fetchById(long id) {
@@ -53,8 +63,11 @@ public class RoleService {
 
     public ResultPaginationDTO getRolesCreatedBy(String createdBy, Pageable pageable) {
         Specification<Role> spec = (root, query, cb) -> cb.equal(root.get("createdBy"), createdBy);
+        if (this.keysetPaginationService.isCursorRequest()) {
+            return this.keysetPaginationService.fetch(this.roleRepository, Role.class, spec, pageable);
+        }
 
-        Page<Role> pageRole = this.roleRepository.findAll(spec, pageable);
+        PageCountService.CountedPage<Role> pageRole = this.pageCountService.findAll(Role.class, spec, pageable);
 
         ResultPaginationDTO result = new ResultPaginationDTO();
         ResultPaginationDTO.Meta meta = new ResultPaginationDTO.Meta();
@@ -63,6 +76,7 @@ public class RoleService {
         meta.setPageSize(pageable.getPageSize());
         meta.setPages(pageRole.getTotalPages());
         meta.setTotal(pageRole.getTotalElements());
+        meta.setCountMode(pageRole.getCountMode());
 
         result.setMeta(meta);
         result.setResult(pageRole.getContent());
@@ -87,15 +101,20 @@ public class RoleService {
         roleDB.setActive(r.isActive());
         roleDB.setPermissions(r.getPermissions());
         roleDB = this.roleRepository.save(roleDB);
+        this.permissionMatrixService.onRoleSaved(roleDB);
         return roleDB;
     }
 
     public void delete(long id) {
         this.roleRepository.deleteById(id);
+        this.permissionMatrixService.onRoleDeleted(id);
     }
 
     public ResultPaginationDTO getRoles(Specification<Role> spec, Pageable pageable) {
-        Page<Role> pRole = this.roleRepository.findAll(spec, pageable);
+        if (this.keysetPaginationService.isCursorRequest()) {
+            return this.keysetPaginationService.fetch(this.roleRepository, Role.class, spec, pageable);
+        }
+        PageCountService.CountedPage<Role> pRole = this.pageCountService.findAll(Role.class, spec, pageable);
         ResultPaginationDTO rs = new ResultPaginationDTO();
         ResultPaginationDTO.Meta mt = new ResultPaginationDTO.Meta();
 
@@ -104,6 +123,7 @@ public class RoleService {
 
         mt.setPages(pRole.getTotalPages());
         mt.setTotal(pRole.getTotalElements());
+        mt.setCountMode(pRole.getCountMode());
 
         rs.setMeta(mt);
         rs.setResult(pRole.getContent());
@@ -118,7 +138,7 @@ public class RoleService {
         if (role == null) {
             meta.setPage(1);
             meta.setPageSize(pageable.getPageSize());
-            meta.setTotal(0);
+            meta.setTotal(0L);
             meta.setPages(0);
             result.setMeta(meta);
             result.setResult(List.of());
@@ -127,7 +147,7 @@ public class RoleService {
 
         meta.setPage(1);
         meta.setPageSize(pageable.getPageSize());
-        meta.setTotal(1);
+        meta.setTotal(1L);
         meta.setPages(1);
 
         result.setMeta(meta);
@@ -143,21 +163,12 @@ public class RoleService {
     }
 
     public long countPermissionsByRoleId(Long roleId) {
-        Optional<Role> roleOpt = this.roleRepository.findById(roleId);
-        if (roleOpt.isPresent()) {
-            Role role = roleOpt.get();
-            if (role.getPermissions() != null) {
-                return role.getPermissions().size();
-            }
-        }
-        return 0;
+        return this.permissionMatrixService.countPermissions(roleId);
     }
 
+    // true nếu role này có đủ tất cả quyền (tính sẵn trong ma trận phân quyền, không query DB)
     public boolean permissionVsRole(Long roleId) {
-        long a = this.countPermissionsByRoleId(roleId); // số quyền của role cụ thể
-        long b = this.permissionRepository.count(); // tổng số quyền trong hệ thống
-
-        return a == b; // true nếu role này có đủ tất cả quyền, false nếu chưa đủ
+        return this.permissionMatrixService.isFullPermission(roleId);
     }
 
     public Role findById(Long id) {
@@ -2,7 +2,6 @@ package vn.nhom11.jobhunter.service;
 
 import java.util.Optional;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
@@ -14,9 +13,14 @@ import vn.nhom11.jobhunter.repository.SkillRepository;
 @Service
 public class SkillService {
     private final SkillRepository skillRepository;
+    private final KeysetPaginationService keysetPaginationService;
+    private final PageCountService pageCountService;
 
-    public SkillService(SkillRepository skillRepository) {
+    public SkillService(SkillRepository skillRepository,
+            KeysetPaginationService keysetPaginationService, PageCountService pageCountService) {
         this.skillRepository = skillRepository;
+        this.keysetPaginationService = keysetPaginationService;
+        this.pageCountService = pageCountService;
     }
 
     public boolean isNameExist(String name) {
@@ -59,7 +63,10 @@ public class SkillService {
     }
 
     public ResultPaginationDTO fetchAllSkills(Specification<Skill> spec, Pageable pageable) {
-        Page<Skill> pageUser = this.skillRepository.findAll(spec, pageable);
+        if (this.keysetPaginationService.isCursorRequest()) {
+            return this.keysetPaginationService.fetch(this.skillRepository, Skill.class, spec, pageable);
+        }
+        PageCountService.CountedPage<Skill> pageUser = this.pageCountService.findAll(Skill.class, spec, pageable);
 
         ResultPaginationDTO rs = new ResultPaginationDTO();
         ResultPaginationDTO.Meta mt = new ResultPaginationDTO.Meta();
@@ -69,6 +76,7 @@ public class SkillService {
 
         mt.setPages(pageUser.getTotalPages());
         mt.setTotal(pageUser.getTotalElements());
+        mt.setCountMode(pageUser.getCountMode());
 
         rs.setMeta(mt);
 
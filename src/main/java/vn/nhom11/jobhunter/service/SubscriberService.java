@@ -1,11 +1,25 @@
 package vn.nhom11.jobhunter.service;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.LongPredicate;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.util.HtmlUtils;
 
 import vn.nhom11.jobhunter.domain.Job;
 import vn.nhom11.jobhunter.domain.Skill;
@@ -22,16 +36,30 @@ public class SubscriberService {
     private final SkillRepository skillRepository;
     private final JobRepository jobRepository;
     private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${nhom11.digest.initial-lookback-days:7}")
+    private long initialLookbackDays;
+
+    private static final int SUBSCRIBER_PAGE_SIZE = 200;
+
+    // số body email tối đa giữ lại trong 1 lần chạy (mỗi body ứng với 1 tổ hợp skill)
+    private static final int MAX_CACHED_BODIES = 1000;
+
+    // chỗ giữ tên người nhận trong body đã render sẵn
+    private static final String NAME_PLACEHOLDER = "__NHOM11_SUBSCRIBER_NAME__";
 
     public SubscriberService(
             SubscriberRepository subscriberRepository,
             SkillRepository skillRepository,
             JobRepository jobRepository,
-            EmailService emailService) {
+            EmailService emailService,
+            TransactionTemplate transactionTemplate) {
         this.subscriberRepository = subscriberRepository;
         this.skillRepository = skillRepository;
         this.jobRepository = jobRepository;
         this.emailService = emailService;
+        this.transactionTemplate = transactionTemplate;
     }
 
     // @Scheduled(cron = "*/10 * * * * *")
@@ -89,28 +117,200 @@ public class SubscriberService {
         return res;
     }
 
+    /**
+     * Gửi email job mới cho từng subscriber, chạy theo lịch (nhom11.digest.cron).
+     * - Chỉ xét job active được tạo/cập nhật sau mốc gửi gần nhất của subscriber (lastDigestAt),
+     *   không lùi quá nhom11.digest.initial-lookback-days ngày (áp dụng cho cả subscriber mới).
+     * - Job đã gửi cho subscriber (sentJobIds) không gửi lại.
+     * - Mỗi lần chạy dựng 1 chỉ mục ngược skill -> mảng id job (đã sắp xếp) và cache DTO của job,
+     *   sau đó duyệt subscriber theo trang, job của mỗi subscriber là hợp các mảng theo skill của họ.
+     * - Thẻ job được render 1 lần cho mỗi job, body email được render 1 lần cho mỗi danh sách job,
+     *   mỗi người nhận chỉ thay lời chào.
+     */
+    @Scheduled(cron = "${nhom11.digest.cron:0 0 8 * * *}")
     public void sendSubscribersEmailJobs() {
-        List<Subscriber> listSubs = this.subscriberRepository.findAll();
-        if (listSubs != null && listSubs.size() > 0) {
-            for (Subscriber sub : listSubs) {
-                List<Skill> listSkills = sub.getSkills();
-                if (listSkills != null && listSkills.size() > 0) {
-                    List<Job> listJobs = this.jobRepository.findBySkillsIn(listSkills);
-                    if (listJobs != null && listJobs.size() > 0) {
-
-                        List<ResEmailJob> arr = listJobs.stream().map(
-                                job -> this.convertJobToSendEmail(job)).collect(Collectors.toList());
-
-                        this.emailService.sendEmailFromTemplateSync(
-                                sub.getEmail(),
-                                "Cơ hội việc làm hot đang chờ đón bạn, khám phá ngay",
-                                "job",
-                                sub.getName(),
-                                arr);
+        Instant runAt = Instant.now();
+        Instant defaultSince = runAt.minus(this.initialLookbackDays, ChronoUnit.DAYS);
+
+        // cửa sổ của cả lần chạy: mốc nhỏ nhất trong các subscriber, không lùi quá initial-lookback-days
+        Instant minWatermark = this.subscriberRepository.findMinLastDigestAt();
+        Instant since = minWatermark == null || minWatermark.isBefore(defaultSince)
+                || this.subscriberRepository.existsByLastDigestAtIsNull()
+                        ? defaultSince
+                        : minWatermark;
+
+        Map<Long, Instant> jobChangedAt = new HashMap<>();
+        Map<Long, ResEmailJob> jobs = this.loadDigestJobs(since, jobChangedAt);
+        Map<Long, long[]> skillIndex = this.buildSkillIndex(since, jobs);
+        if (skillIndex.isEmpty()) {
+            System.out.println(">>> DIGEST: không có job mới từ " + since);
+            return;
+        }
+
+        Map<Long, String> jobCards = new HashMap<>();
+        Map<String, String> bodies = new HashMap<>();
+        int sentCount = 0;
+
+        long lastId = 0;
+        boolean hasNext = true;
+        while (hasNext) {
+            final long afterId = lastId;
+            List<DigestMail> mails = new ArrayList<>();
+
+            // mỗi trang 1 transaction: đọc subscriber, chọn job; mốc chỉ dời ngay cho subscriber không có gì để gửi
+            Slice<Subscriber> slice = this.transactionTemplate.execute(status -> {
+                Slice<Subscriber> current = this.subscriberRepository.findByIdGreaterThan(afterId,
+                        PageRequest.of(0, SUBSCRIBER_PAGE_SIZE, Sort.by("id")));
+                List<Subscriber> page = current.getContent();
+                if (page.isEmpty()) {
+                    return current;
+                }
+
+                Map<Long, List<Long>> skillsBySubscriber = new HashMap<>();
+                List<Long> ids = page.stream().map(Subscriber::getId).collect(Collectors.toList());
+                for (Object[] row : this.subscriberRepository.findSkillIdsBySubscriberIdIn(ids)) {
+                    skillsBySubscriber.computeIfAbsent((Long) row[0], k -> new ArrayList<>()).add((Long) row[1]);
+                }
+
+                List<Long> idle = new ArrayList<>();
+                for (Subscriber sub : page) {
+                    Instant watermark = sub.getLastDigestAt() == null || sub.getLastDigestAt().isBefore(defaultSince)
+                            ? defaultSince
+                            : sub.getLastDigestAt();
+                    Set<Long> sent = sub.getSentJobIds();
+
+                    long[] jobIds = union(skillIndex, skillsBySubscriber.get(sub.getId()),
+                            id -> jobChangedAt.get(id).isAfter(watermark) && !sent.contains(id));
+
+                    // chỉ giữ các job còn trong cửa sổ, tập đã gửi không phình ra theo thời gian
+                    sent.retainAll(jobs.keySet());
+                    if (jobIds.length > 0) {
+                        String signature = Arrays.toString(jobIds);
+                        if (bodies.size() >= MAX_CACHED_BODIES && !bodies.containsKey(signature)) {
+                            bodies.clear();
+                        }
+                        String body = bodies.computeIfAbsent(signature,
+                                k -> this.renderDigestBody(jobIds, jobs, jobCards));
+
+                        String name = sub.getName() == null ? "" : HtmlUtils.htmlEscape(sub.getName());
+                        mails.add(new DigestMail(sub.getId(), sub.getEmail(),
+                                body.replace(NAME_PLACEHOLDER, name), jobIds));
+                    } else {
+                        idle.add(sub.getId());
                     }
                 }
+
+                // cập nhật mốc bằng bulk update: không chạy @PreUpdate, updatedAt/updatedBy của subscriber giữ nguyên
+                if (!idle.isEmpty()) {
+                    this.subscriberRepository.updateLastDigestAt(idle, runAt);
+                }
+                return current;
+            });
+
+            // gửi sau khi đã commit, không giữ transaction trong lúc chờ hàng đợi mail.
+            // mốc + job đã gửi chỉ được ghi khi email gửi thành công; email bị từ chối / bỏ sẽ được gửi lại lần sau
+            for (DigestMail mail : mails) {
+                boolean accepted = this.emailService.sendEmail(mail.email(),
+                        "Cơ hội việc làm hot đang chờ đón bạn, khám phá ngay", mail.body(), true,
+                        () -> this.markDigestSent(mail.subscriberId(), mail.jobIds(), runAt));
+                if (accepted) {
+                    sentCount++;
+                }
+            }
+
+            List<Subscriber> page = slice.getContent();
+            hasNext = slice.hasNext() && !page.isEmpty();
+            if (!page.isEmpty()) {
+                lastId = page.get(page.size() - 1).getId();
             }
         }
+        System.out.println(">>> DIGEST: đã đưa " + sentCount + " email vào hàng đợi, job mới từ " + since);
+    }
+
+    // ========================== DIGEST UTIL ==========================
+
+    private record DigestMail(long subscriberId, String email, String body, long[] jobIds) {
+    }
+
+    // email digest đã gửi thành công (chạy trên luồng gửi mail): ghi job đã gửi, dời mốc của riêng subscriber này
+    private void markDigestSent(long subscriberId, long[] jobIds, Instant runAt) {
+        this.transactionTemplate.executeWithoutResult(status -> {
+            this.subscriberRepository.findById(subscriberId).ifPresent(sub -> {
+                for (long jobId : jobIds) {
+                    sub.getSentJobIds().add(jobId);
+                }
+            });
+            this.subscriberRepository.updateLastDigestAt(List.of(subscriberId), runAt);
+        });
+    }
+
+    // DTO của các job active thay đổi từ mốc since, dùng chung cho mọi subscriber trong lần chạy
+    private Map<Long, ResEmailJob> loadDigestJobs(Instant since, Map<Long, Instant> jobChangedAt) {
+        Map<Long, ResEmailJob> jobs = new HashMap<>();
+        for (Object[] row : this.jobRepository.findActiveJobsForDigest(since)) {
+            ResEmailJob res = new ResEmailJob();
+            res.setName((String) row[1]);
+            res.setSalary((Double) row[2]);
+            res.setCompany(new ResEmailJob.CompanyEmail((String) row[3]));
+            res.setSkills(new ArrayList<>());
+            jobs.put((Long) row[0], res);
+
+            Instant createdAt = (Instant) row[4];
+            Instant updatedAt = (Instant) row[5];
+            jobChangedAt.put((Long) row[0], updatedAt != null && (createdAt == null || updatedAt.isAfter(createdAt))
+                    ? updatedAt
+                    : createdAt);
+        }
+        return jobs;
+    }
+
+    // body email cho 1 danh sách job, tên người nhận để dạng placeholder
+    private String renderDigestBody(long[] jobIds, Map<Long, ResEmailJob> jobs, Map<Long, String> jobCards) {
+        StringBuilder cards = new StringBuilder();
+        for (long jobId : jobIds) {
+            cards.append(jobCards.computeIfAbsent(jobId,
+                    id -> this.emailService.renderTemplate("job_card", Map.of("job", jobs.get(id)))));
+        }
+
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("name", NAME_PLACEHOLDER);
+        variables.put("jobCards", cards.toString());
+        return this.emailService.renderTemplate("job", variables);
+    }
+
+    // skillId -> id các job có skill đó, tăng dần (query đã ORDER BY skill, job)
+    private Map<Long, long[]> buildSkillIndex(Instant since, Map<Long, ResEmailJob> jobs) {
+        Map<Long, List<Long>> postings = new HashMap<>();
+        for (Object[] row : this.jobRepository.findActiveJobSkillPairs(since)) {
+            Long skillId = (Long) row[0];
+            Long jobId = (Long) row[1];
+            ResEmailJob job = jobs.get(jobId);
+            if (job == null) {
+                continue;
+            }
+            job.getSkills().add(new ResEmailJob.SkillEmail((String) row[2]));
+            postings.computeIfAbsent(skillId, k -> new ArrayList<>()).add(jobId);
+        }
+
+        Map<Long, long[]> index = new HashMap<>();
+        postings.forEach((skillId, jobIds) -> index.put(skillId,
+                jobIds.stream().mapToLong(Long::longValue).toArray()));
+        return index;
+    }
+
+    // hợp các mảng id job theo skill của subscriber, không trùng lặp, chỉ giữ job thỏa filter
+    private static long[] union(Map<Long, long[]> skillIndex, List<Long> skillIds, LongPredicate filter) {
+        if (skillIds == null || skillIds.isEmpty()) {
+            return new long[0];
+        }
+        return skillIds.stream()
+                .map(skillIndex::get)
+                .filter(postings -> postings != null)
+                .flatMapToLong(Arrays::stream)
+                .filter(filter)
+                .sorted()
+                .distinct()
+                .toArray();
     }
 
     public Subscriber findByEmail(String email) {
@@ -5,11 +5,8 @@ import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
 import vn.nhom11.jobhunter.domain.Company;
@@ -20,6 +17,7 @@ import vn.nhom11.jobhunter.domain.response.ResUpdateUserDTO;
 import vn.nhom11.jobhunter.domain.response.ResUserDTO;
 import vn.nhom11.jobhunter.domain.response.ResultPaginationDTO;
 import vn.nhom11.jobhunter.repository.UserRepository;
+import vn.nhom11.jobhunter.util.error.MailUnavailableException;
 
 @Service
 public class UserService {
@@ -27,16 +25,25 @@ public class UserService {
     private final UserRepository userRepository;
     private final CompanyService companyService;
     private final RoleService roleService;
-    private final JavaMailSender javaMailSender;
+    private final EmailService emailService;
+    private final PrincipalService principalService;
+    private final KeysetPaginationService keysetPaginationService;
+    private final PageCountService pageCountService;
 
     public UserService(UserRepository userRepository,
             CompanyService companyService,
             RoleService roleService,
-            JavaMailSender javaMailSender) {
+            EmailService emailService,
+            PrincipalService principalService,
+            KeysetPaginationService keysetPaginationService,
+            PageCountService pageCountService) {
         this.userRepository = userRepository;
         this.companyService = companyService;
         this.roleService = roleService;
-        this.javaMailSender = javaMailSender;
+        this.emailService = emailService;
+        this.principalService = principalService;
+        this.keysetPaginationService = keysetPaginationService;
+        this.pageCountService = pageCountService;
     }
 
     // =================== CREATE USER ===================
@@ -58,6 +65,7 @@ public class UserService {
 
     // =================== DELETE ===================
     public void handleDeleteUser(long id) {
+        this.userRepository.findById(id).ifPresent(u -> this.principalService.invalidateDeleted(u.getEmail()));
         this.userRepository.deleteById(id);
     }
 
@@ -66,7 +74,11 @@ public class UserService {
     }
 
     public ResultPaginationDTO fetchAllUser(Specification<User> spec, Pageable pageable) {
-        Page<User> pageUser = this.userRepository.findAll(spec, pageable);
+        if (this.keysetPaginationService.isCursorRequest()) {
+            return this.keysetPaginationService.fetch(this.userRepository, User.class, spec, pageable,
+                    this::convertToResUserDTO);
+        }
+        PageCountService.CountedPage<User> pageUser = this.pageCountService.findAll(User.class, spec, pageable);
         ResultPaginationDTO rs = new ResultPaginationDTO();
         ResultPaginationDTO.Meta mt = new ResultPaginationDTO.Meta();
 
@@ -74,6 +86,7 @@ public class UserService {
         mt.setPageSize(pageable.getPageSize());
         mt.setPages(pageUser.getTotalPages());
         mt.setTotal(pageUser.getTotalElements());
+        mt.setCountMode(pageUser.getCountMode());
         rs.setMeta(mt);
 
         List<ResUserDTO> listUser = pageUser.getContent()
@@ -105,6 +118,7 @@ public class UserService {
             }
 
             currentUser = this.userRepository.save(currentUser);
+            this.principalService.invalidate(currentUser.getEmail());
         }
         return currentUser;
     }
@@ -144,7 +158,15 @@ public class UserService {
     }
 
     public ResultPaginationDTO fetchAllUserByCreatorOrSelf(String creator, long userId, Pageable pageable) {
-        Page<User> pageUser = this.userRepository.findAllByCreatorOrSelf(creator, userId, pageable);
+        // user do creator tạo hoặc chính user đó
+        Specification<User> spec = (root, query, cb) -> cb.or(
+                cb.equal(root.get("createdBy"), creator),
+                cb.equal(root.get("id"), userId));
+        if (this.keysetPaginationService.isCursorRequest()) {
+            return this.keysetPaginationService.fetch(this.userRepository, User.class, spec, pageable,
+                    this::convertToResUserDTO);
+        }
+        PageCountService.CountedPage<User> pageUser = this.pageCountService.findAll(User.class, spec, pageable);
 
         ResultPaginationDTO rs = new ResultPaginationDTO();
         ResultPaginationDTO.Meta mt = new ResultPaginationDTO.Meta();
@@ -153,6 +175,7 @@ public class UserService {
         mt.setPageSize(pageable.getPageSize());
         mt.setPages(pageUser.getTotalPages());
         mt.setTotal(pageUser.getTotalElements());
+        mt.setCountMode(pageUser.getCountMode());
         rs.setMeta(mt);
 
         List<ResUserDTO> listUser = pageUser.getContent()
@@ -209,17 +232,10 @@ public class UserService {
         return res;
     }
 
-    // =================== REFRESH TOKEN ===================
-    public void updateUserToken(String token, String email) {
-        User currentUser = this.handleGetUserByUsername(email);
-        if (currentUser != null) {
-            currentUser.setRefreshToken(token);
-            this.userRepository.save(currentUser);
-        }
-    }
-
-    public User getUserByRefreshTokenAndEmail(String token, String email) {
-        return this.userRepository.findByRefreshTokenAndEmail(token, email);
+    // =================== PASSWORD ===================
+    // chỉ cập nhật cột password (băm lại khi đăng nhập)
+    public void updatePasswordHash(String email, String hashPassword) {
+        this.userRepository.updatePassword(email, hashPassword);
     }
 
     // =================== EMAIL VERIFICATION ===================
@@ -236,12 +252,13 @@ public class UserService {
         String message = "Chào " + user.getName() + ",\n\n" +
                 "Vui lòng nhấn vào link sau để xác nhận tài khoản:\n" + verificationUrl;
 
-        SimpleMailMessage mailMessage = new SimpleMailMessage();
-        mailMessage.setTo(user.getEmail());
-        mailMessage.setSubject(subject);
-        mailMessage.setText(message);
-
-        javaMailSender.send(mailMessage);
+        // làn email giao dịch: không chặn luồng request kể cả khi digest đang lấp đầy hàng đợi hàng loạt;
+        // làn ưu tiên đầy thì báo 503, user gửi lại qua /auth/resend-verification
+        if (!this.emailService.sendTransactionalEmail(user.getEmail(), subject, message, false)) {
+            System.out.println(">>> không đưa được email xác nhận tới " + user.getEmail() + " vào hàng đợi");
+            throw new MailUnavailableException(
+                    "Hệ thống email đang quá tải, chưa gửi được email xác nhận. Vui lòng yêu cầu gửi lại sau ít phút.");
+        }
     }
 
     public User getUserByVerificationToken(String token) {
@@ -0,0 +1,159 @@
+package vn.nhom11.jobhunter.util;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+
+/**
+ * Cây trie theo từng segment của đường dẫn, dùng để so khớp route thay cho việc
+ * duyệt lần lượt từng pattern. Chi phí so khớp phụ thuộc số segment của path,
+ * không phụ thuộc số pattern đã đăng ký.
+ *
+ * Pattern hỗ trợ:
+ * - segment cố định: /api/v1/jobs
+ * - 1 segment bất kỳ: * hoặc {id} (không phân biệt tên biến)
+ * - phần còn lại (0 hoặc nhiều segment): ** (chỉ đặt ở cuối pattern)
+ *
+ * Mỗi node kết thúc lưu giá trị theo từng HTTP method, kèm bitmask các method có giá trị.
+ */
+public class RouteTrie<V> {
+
+    private static final List<String> METHODS = List.of(
+            "GET", "HEAD", "POST", "PUT", "PATCH", "DELETE", "OPTIONS", "TRACE");
+
+    // method = null khi đăng ký: áp dụng cho mọi method
+    public static final int ALL_METHODS = (1 << METHODS.size()) - 1;
+
+    private final Node<V> root = new Node<>();
+    private final BinaryOperator<V> merger;
+
+    /**
+     * @param merger gộp giá trị khi cùng pattern + method được đăng ký nhiều lần
+     */
+    public RouteTrie(BinaryOperator<V> merger) {
+        this.merger = merger;
+    }
+
+    public void put(String pattern, String method, V value) {
+        Node<V> node = this.root;
+        for (String segment : split(pattern)) {
+            if (segment.equals("**")) {
+                if (node.rest == null) {
+                    node.rest = new Node<>();
+                }
+                node = node.rest;
+            } else if (isVariable(segment)) {
+                if (node.variable == null) {
+                    node.variable = new Node<>();
+                }
+                node = node.variable;
+            } else {
+                node = node.literals.computeIfAbsent(segment, k -> new Node<>());
+            }
+        }
+
+        int mask = method == null ? ALL_METHODS : methodBit(method);
+        for (int i = 0; i < METHODS.size(); i++) {
+            if ((mask & (1 << i)) != 0) {
+                node.values[i] = node.values[i] == null ? value : this.merger.apply(node.values[i], value);
+            }
+        }
+        node.methodMask |= mask;
+    }
+
+    /**
+     * So khớp một đường dẫn thật (vd: /api/v1/jobs/15).
+     * Ưu tiên segment cố định, sau đó tới biến, cuối cùng là **.
+     */
+    public V match(String path, String method) {
+        int bit = methodBit(method);
+        if (bit == 0) {
+            return null;
+        }
+        return find(this.root, split(path), 0, bit, false);
+    }
+
+    /**
+     * So khớp một pattern của handler (vd: /api/v1/jobs/{id}, lấy từ BEST_MATCHING_PATTERN_ATTRIBUTE).
+     * Segment biến chỉ khớp với biến, segment cố định chỉ khớp với segment cố định,
+     * nên không có chuyện route cụ thể "mượn" quyền của route dạng biến.
+     */
+    public V matchPattern(String pattern, String method) {
+        int bit = methodBit(method);
+        if (bit == 0) {
+            return null;
+        }
+        return find(this.root, split(pattern), 0, bit, true);
+    }
+
+    // ========================== UTIL ==========================
+    private V find(Node<V> node, String[] segments, int index, int bit, boolean patternMode) {
+        if (index == segments.length) {
+            if ((node.methodMask & bit) != 0) {
+                return node.values[Integer.numberOfTrailingZeros(bit)];
+            }
+            // ** ở cuối cũng khớp khi không còn segment nào
+            if (node.rest != null && (node.rest.methodMask & bit) != 0) {
+                return node.rest.values[Integer.numberOfTrailingZeros(bit)];
+            }
+            return null;
+        }
+
+        String segment = segments[index];
+        V found = null;
+
+        if (patternMode && segment.equals("**")) {
+            return node.rest != null ? find(node.rest, segments, index + 1, bit, true) : null;
+        }
+
+        boolean variableSegment = patternMode && isVariable(segment);
+        if (!variableSegment) {
+            Node<V> literal = node.literals.get(segment);
+            if (literal != null) {
+                found = find(literal, segments, index + 1, bit, patternMode);
+            }
+        }
+        if (found == null && node.variable != null && (variableSegment || !patternMode)) {
+            found = find(node.variable, segments, index + 1, bit, patternMode);
+        }
+        if (found == null && node.rest != null && !patternMode && (node.rest.methodMask & bit) != 0) {
+            found = node.rest.values[Integer.numberOfTrailingZeros(bit)];
+        }
+        return found;
+    }
+
+    private static boolean isVariable(String segment) {
+        return segment.equals("*") || (segment.startsWith("{") && segment.endsWith("}"));
+    }
+
+    private static int methodBit(String method) {
+        int index = method == null ? -1 : METHODS.indexOf(method.toUpperCase());
+        return index < 0 ? 0 : 1 << index;
+    }
+
+    private static String[] split(String path) {
+        if (path == null) {
+            return new String[0];
+        }
+        String trimmed = path;
+        while (trimmed.startsWith("/")) {
+            trimmed = trimmed.substring(1);
+        }
+        while (trimmed.endsWith("/")) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1);
+        }
+        return trimmed.isEmpty() ? new String[0] : trimmed.split("/+");
+    }
+
+    private static final class Node<V> {
+        final Map<String, Node<V>> literals = new HashMap<>();
+        Node<V> variable;
+        Node<V> rest;
+
+        int methodMask;
+
+        @SuppressWarnings("unchecked")
+        final V[] values = (V[]) new Object[METHODS.size()];
+    }
+}
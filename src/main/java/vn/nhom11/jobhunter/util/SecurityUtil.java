@@ -2,12 +2,8 @@ package vn.nhom11.jobhunter.util;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Optional;
-
-import javax.crypto.SecretKey;
-import javax.crypto.spec.SecretKeySpec;
+import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
@@ -20,34 +16,42 @@ import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtClaimsSet;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
-import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.stereotype.Service;
 
-import com.nimbusds.jose.util.Base64;
-
+import vn.nhom11.jobhunter.config.CachingJwtDecoder;
 import vn.nhom11.jobhunter.domain.response.ResLoginDTO;
+import vn.nhom11.jobhunter.service.PermissionMatrixService;
+import vn.nhom11.jobhunter.service.RevokedTokenService;
 
 @Service
 public class SecurityUtil {
 
+    public static final String PERMISSION_CLAIM = "perm";
+    public static final String PERMISSION_VERSION_CLAIM = "perm_ver";
+    public static final String AUTH_VERSION_CLAIM = "auth_ver";
+
     private final JwtEncoder jwtEncoder;
+    private final PermissionMatrixService permissionMatrixService;
+    private final CachingJwtDecoder jwtDecoder;
+    private final RevokedTokenService revokedTokenService;
 
-    public SecurityUtil(JwtEncoder jwtEncoder) {
+    public SecurityUtil(JwtEncoder jwtEncoder, PermissionMatrixService permissionMatrixService,
+            CachingJwtDecoder jwtDecoder, RevokedTokenService revokedTokenService) {
         this.jwtEncoder = jwtEncoder;
+        this.permissionMatrixService = permissionMatrixService;
+        this.jwtDecoder = jwtDecoder;
+        this.revokedTokenService = revokedTokenService;
     }
 
     public static final MacAlgorithm JWT_ALGORITHM = MacAlgorithm.HS512;
 
-    @Value("${nhom11.jwt.base64-secret}")
-    private String jwtKey;
-
     @Value("${nhom11.jwt.access-token-validity-in-seconds}")
     private long accessTokenExpiration;
 
     @Value("${nhom11.jwt.refresh-token-validity-in-seconds}")
     private long refreshTokenExpiration;
 
-    public String createAccessToken(String email, ResLoginDTO dto) {
+    public String createAccessToken(String email, ResLoginDTO dto, long authVersion) {
         ResLoginDTO.UserInsideToken userToken = new ResLoginDTO.UserInsideToken();
         userToken.setId(dto.getUser().getId());
         userToken.setEmail(dto.getUser().getEmail());
@@ -56,20 +60,24 @@ public class SecurityUtil {
         Instant now = Instant.now();
         Instant validity = now.plus(this.accessTokenExpiration, ChronoUnit.SECONDS);
 
-        // hardcode permission (for testing)
-        List<String> listAuthority = new ArrayList<String>();
-
-        listAuthority.add("ROLE_USER_CREATE");
-        listAuthority.add("ROLE_USER_UPDATE");
-
         // @formatter:off
-        JwtClaimsSet claims = JwtClaimsSet.builder()
+        JwtClaimsSet.Builder builder = JwtClaimsSet.builder()
             .issuedAt(now)
             .expiresAt(validity)
             .subject(email)
-            .claim("user", userToken)
-            .claim("permission", listAuthority)
-            .build();
+            .claim("user", userToken);
+
+        // nhúng BitSet permission của role + version của ma trận phân quyền + authVersion của user
+        if (dto.getUser().getRole() != null) {
+            long roleId = dto.getUser().getRole().getId();
+            String permissions = this.permissionMatrixService.encodePermissions(roleId);
+            if (permissions != null) {
+                builder.claim(PERMISSION_CLAIM, permissions)
+                    .claim(PERMISSION_VERSION_CLAIM, this.permissionMatrixService.version())
+                    .claim(AUTH_VERSION_CLAIM, authVersion);
+            }
+        }
+        JwtClaimsSet claims = builder.build();
 
         JwsHeader jwsHeader = JwsHeader.with(JWT_ALGORITHM).build();
         return this.jwtEncoder.encode(JwtEncoderParameters.from(jwsHeader, claims)).getTokenValue();
@@ -86,7 +94,9 @@ public class SecurityUtil {
         userToken.setName(dto.getUser().getName());
 
         // @formatter:off
+        // jti ngẫu nhiên: 2 lần đăng nhập trong cùng 1 giây vẫn ra 2 token (2 phiên) khác nhau
         JwtClaimsSet claims = JwtClaimsSet.builder()
+            .id(UUID.randomUUID().toString())
             .issuedAt(now)
             .expiresAt(validity)
             .subject(email)
@@ -98,22 +108,22 @@ public class SecurityUtil {
 
     }
 
-    private SecretKey getSecretKey() {
-        byte[] keyBytes = Base64.from(jwtKey).decode();
-        return new SecretKeySpec(keyBytes, 0, keyBytes.length,
-                JWT_ALGORITHM.getName());
-    }
-
     public Jwt checkValidRefreshToken(String token){
-     NimbusJwtDecoder jwtDecoder = NimbusJwtDecoder.withSecretKey(
-                getSecretKey()).macAlgorithm(SecurityUtil.JWT_ALGORITHM).build();
+                // decoder dùng chung (khóa đã giải mã sẵn), refresh token dùng 1 lần nên không cache
                 try {
-                     return jwtDecoder.decode(token);
+                     return this.jwtDecoder.decodeWithoutCache(token);
                 } catch (Exception e) {
                     System.out.println(">>> Refresh Token error: " + e.getMessage());
                     throw e;
                 }
     }
+
+    /**
+     * Thu hồi access token của request hiện tại (logout), trên mọi node
+     */
+    public void revokeCurrentToken() {
+        getCurrentJwt().ifPresent(this.revokedTokenService::revoke);
+    }
     
     /**
      * Get the login of the current user.
@@ -138,6 +148,19 @@ public class SecurityUtil {
         return null;
     }
 
+    /**
+     * Get the decoded JWT (with claims) of the current user.
+     *
+     * @return the decoded JWT of the current user.
+     */
+    public static Optional<Jwt> getCurrentJwt() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof Jwt jwt) {
+            return Optional.of(jwt);
+        }
+        return Optional.empty();
+    }
+
     /**
      * Get the JWT of the current user.
      *
@@ -0,0 +1,92 @@
+package vn.nhom11.jobhunter.util;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Cache trong bộ nhớ có thời hạn cho từng entry và giới hạn số entry.
+ * - entry hết hạn bị bỏ khi đọc tới, hoặc khi cache đầy
+ * - cache đầy: bỏ các entry đã hết hạn, vẫn đầy thì bỏ bớt entry bất kỳ cho tới khi còn chỗ
+ *
+ * Dùng chung cho cache principal, cache JWT đã kiểm tra và cache COUNT(*) của phân trang.
+ */
+public class TtlCache<K, V> {
+
+    private final Map<K, Entry<V>> map = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    public TtlCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Giá trị còn hạn của key, null nếu không có hoặc đã hết hạn
+     */
+    public V get(K key) {
+        Entry<V> entry = this.map.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            this.map.remove(key, entry);
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * Giá trị còn hạn của key, không có thì nạp bằng loader và giữ trong ttlMs
+     */
+    public V get(K key, long ttlMs, Supplier<V> loader) {
+        V value = this.get(key);
+        if (value == null) {
+            value = loader.get();
+            this.put(key, value, System.currentTimeMillis() + ttlMs);
+        }
+        return value;
+    }
+
+    /**
+     * Lưu value tới thời điểm expiresAt (millis)
+     */
+    public void put(K key, V value, long expiresAt) {
+        long now = System.currentTimeMillis();
+        if (expiresAt <= now) {
+            return;
+        }
+        if (this.map.size() >= this.maxSize && !this.map.containsKey(key)) {
+            this.evict(now);
+        }
+        this.map.put(key, new Entry<>(value, expiresAt));
+    }
+
+    public void remove(K key) {
+        this.map.remove(key);
+    }
+
+    public void clear() {
+        this.map.clear();
+    }
+
+    public int size() {
+        return this.map.size();
+    }
+
+    // ========================== UTIL ==========================
+
+    private void evict(long now) {
+        this.map.values().removeIf(e -> e.expiresAt <= now);
+
+        // vẫn đầy: bỏ bớt các entry bất kỳ cho tới khi còn chỗ
+        Iterator<K> it = this.map.keySet().iterator();
+        while (this.map.size() >= this.maxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
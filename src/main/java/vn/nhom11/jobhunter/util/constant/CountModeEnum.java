@@ -0,0 +1,5 @@
+package vn.nhom11.jobhunter.util.constant;
+
+public enum CountModeEnum {
+    EXACT, CACHED, ESTIMATED
+}
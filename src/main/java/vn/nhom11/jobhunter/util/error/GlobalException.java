@@ -3,6 +3,7 @@ package vn.nhom11.jobhunter.util.error;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -33,6 +34,7 @@ public class GlobalException {
             UsernameNotFoundException.class,
             BadCredentialsException.class,
             IdInvalidException.class,
+            InvalidCursorException.class,
     })
     public ResponseEntity<RestResponse<Object>> handleIdException(Exception ex) {
         RestResponse<Object> res = new RestResponse<Object>();
@@ -89,4 +91,30 @@ public class GlobalException {
         res.setMessage(ex.getMessage());
         return ResponseEntity.status(HttpStatus.FORBIDDEN).body(res);
     }
+
+    @ExceptionHandler(value = {
+            TooManyRequestsException.class,
+    })
+    public ResponseEntity<RestResponse<Object>> handleTooManyRequestsException(Exception ex) {
+        RestResponse<Object> res = new RestResponse<Object>();
+        res.setStatusCode(HttpStatus.TOO_MANY_REQUESTS.value());
+        res.setError("Too Many Requests");
+        res.setMessage(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(res);
+    }
+
+    @ExceptionHandler(value = {
+            MailUnavailableException.class,
+    })
+    public ResponseEntity<RestResponse<Object>> handleMailUnavailableException(Exception ex) {
+        RestResponse<Object> res = new RestResponse<Object>();
+        res.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE.value());
+        res.setError("Service Unavailable");
+        res.setMessage(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .body(res);
+    }
 }
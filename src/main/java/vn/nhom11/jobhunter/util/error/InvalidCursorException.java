@@ -0,0 +1,9 @@
+package vn.nhom11.jobhunter.util.error;
+
+// unchecked: được ném từ bên trong các hàm fetchAll (phân trang theo cursor)
+public class InvalidCursorException extends RuntimeException {
+    // Constructor that accepts a message
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
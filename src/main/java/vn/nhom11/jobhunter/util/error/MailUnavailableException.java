@@ -0,0 +1,9 @@
+package vn.nhom11.jobhunter.util.error;
+
+// unchecked: hàng đợi gửi mail không nhận thêm email giao dịch (503, client thử lại sau)
+public class MailUnavailableException extends RuntimeException {
+    // Constructor that accepts a message
+    public MailUnavailableException(String message) {
+        super(message);
+    }
+}
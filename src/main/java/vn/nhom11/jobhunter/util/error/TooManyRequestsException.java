@@ -0,0 +1,9 @@
+package vn.nhom11.jobhunter.util.error;
+
+// unchecked: được ném từ bên trong PasswordEncoder / AuthenticationManager
+public class TooManyRequestsException extends RuntimeException {
+    // Constructor that accepts a message
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
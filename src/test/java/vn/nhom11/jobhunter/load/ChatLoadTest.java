@@ -0,0 +1,283 @@
+package vn.nhom11.jobhunter.load;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import vn.nhom11.jobhunter.load.LoadSupport.Account;
+import vn.nhom11.jobhunter.load.LoadSupport.Credentials;
+
+/**
+ * Số phiên chat WebSocket đồng thời 1 node chịu được.
+ * Mỗi mức trong load.sessions (mặc định 100,500,1000,2000): mở đủ số phiên (chia đều cho các tài khoản),
+ * mỗi phiên gửi load.messagesPerSession tin cho tài khoản khác, cách nhau load.messageIntervalMs;
+ * đo thời gian tới ack "queued" và tới lúc người nhận nhận được tin.
+ * Một mức đạt khi mọi phiên kết nối được, lỗi <= 1% và p99 ack <= load.maxP99Ms; dừng ở mức đầu tiên không đạt.
+ *
+ * Chạy: ./gradlew loadTest -Pload.baseUrl=http://localhost:8080 -Pload.users=a@gmail.com:123456,b@gmail.com:123456
+ * (ít nhất 2 tài khoản; tin nhắn sinh ra được lưu thật vào DB)
+ */
+@Tag("load")
+@EnabledIfSystemProperty(named = "load.baseUrl", matches = ".+")
+class ChatLoadTest {
+
+	@Test
+	void findsHowManyConcurrentChatSessionsOneNodeSustains() throws Exception {
+		List<Credentials> users = LoadSupport.users();
+		assertTrue(users.size() >= 2, "Cần ít nhất 2 tài khoản trong load.users");
+
+		HttpClient client = LoadSupport.httpClient();
+		List<Account> accounts = new ArrayList<>();
+		for (Credentials c : users) {
+			accounts.add(LoadSupport.loginOrFail(client, c));
+		}
+
+		int maxP99Ms = LoadSupport.intProperty("load.maxP99Ms", 1000);
+		int sustained = 0;
+		for (int sessions : LoadSupport.intListProperty("load.sessions", "100,500,1000,2000")) {
+			LevelResult result = new Level(client, accounts, sessions).run();
+			System.out.println(">>> CHAT LOAD " + result);
+			if (!result.passed(sessions, maxP99Ms)) {
+				break;
+			}
+			sustained = sessions;
+		}
+		System.out.println(">>> CHAT LOAD: số phiên đồng thời chịu được = " + sustained);
+		assertTrue(sustained > 0, "Không đạt ngay ở mức đầu tiên");
+	}
+
+	/**
+	 * 1 mức tải: mở phiên, gửi tin, chờ ack, đóng phiên
+	 */
+	private static final class Level {
+
+		private final HttpClient client;
+		private final List<Account> accounts;
+		private final int sessionCount;
+		private final int messagesPerSession = LoadSupport.intProperty("load.messagesPerSession", 20);
+		private final int intervalMs = LoadSupport.intProperty("load.messageIntervalMs", 200);
+
+		// clientId -> thời điểm gửi (nanoTime)
+		private final Map<String, Long> awaitingAck = new ConcurrentHashMap<>();
+		private final Map<String, Long> awaitingDelivery = new ConcurrentHashMap<>();
+		private final Queue<Long> ackMicros = new ConcurrentLinkedQueue<>();
+		private final Queue<Long> deliveryMicros = new ConcurrentLinkedQueue<>();
+		private final AtomicInteger handshakeFailures = new AtomicInteger();
+		private final AtomicLong sent = new AtomicLong();
+		private final AtomicLong saved = new AtomicLong();
+		private final AtomicLong errors = new AtomicLong();
+		private final AtomicLong receipts = new AtomicLong();
+
+		Level(HttpClient client, List<Account> accounts, int sessionCount) {
+			this.client = client;
+			this.accounts = accounts;
+			this.sessionCount = sessionCount;
+		}
+
+		LevelResult run() throws InterruptedException {
+			String wsUrl = LoadSupport.baseUrl().replaceFirst("^http", "ws") + "/ws/chat?access_token=";
+
+			// ----- mở phiên -----
+			List<CompletableFuture<Session>> opening = new ArrayList<>();
+			for (int i = 0; i < this.sessionCount; i++) {
+				Account account = this.accounts.get(i % this.accounts.size());
+				Session session = new Session(account);
+				opening.add(this.client.newWebSocketBuilder()
+						.buildAsync(URI.create(wsUrl + account.accessToken()), session)
+						.thenApply(ws -> {
+							session.ws = ws;
+							return session;
+						}));
+			}
+			List<Session> sessions = new ArrayList<>();
+			for (CompletableFuture<Session> f : opening) {
+				try {
+					sessions.add(f.get(30, TimeUnit.SECONDS));
+				} catch (Exception e) {
+					this.handshakeFailures.incrementAndGet();
+				}
+			}
+
+			// ----- gửi tin: mỗi phiên 1 nhịp riêng, lệch pha ngẫu nhiên -----
+			long startedAt = System.nanoTime();
+			ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(8);
+			CompletableFuture<?>[] done = new CompletableFuture<?>[sessions.size()];
+			for (int i = 0; i < sessions.size(); i++) {
+				Session s = sessions.get(i);
+				CompletableFuture<Void> finished = new CompletableFuture<>();
+				done[i] = finished;
+				AtomicInteger remaining = new AtomicInteger(this.messagesPerSession);
+				scheduler.scheduleAtFixedRate(() -> {
+					if (remaining.getAndDecrement() <= 0) {
+						finished.complete(null);
+						throw new IllegalStateException("done"); // hủy lịch lặp
+					}
+					this.sendOne(s);
+				}, ThreadLocalRandom.current().nextInt(Math.max(1, this.intervalMs)), this.intervalMs,
+						TimeUnit.MILLISECONDS);
+			}
+			CompletableFuture.allOf(done).join();
+			scheduler.shutdownNow();
+
+			// ----- chờ ack còn thiếu -----
+			long deadline = System.currentTimeMillis() + 15_000;
+			while (!this.awaitingAck.isEmpty() && System.currentTimeMillis() < deadline) {
+				Thread.sleep(50);
+			}
+			double seconds = (System.nanoTime() - startedAt) / 1e9;
+
+			for (Session s : sessions) {
+				s.ws.sendClose(WebSocket.NORMAL_CLOSURE, "bye");
+			}
+			return new LevelResult(this.sessionCount, sessions.size(), this.handshakeFailures.get(), this.sent.get(),
+					this.sent.get() - this.awaitingAck.size(), this.saved.get(), this.errors.get(),
+					this.receipts.get(), this.sent.get() / seconds, sorted(this.ackMicros),
+					sorted(this.deliveryMicros));
+		}
+
+		private void sendOne(Session s) {
+			Account receiver;
+			do {
+				receiver = this.accounts.get(ThreadLocalRandom.current().nextInt(this.accounts.size()));
+			} while (receiver.id() == s.account.id());
+
+			String clientId = s.account.id() + "-" + this.sent.incrementAndGet();
+			String frame = LoadSupport.MAPPER.createObjectNode()
+					.put("type", "send")
+					.put("clientId", clientId)
+					.put("receiverId", receiver.id())
+					.put("content", "load test " + clientId)
+					.toString();
+			long now = System.nanoTime();
+			this.awaitingAck.put(clientId, now);
+			this.awaitingDelivery.put(clientId, now);
+			s.send(frame);
+		}
+
+		private void onFrame(Session s, String text) {
+			long now = System.nanoTime();
+			JsonNode node;
+			try {
+				node = LoadSupport.MAPPER.readTree(text);
+			} catch (Exception e) {
+				this.errors.incrementAndGet();
+				return;
+			}
+			String clientId = node.path("clientId").asText(null);
+			switch (node.path("type").asText("")) {
+				case "ack" -> {
+					if ("saved".equals(node.path("status").asText())) {
+						this.saved.incrementAndGet();
+						return;
+					}
+					Long sentAt = clientId == null ? null : this.awaitingAck.remove(clientId);
+					if (sentAt != null) {
+						this.ackMicros.add((now - sentAt) / 1000);
+					}
+				}
+				case "message" -> {
+					// người nhận có nhiều phiên: chỉ tính lần nhận đầu tiên
+					Long sentAt = clientId == null ? null : this.awaitingDelivery.remove(clientId);
+					if (sentAt != null) {
+						this.deliveryMicros.add((now - sentAt) / 1000);
+					}
+					long senderId = node.path("message").path("sender").path("id").asLong(0);
+					s.send(LoadSupport.MAPPER.createObjectNode()
+							.put("type", "delivered")
+							.put("clientId", clientId)
+							.put("senderId", senderId)
+							.toString());
+				}
+				case "delivered" -> this.receipts.incrementAndGet();
+				case "error" -> {
+					this.errors.incrementAndGet();
+					if (clientId != null) {
+						this.awaitingAck.remove(clientId);
+					}
+				}
+				default -> {
+				}
+			}
+		}
+
+		/**
+		 * 1 kết nối WebSocket; gửi tuần tự vì java.net.http.WebSocket không cho gửi chồng
+		 */
+		private final class Session implements WebSocket.Listener {
+
+			final Account account;
+			volatile WebSocket ws;
+			private final StringBuilder partial = new StringBuilder();
+
+			Session(Account account) {
+				this.account = account;
+			}
+
+			synchronized void send(String text) {
+				try {
+					this.ws.sendText(text, true).get(10, TimeUnit.SECONDS);
+				} catch (Exception e) {
+					Level.this.errors.incrementAndGet();
+				}
+			}
+
+			@Override
+			public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+				this.partial.append(data);
+				if (last) {
+					String text = this.partial.toString();
+					this.partial.setLength(0);
+					Level.this.onFrame(this, text);
+				}
+				webSocket.request(1);
+				return null;
+			}
+		}
+	}
+
+	private static long[] sorted(Queue<Long> values) {
+		return values.stream().mapToLong(Long::longValue).sorted().toArray();
+	}
+
+	private record LevelResult(int sessions, int connected, int handshakeFailures, long sent, long acked,
+			long saved, long errors, long receipts, double messagesPerSecond, long[] ackMicros,
+			long[] deliveryMicros) {
+
+		boolean passed(int expectedSessions, int maxP99Ms) {
+			return this.connected == expectedSessions
+					&& this.errors + (this.sent - this.acked) <= this.sent / 100
+					&& LoadSupport.percentile(this.ackMicros, 99) <= maxP99Ms * 1000L;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("sessions=%d connected=%d handshakeFailures=%d sent=%d acked=%d saved=%d errors=%d"
+					+ " receipts=%d throughput=%.0f msg/s%n    ack: %s%n    delivery: %s",
+					this.sessions, this.connected, this.handshakeFailures, this.sent, this.acked, this.saved,
+					this.errors, this.receipts, this.messagesPerSecond, LoadSupport.summary(this.ackMicros),
+					LoadSupport.summary(this.deliveryMicros));
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package vn.nhom11.jobhunter.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Tiện ích chung cho các load test chạy với 1 server đang chạy (không khởi động Spring trong test):
+ * ./gradlew loadTest -Pload.baseUrl=http://localhost:8080 -Pload.users=a@gmail.com:123456,b@gmail.com:123456
+ * Tài khoản trong load.users phải có sẵn và đã xác thực email.
+ */
+final class LoadSupport {
+
+	static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private LoadSupport() {
+	}
+
+	static String baseUrl() {
+		String url = System.getProperty("load.baseUrl");
+		return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+	}
+
+	static int intProperty(String name, int defaultValue) {
+		String value = System.getProperty(name);
+		return value == null || value.isBlank() ? defaultValue : Integer.parseInt(value.trim());
+	}
+
+	static List<Integer> intListProperty(String name, String defaultValue) {
+		return Arrays.stream(System.getProperty(name, defaultValue).split(","))
+				.map(String::trim)
+				.filter(s -> !s.isEmpty())
+				.map(Integer::valueOf)
+				.toList();
+	}
+
+	/**
+	 * load.users = email:password,email:password,...
+	 */
+	static List<Credentials> users() {
+		List<Credentials> users = new ArrayList<>();
+		for (String pair : System.getProperty("load.users", "").split(",")) {
+			int at = pair.indexOf(':');
+			if (at > 0) {
+				users.add(new Credentials(pair.substring(0, at).trim(), pair.substring(at + 1).trim()));
+			}
+		}
+		return users;
+	}
+
+	static HttpClient httpClient() {
+		return HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+	}
+
+	static HttpResponse<String> login(HttpClient client, Credentials credentials)
+			throws IOException, InterruptedException {
+		String body = MAPPER.createObjectNode()
+				.put("username", credentials.email())
+				.put("password", credentials.password())
+				.toString();
+		HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl() + "/api/v1/auth/login"))
+				.timeout(Duration.ofSeconds(30))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(body))
+				.build();
+		return client.send(request, HttpResponse.BodyHandlers.ofString());
+	}
+
+	/**
+	 * Đăng nhập, lỗi thì dừng test luôn
+	 */
+	static Account loginOrFail(HttpClient client, Credentials credentials) throws IOException, InterruptedException {
+		HttpResponse<String> response = login(client, credentials);
+		if (response.statusCode() != 200) {
+			throw new IllegalStateException("Đăng nhập " + credentials.email() + " lỗi: " + response.statusCode()
+					+ " " + response.body());
+		}
+		// body được bọc trong RestResponse (data) bởi FormatRestResponse
+		JsonNode node = MAPPER.readTree(response.body());
+		JsonNode data = node.has("data") ? node.get("data") : node;
+		return new Account(data.path("user").path("id").asLong(), credentials.email(),
+				data.path("access_token").asText());
+	}
+
+	/**
+	 * Phân vị p (0..100) của các giá trị đã sắp xếp tăng dần, đơn vị giữ nguyên
+	 */
+	static long percentile(long[] sorted, double p) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+		return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+	}
+
+	static String summary(long[] sortedMicros) {
+		return String.format("p50=%.1fms p95=%.1fms p99=%.1fms max=%.1fms (n=%d)",
+				percentile(sortedMicros, 50) / 1000.0, percentile(sortedMicros, 95) / 1000.0,
+				percentile(sortedMicros, 99) / 1000.0, percentile(sortedMicros, 100) / 1000.0, sortedMicros.length);
+	}
+
+	record Credentials(String email, String password) {
+	}
+
+	record Account(long id, String email, String accessToken) {
+	}
+}
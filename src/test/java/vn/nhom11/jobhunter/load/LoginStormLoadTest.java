@@ -0,0 +1,161 @@
+package vn.nhom11.jobhunter.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import vn.nhom11.jobhunter.load.LoadSupport.Credentials;
+
+/**
+ * Độ trễ xem danh sách job có giữ ổn định khi có đợt đăng nhập dồn dập (BCrypt chạy trên pool riêng, có giới hạn).
+ * - pha 1: load.browsers luồng gọi GET /api/v1/jobs liên tục trong load.phaseSeconds giây -> độ trễ nền
+ * - pha 2: như pha 1, thêm load.loginThreads luồng đăng nhập liên tục bằng các tài khoản trong load.users
+ * Đạt khi: không request xem job nào lỗi, p99 pha 2 <= p99 pha 1 * load.maxSlowdown + 50ms,
+ * và đăng nhập thật sự chạy (có 200; 429 khi pool băm đầy là bình thường).
+ *
+ * Chạy: ./gradlew loadTest -Pload.baseUrl=http://localhost:8080 -Pload.users=a@gmail.com:123456
+ */
+@Tag("load")
+@EnabledIfSystemProperty(named = "load.baseUrl", matches = ".+")
+class LoginStormLoadTest {
+
+	private static final String BROWSE_PATH = "/api/v1/jobs?page=1&size=10";
+
+	@Test
+	void jobBrowsingLatencyHoldsDuringLoginStorm() throws Exception {
+		List<Credentials> users = LoadSupport.users();
+		assertTrue(!users.isEmpty(), "Cần ít nhất 1 tài khoản trong load.users");
+		int browsers = LoadSupport.intProperty("load.browsers", 20);
+		int loginThreads = LoadSupport.intProperty("load.loginThreads", 200);
+		long phaseMs = LoadSupport.intProperty("load.phaseSeconds", 20) * 1000L;
+		int maxSlowdown = LoadSupport.intProperty("load.maxSlowdown", 3);
+
+		// 2 client riêng: đăng nhập không chiếm kết nối của luồng xem job phía client
+		HttpClient browseClient = client();
+		HttpClient loginClient = client();
+
+		Phase baseline = new Phase();
+		run(phaseMs, browse(browseClient, baseline, browsers));
+		System.out.println(">>> LOGIN STORM baseline: browse " + baseline.summary());
+
+		Phase storm = new Phase();
+		List<Runnable> workers = new ArrayList<>(browse(browseClient, storm, browsers));
+		for (int i = 0; i < loginThreads; i++) {
+			Credentials credentials = users.get(i % users.size());
+			workers.add(() -> {
+				try {
+					HttpResponse<String> response = LoadSupport.login(loginClient, credentials);
+					storm.count(response.statusCode());
+				} catch (Exception e) {
+					storm.loginErrors.incrementAndGet();
+				}
+			});
+		}
+		run(phaseMs, workers);
+		System.out.println(">>> LOGIN STORM storm: browse " + storm.summary());
+		System.out.printf(">>> LOGIN STORM storm: login ok=%d rejected(429)=%d other=%d errors=%d (%.0f login/s)%n",
+				storm.loginOk.get(), storm.loginRejected.get(), storm.loginOther.get(), storm.loginErrors.get(),
+				storm.loginOk.get() * 1000.0 / phaseMs);
+
+		assertEquals(0, baseline.browseErrors.get(), "Có request xem job lỗi ở pha nền");
+		assertEquals(0, storm.browseErrors.get(), "Có request xem job lỗi khi đăng nhập dồn dập");
+		assertTrue(storm.loginOk.get() > 0, "Không có lần đăng nhập nào thành công");
+		long baselineP99 = LoadSupport.percentile(baseline.sorted(), 99);
+		long stormP99 = LoadSupport.percentile(storm.sorted(), 99);
+		assertTrue(stormP99 <= baselineP99 * maxSlowdown + 50_000,
+				"p99 xem job tăng từ " + baselineP99 / 1000 + "ms lên " + stormP99 / 1000 + "ms");
+	}
+
+	// ========================== UTIL ==========================
+
+	private static HttpClient client() {
+		return HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(10))
+				.build();
+	}
+
+	private static List<Runnable> browse(HttpClient client, Phase phase, int threads) {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(LoadSupport.baseUrl() + BROWSE_PATH))
+				.timeout(Duration.ofSeconds(30))
+				.GET()
+				.build();
+		List<Runnable> workers = new ArrayList<>();
+		for (int i = 0; i < threads; i++) {
+			workers.add(() -> {
+				long start = System.nanoTime();
+				try {
+					HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+					if (response.statusCode() != 200) {
+						phase.browseErrors.incrementAndGet();
+						return;
+					}
+					phase.browseMicros.add((System.nanoTime() - start) / 1000);
+				} catch (Exception e) {
+					phase.browseErrors.incrementAndGet();
+				}
+			});
+		}
+		return workers;
+	}
+
+	// mỗi worker chạy lặp trên 1 luồng riêng cho tới hết pha
+	private static void run(long durationMs, List<Runnable> workers) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + durationMs;
+		List<Thread> threads = new ArrayList<>();
+		for (Runnable worker : workers) {
+			Thread t = new Thread(() -> {
+				while (System.currentTimeMillis() < deadline) {
+					worker.run();
+				}
+			});
+			t.start();
+			threads.add(t);
+		}
+		for (Thread t : threads) {
+			t.join();
+		}
+	}
+
+	private static final class Phase {
+
+		final Queue<Long> browseMicros = new ConcurrentLinkedQueue<>();
+		final AtomicLong browseErrors = new AtomicLong();
+		final AtomicLong loginOk = new AtomicLong();
+		final AtomicLong loginRejected = new AtomicLong();
+		final AtomicLong loginOther = new AtomicLong();
+		final AtomicLong loginErrors = new AtomicLong();
+
+		void count(int status) {
+			if (status == 200) {
+				this.loginOk.incrementAndGet();
+			} else if (status == 429) {
+				this.loginRejected.incrementAndGet();
+			} else {
+				this.loginOther.incrementAndGet();
+			}
+		}
+
+		long[] sorted() {
+			return this.browseMicros.stream().mapToLong(Long::longValue).sorted().toArray();
+		}
+
+		String summary() {
+			return LoadSupport.summary(this.sorted()) + " errors=" + this.browseErrors.get();
+		}
+	}
+}
@@ -0,0 +1,175 @@
+package vn.nhom11.jobhunter.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import vn.nhom11.jobhunter.domain.UploadSession;
+import vn.nhom11.jobhunter.domain.request.ReqInitUploadDTO;
+import vn.nhom11.jobhunter.domain.response.file.ResUploadChunkDTO;
+import vn.nhom11.jobhunter.domain.response.file.ResUploadSessionDTO;
+import vn.nhom11.jobhunter.repository.UploadChunkRepository;
+import vn.nhom11.jobhunter.repository.UploadSessionRepository;
+import vn.nhom11.jobhunter.util.error.StorageException;
+
+/**
+ * Giới hạn của từng phần khi upload theo phần: chunkSize = 4, file 10 byte -> 3 phần (4, 4, 2)
+ */
+class ChunkedUploadServiceTest {
+
+	private static final int CHUNK_SIZE = 4;
+
+	@TempDir
+	Path tmpDir;
+
+	private final UploadSessionRepository sessions = mock(UploadSessionRepository.class);
+	private final UploadChunkRepository chunks = mock(UploadChunkRepository.class);
+	private final FileBlobService fileBlobService = mock(FileBlobService.class);
+	private ChunkedUploadService service;
+	private UploadSession saved;
+
+	private final byte[] content = "0123456789".getBytes();
+
+	@BeforeEach
+	void setUp() {
+		SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("user@gmail.com", null));
+		when(this.fileBlobService.tempPath(anyString())).thenAnswer(i -> this.tmpDir.resolve((String) i.getArgument(0)));
+		when(this.sessions.save(any(UploadSession.class))).thenAnswer(i -> this.saved = i.getArgument(0));
+		when(this.sessions.findById(anyString())).thenAnswer(i -> Optional.ofNullable(this.saved)
+				.filter(s -> s.getId().equals(i.getArgument(0))));
+
+		this.service = new ChunkedUploadService(this.sessions, this.chunks, this.fileBlobService,
+				mock(ImageVariantService.class), new TransactionTemplate(mock(PlatformTransactionManager.class)));
+		ReflectionTestUtils.setField(this.service, "chunkSize", CHUNK_SIZE);
+		ReflectionTestUtils.setField(this.service, "maxSize", 1024L);
+		ReflectionTestUtils.setField(this.service, "ttlHours", 1L);
+	}
+
+	@AfterEach
+	void clearContext() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void chunkCountRoundsUp() throws Exception {
+		assertEquals(3, this.initiate(10).getChunkCount());
+		assertEquals(2, this.initiate(8).getChunkCount());
+		assertEquals(1, this.initiate(1).getChunkCount());
+	}
+
+	@Test
+	void rejectsOversizedFile() {
+		assertThrows(StorageException.class, () -> this.initiate(1025));
+	}
+
+	@Test
+	void rejectsIndexOutsideSession() throws Exception {
+		String id = this.initiate(10).getUploadId();
+
+		assertThrows(StorageException.class, () -> this.write(id, -1, new byte[CHUNK_SIZE]));
+		assertThrows(StorageException.class, () -> this.write(id, 3, new byte[2]));
+		verify(this.chunks, never()).markReceived(anyString(), anyInt(), anyLong(), anyString());
+	}
+
+	@Test
+	void writesEachChunkAtItsOffsetInAnyOrder() throws Exception {
+		String id = this.initiate(10).getUploadId();
+
+		this.write(id, 2, this.slice(8, 10));
+		this.write(id, 0, this.slice(0, 4));
+		this.write(id, 1, this.slice(4, 8));
+		// gửi lại 1 phần: ghi đè đúng vị trí cũ
+		ResUploadChunkDTO again = this.write(id, 1, this.slice(4, 8));
+
+		assertArrayEquals(this.content, Files.readAllBytes(this.part(id)));
+		assertEquals(4, again.getSize());
+		verify(this.chunks).markReceived(id, 2, 2L, sha256(this.slice(8, 10)));
+	}
+
+	@Test
+	void chunkMustHaveExactSize() throws Exception {
+		String id = this.initiate(10).getUploadId();
+
+		assertThrows(StorageException.class, () -> this.write(id, 0, new byte[CHUNK_SIZE + 1]));
+		assertThrows(StorageException.class, () -> this.write(id, 0, new byte[CHUNK_SIZE - 1]));
+		// phần cuối chỉ còn 2 byte
+		assertThrows(StorageException.class, () -> this.write(id, 2, new byte[CHUNK_SIZE]));
+		assertThrows(StorageException.class, () -> this.write(id, 2, new byte[0]));
+
+		// phần quá dài bị từ chối trước khi ghi: không có byte nào vượt ra ngoài file
+		assertEquals(0, Files.size(this.part(id)));
+		verify(this.chunks, never()).markReceived(anyString(), anyInt(), anyLong(), anyString());
+	}
+
+	@Test
+	void checksumMismatchIsNotRecorded() throws Exception {
+		String id = this.initiate(10).getUploadId();
+
+		assertThrows(StorageException.class,
+				() -> this.service.writeChunk(id, 0, new ByteArrayInputStream(this.slice(0, 4)), sha256(new byte[4])));
+		verify(this.chunks, never()).markReceived(anyString(), anyInt(), anyLong(), anyString());
+
+		this.service.writeChunk(id, 0, new ByteArrayInputStream(this.slice(0, 4)),
+				sha256(this.slice(0, 4)).toUpperCase());
+		verify(this.chunks).markReceived(id, 0, 4L, sha256(this.slice(0, 4)));
+	}
+
+	@Test
+	void otherUsersCannotWriteToSession() throws Exception {
+		String id = this.initiate(10).getUploadId();
+		SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("other@gmail.com", null));
+
+		assertThrows(StorageException.class, () -> this.write(id, 0, this.slice(0, 4)));
+	}
+
+	// ========================== UTIL ==========================
+
+	private ResUploadSessionDTO initiate(long size) throws Exception {
+		ReqInitUploadDTO req = new ReqInitUploadDTO();
+		req.setFileName("cv.pdf");
+		req.setFolder("resume");
+		req.setSize(size);
+		return this.service.initiate(req);
+	}
+
+	private ResUploadChunkDTO write(String id, int index, byte[] data) throws Exception {
+		return this.service.writeChunk(id, index, new ByteArrayInputStream(data), null);
+	}
+
+	private Path part(String id) {
+		return this.tmpDir.resolve(id + ".part");
+	}
+
+	private byte[] slice(int from, int to) {
+		return Arrays.copyOfRange(this.content, from, to);
+	}
+
+	private static String sha256(byte[] data) {
+		return HexFormat.of().formatHex(FileBlobService.sha256().digest(data));
+	}
+}
@@ -0,0 +1,170 @@
+package vn.nhom11.jobhunter.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * FileService.serveFile: Range / If-Range / 416 trên 1 file 100 byte
+ */
+class FileServiceRangeTest {
+
+	private static final long MODIFIED = 1_700_000_000_000L; // Tue, 14 Nov 2023 22:13:20 GMT
+
+	@TempDir
+	Path dir;
+
+	private final FileService fileService = new FileService(Mockito.mock(FileBlobService.class));
+	private final byte[] content = new byte[100];
+	private Path file;
+
+	@BeforeEach
+	void createFile() throws Exception {
+		for (int i = 0; i < this.content.length; i++) {
+			this.content[i] = (byte) i;
+		}
+		this.file = Files.write(this.dir.resolve("cv.pdf"), this.content);
+		Files.setLastModifiedTime(this.file, FileTime.fromMillis(MODIFIED));
+	}
+
+	@Test
+	void noRangeSendsWholeFile() throws Exception {
+		MockHttpServletResponse response = this.serve(this.get());
+
+		assertEquals(200, response.getStatus());
+		assertEquals("bytes", response.getHeader("Accept-Ranges"));
+		assertEquals(100, response.getContentLengthLong());
+		assertArrayEquals(this.content, response.getContentAsByteArray());
+	}
+
+	@Test
+	void singleRangeSendsPartialContent() throws Exception {
+		MockHttpServletResponse response = this.serve(this.get("Range", "bytes=10-19"));
+
+		assertEquals(206, response.getStatus());
+		assertEquals("bytes 10-19/100", response.getHeader("Content-Range"));
+		assertEquals(10, response.getContentLengthLong());
+		assertArrayEquals(this.slice(10, 19), response.getContentAsByteArray());
+	}
+
+	@Test
+	void suffixOpenAndOverlongRangesAreClamped() throws Exception {
+		assertEquals("bytes 95-99/100", this.serve(this.get("Range", "bytes=-5")).getHeader("Content-Range"));
+		assertEquals("bytes 90-99/100", this.serve(this.get("Range", "bytes=90-")).getHeader("Content-Range"));
+
+		MockHttpServletResponse response = this.serve(this.get("Range", "bytes=95-500"));
+		assertEquals("bytes 95-99/100", response.getHeader("Content-Range"));
+		assertArrayEquals(this.slice(95, 99), response.getContentAsByteArray());
+	}
+
+	@Test
+	void multipleRangesUseMultipartByteranges() throws Exception {
+		MockHttpServletResponse response = this.serve(this.get("Range", "bytes=0-4,10-14"));
+
+		assertEquals(206, response.getStatus());
+		assertTrue(response.getContentType().startsWith("multipart/byteranges; boundary="));
+		String body = new String(response.getContentAsByteArray(), StandardCharsets.ISO_8859_1);
+		assertTrue(body.contains("Content-Range: bytes 0-4/100"));
+		assertTrue(body.contains("Content-Range: bytes 10-14/100"));
+		assertTrue(body.contains(new String(this.slice(10, 14), StandardCharsets.ISO_8859_1)));
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "bytes=100-", "bytes=200-300", "bytes=abc", "items=0-10", "bytes=0-99,0-99" })
+	void unsatisfiableRangeIs416(String range) throws Exception {
+		MockHttpServletResponse response = this.serve(this.get("Range", range));
+
+		assertEquals(416, response.getStatus());
+		assertEquals("bytes */100", response.getHeader("Content-Range"));
+		assertEquals(0, response.getContentAsByteArray().length);
+	}
+
+	@Test
+	void ifRangeWithCurrentETagHonoursRange() throws Exception {
+		String etag = this.serve(this.get()).getHeader("ETag");
+
+		MockHttpServletResponse response = this.serve(this.get("Range", "bytes=0-9", "If-Range", etag));
+
+		assertEquals(206, response.getStatus());
+		assertArrayEquals(this.slice(0, 9), response.getContentAsByteArray());
+	}
+
+	@Test
+	void ifRangeWithStaleETagSendsWholeFile() throws Exception {
+		MockHttpServletResponse response = this.serve(this.get("Range", "bytes=0-9", "If-Range", "\"stale\""));
+
+		assertEquals(200, response.getStatus());
+		assertNull(response.getHeader("Content-Range"));
+		assertArrayEquals(this.content, response.getContentAsByteArray());
+	}
+
+	@Test
+	void ifRangeDateMustMatchLastModified() throws Exception {
+		MockHttpServletResponse current = this.serve(
+				this.get("Range", "bytes=0-9", "If-Range", "Tue, 14 Nov 2023 22:13:20 GMT"));
+		assertEquals(206, current.getStatus());
+
+		MockHttpServletResponse stale = this.serve(
+				this.get("Range", "bytes=0-9", "If-Range", "Mon, 13 Nov 2023 22:13:20 GMT"));
+		assertEquals(200, stale.getStatus());
+		assertEquals(100, stale.getContentAsByteArray().length);
+	}
+
+	@Test
+	void headWithRangeSendsHeadersOnly() throws Exception {
+		MockHttpServletRequest request = this.get("Range", "bytes=10-19");
+		request.setMethod("HEAD");
+
+		MockHttpServletResponse response = this.serve(request);
+
+		assertEquals(206, response.getStatus());
+		assertEquals(10, response.getContentLengthLong());
+		assertEquals(0, response.getContentAsByteArray().length);
+	}
+
+	@Test
+	void matchingIfNoneMatchIs304() throws Exception {
+		String etag = this.serve(this.get()).getHeader("ETag");
+
+		MockHttpServletResponse response = this.serve(this.get("If-None-Match", etag, "Range", "bytes=0-9"));
+
+		assertEquals(304, response.getStatus());
+		assertEquals(0, response.getContentAsByteArray().length);
+	}
+
+	// ========================== UTIL ==========================
+
+	private MockHttpServletRequest get(String... headers) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/files");
+		for (int i = 0; i < headers.length; i += 2) {
+			request.addHeader(headers[i], headers[i + 1]);
+		}
+		return request;
+	}
+
+	private MockHttpServletResponse serve(MockHttpServletRequest request) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.fileService.serveFile(this.file, "cv.pdf", request, response);
+		return response;
+	}
+
+	private byte[] slice(int start, int end) {
+		return Arrays.copyOfRange(this.content, start, end + 1);
+	}
+}
@@ -0,0 +1,122 @@
+package vn.nhom11.jobhunter.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import vn.nhom11.jobhunter.domain.Job;
+import vn.nhom11.jobhunter.util.constant.LevelEnum;
+import vn.nhom11.jobhunter.util.error.InvalidCursorException;
+
+/**
+ * Cursor của phân trang keyset: thứ tự sort, mã hóa / giải mã, cursor sai
+ */
+class KeysetCursorTest {
+
+	private static final Sort DEFAULT = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+	private final KeysetPaginationService service = new KeysetPaginationService(
+			// cấu hình như ObjectMapper của Spring Boot: Instant dạng ISO-8601
+			Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build());
+
+	@Test
+	void defaultSortIsCreatedAtThenIdDescending() {
+		assertEquals(DEFAULT, this.service.resolveSort(Sort.unsorted()));
+	}
+
+	@Test
+	void idIsAppendedInDirectionOfLastKey() {
+		assertEquals(Sort.by(Sort.Order.desc("salary"), Sort.Order.asc("name"), Sort.Order.asc("id")),
+				this.service.resolveSort(Sort.by(Sort.Order.desc("salary"), Sort.Order.asc("name"))));
+
+		Sort withId = Sort.by(Sort.Order.asc("id"), Sort.Order.desc("name"));
+		assertEquals(withId, this.service.resolveSort(withId));
+	}
+
+	@Test
+	void forwardCursorRoundTripsWithEntityTypes() {
+		Map<String, Object> keys = new LinkedHashMap<>();
+		keys.put("createdAt", Instant.parse("2024-05-01T08:30:15.123456789Z"));
+		keys.put("id", 42L);
+
+		KeysetScrollPosition decoded = this.roundTrip(ScrollPosition.forward(keys), DEFAULT);
+
+		assertTrue(decoded.scrollsForward());
+		assertEquals(keys, decoded.getKeys());
+		assertEquals(Instant.class, decoded.getKeys().get("createdAt").getClass());
+	}
+
+	@Test
+	void backwardCursorKeepsDirection() {
+		Map<String, Object> keys = Map.of("createdAt", Instant.parse("2024-05-01T08:30:15Z"), "id", 7L);
+
+		KeysetScrollPosition decoded = this.roundTrip(ScrollPosition.backward(keys), DEFAULT);
+
+		assertFalse(decoded.scrollsForward());
+		assertEquals(keys, decoded.getKeys());
+	}
+
+	@Test
+	void enumAndNestedPropertiesRoundTrip() {
+		Sort sort = Sort.by(Sort.Order.asc("level"), Sort.Order.asc("company.name"), Sort.Order.asc("id"));
+		Map<String, Object> keys = new LinkedHashMap<>();
+		keys.put("level", LevelEnum.SENIOR);
+		keys.put("company.name", "Nhóm 11");
+		keys.put("id", 3L);
+
+		assertEquals(keys, this.roundTrip(ScrollPosition.forward(keys), sort).getKeys());
+	}
+
+	@Test
+	void cursorFromAnotherSortIsRejected() {
+		String cursor = this.service.encode(
+				ScrollPosition.forward(Map.of("createdAt", Instant.parse("2024-05-01T08:30:15Z"), "id", 1L)));
+		Sort byName = Sort.by(Sort.Order.asc("name"), Sort.Order.asc("id"));
+
+		assertThrows(InvalidCursorException.class, () -> this.service.decode(cursor, Job.class, byName));
+	}
+
+	@Test
+	void unknownSortPropertyIsRejected() {
+		Sort sort = Sort.by(Sort.Order.asc("nope"), Sort.Order.asc("id"));
+		String cursor = this.service.encode(ScrollPosition.forward(Map.of("nope", "x", "id", 1L)));
+
+		assertThrows(InvalidCursorException.class, () -> this.service.decode(cursor, Job.class, sort));
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "%%%", "bm90IGpzb24", "{}", "{\"d\":\"f\"}", "{\"d\":\"f\",\"k\":[1]}",
+			"{\"d\":\"f\",\"k\":{\"createdAt\":\"yesterday\",\"id\":1}}",
+			"{\"d\":\"f\",\"k\":{\"createdAt\":null,\"id\":1}}" })
+	void malformedCursorIsRejected(String raw) {
+		// chuỗi JSON được mã hóa Base64 như cursor thật, các chuỗi khác giữ nguyên
+		String cursor = raw.startsWith("{")
+				? Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8))
+				: raw;
+
+		assertThrows(InvalidCursorException.class, () -> this.service.decode(cursor, Job.class, DEFAULT));
+	}
+
+	// ========================== UTIL ==========================
+
+	private KeysetScrollPosition roundTrip(KeysetScrollPosition position, Sort sort) {
+		return this.service.decode(this.service.encode(position), Job.class, sort);
+	}
+}
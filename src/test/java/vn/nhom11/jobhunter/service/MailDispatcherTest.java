@@ -0,0 +1,149 @@
+package vn.nhom11.jobhunter.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * MailDispatcher gửi qua SMTP giả (GreenMail) thay cho Gmail
+ */
+class MailDispatcherTest {
+
+	@RegisterExtension
+	static final GreenMailExtension smtp = new GreenMailExtension(ServerSetupTest.SMTP);
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private MailDispatcher dispatcher;
+
+	@AfterEach
+	void stop() {
+		if (this.dispatcher != null) {
+			this.dispatcher.stop();
+		}
+	}
+
+	@Test
+	void deliversEveryQueuedMailAndRunsCallbackAfterSmtpAccepts() throws Exception {
+		this.dispatcher = this.start(ServerSetupTest.SMTP.getPort(), 1000, 3);
+		int total = 120;
+		CountDownLatch sent = new CountDownLatch(total);
+		for (int i = 0; i < total; i++) {
+			assertTrue(this.dispatcher.enqueue("user" + i + "@domain" + (i % 5) + ".test", "subject " + i,
+					"<b>body " + i + "</b>", true, sent::countDown));
+		}
+
+		assertTrue(smtp.waitForIncomingEmail(10_000, total));
+		assertTrue(sent.await(5, TimeUnit.SECONDS));
+
+		MimeMessage[] received = smtp.getReceivedMessages();
+		assertEquals(total, received.length);
+		Set<String> subjects = Stream.of(received).map(m -> {
+			try {
+				return m.getSubject();
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		}).collect(Collectors.toSet());
+		assertEquals(total, subjects.size());
+		assertEquals(total, this.registry.counter("mail.sent").count());
+		assertEquals(0, this.dispatcher.getQueueDepth());
+	}
+
+	@Test
+	void throttlesOneDomainWithoutDroppingMail() throws Exception {
+		// 3 email/giây cho cùng 1 domain: 9 email cần ít nhất ~2 giây
+		this.dispatcher = this.start(ServerSetupTest.SMTP.getPort(), 3, 3);
+		int total = 9;
+		long startedAt = System.nanoTime();
+		for (int i = 0; i < total; i++) {
+			assertTrue(this.dispatcher.enqueue("user" + i + "@same.test", "subject " + i, "body", false));
+		}
+
+		assertTrue(smtp.waitForIncomingEmail(10_000, total));
+		long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+		assertTrue(elapsedMs >= 1500, "gửi quá nhanh: " + elapsedMs + "ms");
+		assertTrue(this.registry.counter("mail.rate-limited").count() > 0);
+		assertEquals(0, this.registry.counter("mail.failed").count());
+	}
+
+	@Test
+	void retriesWithBackoffThenGivesUpWithoutCallback() throws Exception {
+		// cổng không có SMTP nào nghe: mọi lần gửi đều lỗi kết nối
+		this.dispatcher = this.start(ServerSetupTest.SMTP.getPort() + 100, 1000, 3);
+		AtomicInteger callbacks = new AtomicInteger();
+		assertTrue(this.dispatcher.enqueue("user@down.test", "subject", "body", false, callbacks::incrementAndGet));
+
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (this.registry.counter("mail.failed").count() < 1 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+		}
+
+		assertEquals(1, this.registry.counter("mail.failed").count());
+		assertEquals(2, this.registry.counter("mail.retried").count());
+		assertEquals(0, callbacks.get());
+		assertEquals(0, this.dispatcher.getQueueDepth());
+	}
+
+	@Test
+	void transactionalLaneNeverBlocksWhenBulkLaneIsFull() throws Exception {
+		// SMTP không chạy: email nằm lại trong hàng đợi, làn hàng loạt (1000 chỗ) bị lấp đầy như khi digest lớn
+		this.dispatcher = this.start(ServerSetupTest.SMTP.getPort() + 100, 1000, 10);
+		for (int i = 0; i < 1000; i++) {
+			assertTrue(this.dispatcher.enqueue("user" + i + "@digest.test", "digest", "body", true));
+		}
+		assertFalse(this.dispatcher.enqueue("late@digest.test", "digest", "body", true));
+
+		long startedAt = System.nanoTime();
+		for (int i = 0; i < 10; i++) {
+			assertTrue(this.dispatcher.enqueuePriority("new" + i + "@user.test", "verify", "body", false));
+		}
+		// làn ưu tiên đầy: trả false ngay, không chờ enqueue-timeout
+		assertFalse(this.dispatcher.enqueuePriority("new10@user.test", "verify", "body", false));
+		long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+		assertTrue(elapsedMs < 500, "làn giao dịch bị chặn: " + elapsedMs + "ms");
+	}
+
+	// ========================== UTIL ==========================
+
+	private MailDispatcher start(int port, double ratePerDomain, int maxAttempts) {
+		JavaMailSenderImpl sender = new JavaMailSenderImpl();
+		sender.setHost("127.0.0.1");
+		sender.setPort(port);
+		Properties props = new Properties();
+		props.put("mail.from", "noreply@jobhunter.test");
+		props.put("mail.smtp.connectiontimeout", "1000");
+		sender.setJavaMailProperties(props);
+
+		MailDispatcher d = new MailDispatcher(sender, this.registry);
+		ReflectionTestUtils.setField(d, "queueCapacity", 1000);
+		ReflectionTestUtils.setField(d, "workers", 2);
+		ReflectionTestUtils.setField(d, "batchSize", 20);
+		ReflectionTestUtils.setField(d, "ratePerDomain", ratePerDomain);
+		ReflectionTestUtils.setField(d, "maxAttempts", maxAttempts);
+		ReflectionTestUtils.setField(d, "retryBackoffMs", 50L);
+		ReflectionTestUtils.setField(d, "enqueueTimeoutMs", 1000L);
+		ReflectionTestUtils.setField(d, "priorityCapacity", 10);
+		d.start();
+		return d;
+	}
+}
@@ -0,0 +1,173 @@
+package vn.nhom11.jobhunter.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Answers;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import vn.nhom11.jobhunter.domain.NotificationDTO.NotificationDTO;
+import vn.nhom11.jobhunter.domain.response.ResNotificationFeedDTO;
+import vn.nhom11.jobhunter.repository.CompanyRegistrationRepository;
+import vn.nhom11.jobhunter.repository.CompanyRepository;
+import vn.nhom11.jobhunter.repository.JobRepository;
+import vn.nhom11.jobhunter.repository.PermissionRepository;
+import vn.nhom11.jobhunter.repository.ResumeRepository;
+import vn.nhom11.jobhunter.repository.RoleRepository;
+import vn.nhom11.jobhunter.repository.SubscriberRepository;
+import vn.nhom11.jobhunter.util.error.InvalidCursorException;
+
+/**
+ * Cursor của feed thông báo và phân trang qua 7 bảng (repository giả lập đúng điều kiện seek + LIMIT của query)
+ */
+class NotificationFeedTest {
+
+	private static final Instant BASE = Instant.now().truncatedTo(ChronoUnit.SECONDS).minus(1, ChronoUnit.HOURS);
+
+	// ========================== CURSOR ==========================
+
+	@Test
+	void cursorRoundTripsActivityTimeTypeAndId() {
+		NotificationDTO n = new NotificationDTO(42, "a@gmail.com", BASE, "b@gmail.com", BASE.plusSeconds(30));
+		n.setType("company_registration");
+
+		NotificationDTO decoded = NotificationService.decodeCursor(NotificationService.encodeCursor(n));
+
+		assertEquals(BASE.plusSeconds(30), decoded.getActivityAt());
+		assertEquals("company_registration", decoded.getType());
+		assertEquals(42, decoded.getSourceId());
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "abc", "2024-01-01T00:00:00Z_job", "2024-01-01T00:00:00Z__1", "yesterday_job_1",
+			"2024-01-01T00:00:00Z_job_x", "_job_1" })
+	void malformedCursorIsRejected(String cursor) {
+		assertThrows(InvalidCursorException.class, () -> NotificationService.decodeCursor(cursor));
+	}
+
+	@Test
+	void seekBoundFollowsTypeOrderForTies() {
+		NotificationDTO after = new NotificationDTO(10, "a", BASE, null, null);
+		after.setType("job");
+
+		// bảng đứng trước "job": các dòng cùng thời điểm đã trả ở trang trước
+		assertEquals(Long.MIN_VALUE, NotificationService.seekBound("company", after));
+		assertEquals(10, NotificationService.seekBound("job", after));
+		// bảng đứng sau "job": các dòng cùng thời điểm chưa trả
+		assertEquals(Long.MAX_VALUE, NotificationService.seekBound("resume", after));
+	}
+
+	// ========================== FEED ==========================
+
+	@Test
+	void pagesThroughEveryRowOnceInFeedOrder() {
+		AtomicInteger maxLimit = new AtomicInteger();
+		Map<String, List<NotificationDTO>> tables = Map.of(
+				"company", rows(9), "job", rows(13), "permission", rows(4), "resume", rows(11),
+				"role", rows(2), "subscriber", rows(7), "company_registration", rows(5));
+		NotificationService service = new NotificationService(
+				table(CompanyRepository.class, tables.get("company"), maxLimit),
+				table(JobRepository.class, tables.get("job"), maxLimit),
+				table(PermissionRepository.class, tables.get("permission"), maxLimit),
+				table(ResumeRepository.class, tables.get("resume"), maxLimit),
+				table(RoleRepository.class, tables.get("role"), maxLimit),
+				table(SubscriberRepository.class, tables.get("subscriber"), maxLimit),
+				table(CompanyRegistrationRepository.class, tables.get("company_registration"), maxLimit),
+				null);
+		ReflectionTestUtils.setField(service, "feedThreads", 7);
+		ReflectionTestUtils.setField(service, "feedQueueCapacity", 70);
+		ReflectionTestUtils.setField(service, "feedTimeoutMs", 5000L);
+		ReflectionTestUtils.setField(service, "dbPoolSize", 10);
+		service.start();
+
+		List<String> expected = new ArrayList<>();
+		tables.forEach((type, rows) -> rows.stream()
+				.filter(r -> r.getActivityAt().isAfter(BASE.minus(1, ChronoUnit.DAYS)))
+				.forEach(r -> expected.add(key(type, r))));
+		expected.sort(Comparator.comparing((String k) -> Instant.parse(k.split("\\|")[0]), Comparator.reverseOrder())
+				.thenComparing(k -> k.split("\\|")[1])
+				.thenComparing(k -> Long.parseLong(k.split("\\|")[2]), Comparator.reverseOrder()));
+
+		int limit = 4;
+		List<String> seen = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			ResNotificationFeedDTO page = service.getFeed(24, cursor, limit);
+			assertTrue(page.getItems().size() <= limit);
+			page.getItems().forEach(n -> seen.add(key(n.getType(), n)));
+			cursor = page.getNextCursor();
+			pages++;
+		} while (cursor != null && pages < 100);
+
+		assertNull(cursor);
+		assertEquals(expected, seen);
+		Set<String> unique = new HashSet<>(seen);
+		assertEquals(seen.size(), unique.size());
+		// mỗi query chỉ lấy tối đa limit + 1 dòng
+		assertEquals(limit + 1, maxLimit.get());
+		service.stop();
+	}
+
+	// ========================== UTIL ==========================
+
+	// nhiều dòng trùng thời điểm hoạt động, một số dòng đã được cập nhật
+	private static List<NotificationDTO> rows(int count) {
+		List<NotificationDTO> rows = new ArrayList<>();
+		for (int id = 1; id <= count; id++) {
+			Instant createdAt = BASE.plus(id % 3, ChronoUnit.MINUTES);
+			Instant updatedAt = id % 4 == 0 ? BASE.plus(5, ChronoUnit.MINUTES) : null;
+			rows.add(new NotificationDTO(id, "creator", createdAt, updatedAt == null ? null : "updater", updatedAt));
+		}
+		// dòng nằm ngoài cửa sổ thời gian
+		rows.add(new NotificationDTO(count + 1, "creator", BASE.minus(2, ChronoUnit.DAYS), null, null));
+		return rows;
+	}
+
+	// repository giả: WHERE (createdAt >= from OR updatedAt >= from) AND seek(beforeAt, beforeId)
+	// ORDER BY COALESCE(updatedAt, createdAt) DESC, id DESC LIMIT limit
+	private static <R> R table(Class<R> type, List<NotificationDTO> rows, AtomicInteger maxLimit) {
+		return Mockito.mock(type, invocation -> {
+			if (!invocation.getMethod().getName().equals("findNotificationsSince")) {
+				return Answers.RETURNS_DEFAULTS.answer(invocation);
+			}
+			Instant from = invocation.getArgument(0);
+			Instant beforeAt = invocation.getArgument(1);
+			long beforeId = invocation.getArgument(2);
+			Limit limit = invocation.getArgument(3);
+			maxLimit.accumulateAndGet(limit.max(), Math::max);
+			return rows.stream()
+					.filter(r -> !r.getCreatedAt().isBefore(from)
+							|| (r.getUpdatedAt() != null && !r.getUpdatedAt().isBefore(from)))
+					.filter(r -> beforeAt == null || r.getActivityAt().isBefore(beforeAt)
+							|| (r.getActivityAt().equals(beforeAt) && r.getSourceId() < beforeId))
+					.sorted(Comparator.comparing(NotificationDTO::getActivityAt, Comparator.reverseOrder())
+							.thenComparing(NotificationDTO::getSourceId, Comparator.reverseOrder()))
+					.limit(limit.max())
+					.map(r -> new NotificationDTO(r.getSourceId(), r.getCreatedBy(), r.getCreatedAt(),
+							r.getUpdatedBy(), r.getUpdatedAt()))
+					.toList();
+		});
+	}
+
+	private static String key(String type, NotificationDTO n) {
+		return n.getActivityAt() + "|" + type + "|" + n.getSourceId();
+	}
+}
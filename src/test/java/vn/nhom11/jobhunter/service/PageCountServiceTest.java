@@ -0,0 +1,196 @@
+package vn.nhom11.jobhunter.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import vn.nhom11.jobhunter.domain.Job;
+import vn.nhom11.jobhunter.service.PageCountService.CountedPage;
+import vn.nhom11.jobhunter.util.constant.CountModeEnum;
+
+/**
+ * Chế độ tính tổng của PageCountService và các đường lùi (estimated -> cached -> exact)
+ */
+class PageCountServiceTest {
+
+	private static final long EXACT_TOTAL = 1234;
+	private static final Pageable FIRST_PAGE = PageRequest.of(0, 10);
+
+	private static final Specification<Job> NO_FILTER = (root, query, cb) -> null;
+	private static final Specification<Job> FILTER = (root, query, cb) -> mock(Predicate.class);
+
+	private final EntityManager entityManager = mock(EntityManager.class);
+	private final Query statistics = mock(Query.class);
+	private TypedQuery<Long> countQuery;
+	private PageCountService service;
+	private MockHttpServletRequest request;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		CriteriaBuilder cb = mock(CriteriaBuilder.class);
+		CriteriaQuery<Long> criteria = mock(CriteriaQuery.class);
+		this.countQuery = mock(TypedQuery.class);
+		when(this.entityManager.getCriteriaBuilder()).thenReturn(cb);
+		when(cb.createQuery(Long.class)).thenReturn(criteria);
+		when(criteria.from(Job.class)).thenReturn(mock(Root.class));
+		when(this.entityManager.createQuery(criteria)).thenReturn(this.countQuery);
+		when(this.countQuery.getSingleResult()).thenReturn(EXACT_TOTAL);
+
+		when(this.entityManager.createNativeQuery(anyString())).thenReturn(this.statistics);
+		when(this.statistics.setParameter(anyString(), any())).thenReturn(this.statistics);
+		when(this.statistics.getResultList()).thenReturn(List.of(BigInteger.valueOf(5000)));
+
+		this.service = new PageCountService(this.entityManager);
+		ReflectionTestUtils.setField(this.service, "ttlMs", 60_000L);
+		ReflectionTestUtils.setField(this.service, "maxSize", 100);
+		this.service.init();
+
+		this.request = new MockHttpServletRequest("GET", "/api/v1/jobs");
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(this.request));
+	}
+
+	@AfterEach
+	void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	void partialPageNeedsNoCount() {
+		CountedPage<String> page = this.find(NO_FILTER, FIRST_PAGE, 7);
+
+		assertEquals(7, page.getTotalElements());
+		assertEquals(CountModeEnum.EXACT, page.getCountMode());
+		verify(this.countQuery, never()).getSingleResult();
+	}
+
+	@Test
+	void exactIsTheDefault() {
+		CountedPage<String> page = this.find(FILTER, FIRST_PAGE, 10);
+
+		assertEquals(EXACT_TOTAL, page.getTotalElements());
+		assertEquals(CountModeEnum.EXACT, page.getCountMode());
+	}
+
+	@Test
+	void unknownModeFallsBackToExact() {
+		this.request.setParameter("count", "bogus");
+
+		assertEquals(CountModeEnum.EXACT, this.find(FILTER, FIRST_PAGE, 10).getCountMode());
+	}
+
+	@Test
+	void estimatedUsesTableStatisticsWithoutFilter() {
+		this.request.setParameter("count", " Estimated ");
+
+		CountedPage<String> page = this.find(NO_FILTER, FIRST_PAGE, 10);
+
+		assertEquals(5000, page.getTotalElements());
+		assertEquals(CountModeEnum.ESTIMATED, page.getCountMode());
+		verify(this.countQuery, never()).getSingleResult();
+	}
+
+	@Test
+	void estimateNeverBelowRowsAlreadySeen() {
+		this.request.setParameter("count", "estimated");
+		when(this.statistics.getResultList()).thenReturn(List.of(BigInteger.valueOf(3)));
+
+		CountedPage<String> page = this.find(NO_FILTER, PageRequest.of(4, 10), 10);
+
+		assertEquals(50, page.getTotalElements());
+		assertEquals(CountModeEnum.ESTIMATED, page.getCountMode());
+	}
+
+	@Test
+	void estimatedWithoutStatisticsFallsBackToExact() {
+		this.request.setParameter("count", "estimated");
+		when(this.statistics.getResultList()).thenReturn(Collections.singletonList(null));
+
+		CountedPage<String> page = this.find(NO_FILTER, FIRST_PAGE, 10);
+
+		assertEquals(EXACT_TOTAL, page.getTotalElements());
+		assertEquals(CountModeEnum.EXACT, page.getCountMode());
+	}
+
+	@Test
+	void estimatedWithFilterFallsBackToCached() {
+		this.request.setParameter("count", "estimated");
+		this.request.setParameter("filter", "name ~ 'java'");
+
+		CountedPage<String> first = this.find(FILTER, FIRST_PAGE, 10);
+		CountedPage<String> second = this.find(FILTER, FIRST_PAGE, 10);
+
+		assertEquals(CountModeEnum.CACHED, first.getCountMode());
+		assertEquals(EXACT_TOTAL, second.getTotalElements());
+		verify(this.countQuery, times(1)).getSingleResult();
+		verify(this.entityManager, never()).createNativeQuery(anyString());
+	}
+
+	@Test
+	void cachedCountIsKeyedByFilterButNotByPaging() {
+		this.request.setParameter("count", "cached");
+		this.request.setParameter("filter", "name ~ 'java'");
+		this.find(FILTER, FIRST_PAGE, 10);
+
+		// chỉ đổi trang / sort / khoảng trắng trong filter: dùng lại kết quả
+		this.request.setParameter("page", "2");
+		this.request.setParameter("sort", "createdAt,desc");
+		this.request.setParameter("filter", "name  ~  'java'");
+		assertEquals(CountModeEnum.CACHED, this.find(FILTER, PageRequest.of(1, 10), 10).getCountMode());
+		verify(this.countQuery, times(1)).getSingleResult();
+
+		// filter khác: đếm lại
+		this.request.setParameter("filter", "name ~ 'php'");
+		this.find(FILTER, FIRST_PAGE, 10);
+		verify(this.countQuery, times(2)).getSingleResult();
+	}
+
+	@Test
+	void withoutRequestCountIsExact() {
+		RequestContextHolder.resetRequestAttributes();
+
+		// không có request: không đọc được ?count=, luôn exact
+		CountedPage<String> page = this.find(FILTER, FIRST_PAGE, 10);
+
+		assertEquals(CountModeEnum.EXACT, page.getCountMode());
+		assertEquals(EXACT_TOTAL, page.getTotalElements());
+	}
+
+	// ========================== UTIL ==========================
+
+	private CountedPage<String> find(Specification<Job> spec, Pageable pageable, int rows) {
+		List<String> content = new ArrayList<>();
+		for (int i = 0; i < rows; i++) {
+			content.add("job " + i);
+		}
+		return this.service.findAll(Job.class, spec, pageable, (s, p) -> content);
+	}
+}
@@ -0,0 +1,103 @@
+package vn.nhom11.jobhunter.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class RouteTrieTest {
+
+	private static RouteTrie<String> trie() {
+		return new RouteTrie<>((a, b) -> a + "+" + b);
+	}
+
+	@Test
+	void matchesLiteralAndVariableSegments() {
+		RouteTrie<String> trie = trie();
+		trie.put("/api/v1/jobs", "GET", "list");
+		trie.put("/api/v1/jobs/{id}", "GET", "detail");
+
+		assertEquals("list", trie.match("/api/v1/jobs", "GET"));
+		assertEquals("detail", trie.match("/api/v1/jobs/15", "GET"));
+		assertNull(trie.match("/api/v1/jobs/15/skills", "GET"));
+		assertNull(trie.match("/api/v1/companies", "GET"));
+	}
+
+	@Test
+	void filtersByMethod() {
+		RouteTrie<String> trie = trie();
+		trie.put("/api/v1/jobs", "POST", "create");
+		trie.put("/api/v1/auth/**", null, "public");
+
+		assertEquals("create", trie.match("/api/v1/jobs", "post"));
+		assertNull(trie.match("/api/v1/jobs", "GET"));
+		// method = null khi đăng ký: mọi method
+		assertEquals("public", trie.match("/api/v1/auth/login", "DELETE"));
+		// method lạ không khớp gì
+		assertNull(trie.match("/api/v1/jobs", "BREW"));
+		assertNull(trie.match("/api/v1/jobs", null));
+	}
+
+	@Test
+	void literalWinsButFallsBackToVariable() {
+		RouteTrie<String> trie = trie();
+		trie.put("/api/v1/jobs/{id}", "GET", "detail");
+		trie.put("/api/v1/jobs/search", "POST", "search");
+
+		assertEquals("search", trie.match("/api/v1/jobs/search", "POST"));
+		// nhánh cố định không có GET -> thử nhánh biến
+		assertEquals("detail", trie.match("/api/v1/jobs/search", "GET"));
+	}
+
+	@Test
+	void doubleStarMatchesZeroOrMoreTrailingSegments() {
+		RouteTrie<String> trie = trie();
+		trie.put("/storage/**", "GET", "files");
+
+		assertEquals("files", trie.match("/storage", "GET"));
+		assertEquals("files", trie.match("/storage/logo", "GET"));
+		assertEquals("files", trie.match("/storage/logo/a/b.png", "GET"));
+		assertNull(trie.match("/static/logo", "GET"));
+	}
+
+	@Test
+	void ignoresLeadingTrailingAndRepeatedSlashes() {
+		RouteTrie<String> trie = trie();
+		trie.put("api/v1/jobs/", "GET", "list");
+
+		assertEquals("list", trie.match("/api/v1/jobs", "GET"));
+		assertEquals("list", trie.match("//api//v1/jobs//", "GET"));
+	}
+
+	@Test
+	void mergesValuesRegisteredTwice() {
+		RouteTrie<String> trie = trie();
+		trie.put("/api/v1/jobs", "GET", "a");
+		trie.put("/api/v1/jobs", null, "b");
+
+		assertEquals("a+b", trie.match("/api/v1/jobs", "GET"));
+		assertEquals("b", trie.match("/api/v1/jobs", "PUT"));
+	}
+
+	@Test
+	void patternModeMatchesVariablesByPositionNotName() {
+		RouteTrie<String> trie = trie();
+		trie.put("/api/v1/jobs/{id}", "GET", "detail");
+
+		assertEquals("detail", trie.matchPattern("/api/v1/jobs/{jobId}", "GET"));
+		assertEquals("detail", trie.matchPattern("/api/v1/jobs/*", "GET"));
+	}
+
+	@Test
+	void patternModeDoesNotLetLiteralRoutesBorrowVariableRoutes() {
+		RouteTrie<String> trie = trie();
+		trie.put("/api/v1/jobs/{id}", "GET", "detail");
+		trie.put("/api/v1/files/**", "GET", "files");
+
+		// handler /api/v1/jobs/search chưa được cấp quyền riêng
+		assertNull(trie.matchPattern("/api/v1/jobs/search", "GET"));
+		// route cụ thể không mượn quyền của ** khi so khớp theo pattern
+		assertNull(trie.matchPattern("/api/v1/files/list", "GET"));
+		assertEquals("files", trie.matchPattern("/api/v1/files/**", "GET"));
+	}
+}